@@ -0,0 +1,135 @@
+/**
+ * An append-only array that many threads can add to at once without locking.
+ *
+ * Elements live in segments that double in size, so growing never copies: a new
+ * segment is allocated and installed with a CAS, and everything already stored stays
+ * where it is. Each add claims its index with one atomic increment of a reservation
+ * counter and then writes its own slot, so producers only contend on that counter.
+ *
+ * Slots can be filled out of order, so a second counter marks how far the array is
+ * filled without gaps. Whichever producer fills the slot at that mark moves it past
+ * every filled slot that follows, so no thread ever waits on a slower one. size() is
+ * this mark, and get is safe for every index below it.
+ * @param <J> the type of elements stored in the array
+ */
+public class AppendOnlyArray<J> {
+    private static final int FIRST_SHIFT = 4;
+    private static final int SEGMENTS = 27;
+    /** Indices covered by all segments together; the last one holds 2^30 elements. */
+    static final int MAX_SIZE = ((1 << SEGMENTS) - 1) << FIRST_SHIFT;
+    /** Stands in for a null element, since an empty slot means not yet written. */
+    private static final Object NULL = new Object();
+    private static final java.lang.invoke.VarHandle SLOT = java.lang.invoke.MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final java.util.concurrent.atomic.AtomicReferenceArray<Object[]> segments =
+            new java.util.concurrent.atomic.AtomicReferenceArray<Object[]>(SEGMENTS);
+    private final java.util.concurrent.atomic.AtomicLong reserved = new java.util.concurrent.atomic.AtomicLong();
+    private final java.util.concurrent.atomic.AtomicInteger published = new java.util.concurrent.atomic.AtomicInteger();
+
+    /**
+     * Returns the given segment, allocating it if no thread has yet.
+     */
+    private Object[] segmentFor(int segment) {
+        Object[] elements = segments.get(segment);
+        if (elements == null) {
+            Object[] fresh = new Object[1 << (segment + FIRST_SHIFT)];
+            elements = segments.compareAndSet(segment, null, fresh) ? fresh : segments.get(segment);
+        }
+        return elements;
+    }
+
+    private static int segmentOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_SHIFT) + 1);
+    }
+
+    private static int offsetOf(int index, int segment) {
+        return index - (((1 << segment) - 1) << FIRST_SHIFT);
+    }
+
+    private Object slot(int index) {
+        int segment = segmentOf(index);
+        Object[] elements = segments.get(segment);
+        return elements == null ? null : SLOT.getAcquire(elements, offsetOf(index, segment));
+    }
+
+    /**
+     * Appends the specified value. Safe to call from any number of threads at once.
+     * @param value the value to append
+     * @return the index the value was stored at
+     * @throws IllegalStateException if the array already holds MAX_SIZE elements
+     */
+    public int add(J value) {
+        long claimed = reserved.getAndIncrement();
+        if (claimed >= MAX_SIZE) {
+            throw new IllegalStateException("Array is full.");
+        }
+        int index = (int) claimed;
+        int segment = segmentOf(index);
+        SLOT.setRelease(segmentFor(segment), offsetOf(index, segment), value == null ? NULL : value);
+        publish(index);
+        return index;
+    }
+
+    /**
+     * Moves the published mark over every filled slot after it. A producer whose slot
+     * is past the mark leaves it; the producer that fills the gap carries it on.
+     */
+    private void publish(int index) {
+        int mark = published.get();
+        if (mark != index) {
+            // Our slot is past the mark. Fence so the write is visible before we look
+            // again, or the producer filling the gap could miss it and stop short.
+            java.lang.invoke.VarHandle.fullFence();
+            mark = published.get();
+        }
+        while (mark < MAX_SIZE && slot(mark) != null) {
+            mark = published.compareAndSet(mark, mark + 1) ? mark + 1 : published.get();
+        }
+    }
+
+    /**
+     * Returns the element at the specified index.
+     * @param index the index of the element to retrieve, below size()
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is negative or not yet published
+     */
+    @SuppressWarnings("unchecked")
+    public J get(int index) {
+        if (index < 0 || index >= published.get()) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        int segment = segmentOf(index);
+        Object value = segments.get(segment)[offsetOf(index, segment)];
+        return value == NULL ? null : (J) value;
+    }
+
+    /**
+     * Returns the number of elements stored without gaps so far. Adds that are still
+     * in progress are not counted, nor are finished ones after them.
+     * @return the number of published elements
+     */
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * Copies the published elements into a new DynamicArray, segment by segment.
+     * Adds may carry on meanwhile; they are simply not part of the snapshot.
+     * @return a new DynamicArray holding elements 0 to size() - 1
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicArray<J> snapshot() {
+        int n = published.get();
+        DynamicArray<J> result = new DynamicArray<J>(n);
+        for (int segment = 0, start = 0; start < n; segment++) {
+            Object[] elements = segments.get(segment);
+            int count = Math.min(elements.length, n - start);
+            for (int i = 0; i < count; i++) {
+                Object value = elements[i];
+                result.add(value == NULL ? null : (J) value);
+            }
+            start += count;
+        }
+        return result;
+    }
+}
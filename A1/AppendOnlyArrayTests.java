@@ -0,0 +1,117 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AppendOnlyArrayTests {
+
+    @Test
+    public void testAddAndGetAcrossSegments() {
+        AppendOnlyArray<Integer> arr = new AppendOnlyArray<Integer>();
+        assertEquals(0, arr.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, arr.add(i * 3));
+        }
+        assertEquals(10_000, arr.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("Element at index " + i, i * 3, arr.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testNullElements() {
+        AppendOnlyArray<String> arr = new AppendOnlyArray<String>();
+        arr.add("a");
+        arr.add(null);
+        arr.add("c");
+        assertEquals(3, arr.size());
+        assertNull(arr.get(1));
+        DynamicArray<String> copy = arr.snapshot();
+        assertEquals(3, copy.size());
+        assertEquals("a", copy.get(0));
+        assertNull(copy.get(1));
+        assertEquals("c", copy.get(2));
+    }
+
+    @Test
+    public void testSnapshot() {
+        AppendOnlyArray<Integer> arr = new AppendOnlyArray<Integer>();
+        assertEquals(0, arr.snapshot().size());
+        for (int i = 0; i < 100; i++) {
+            arr.add(i);
+        }
+        DynamicArray<Integer> copy = arr.snapshot();
+        arr.add(100);
+        assertEquals(100, copy.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, copy.get(i).intValue());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetPastSize() {
+        AppendOnlyArray<Integer> arr = new AppendOnlyArray<Integer>();
+        arr.add(1);
+        arr.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetNegative() {
+        new AppendOnlyArray<Integer>().get(-1);
+    }
+
+    /**
+     * Producers add disjoint ranges of values while a reader checks that every index
+     * below size() can be read. Afterwards each value must be stored exactly once.
+     */
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        AppendOnlyArray<Integer> arr = new AppendOnlyArray<Integer>();
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < producers; t++) {
+            int base = t * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    arr.add(base + i);
+                }
+            }));
+        }
+        threads.add(new Thread(() -> {
+            try {
+                int seen = 0;
+                while (seen < producers * perProducer) {
+                    int size = arr.size();
+                    assertTrue(size >= seen);
+                    for (int i = seen; i < size; i++) {
+                        assertNotNull(arr.get(i));
+                    }
+                    seen = size;
+                    Thread.yield();
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(producers * perProducer, arr.size());
+        boolean[] found = new boolean[producers * perProducer];
+        DynamicArray<Integer> copy = arr.snapshot();
+        for (int i = 0; i < copy.size(); i++) {
+            assertFalse("Value stored twice: " + copy.get(i), found[copy.get(i)]);
+            found[copy.get(i)] = true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Java Flight Recorder events for DynamicArray, so reallocations and bulk copies show
+ * up in a recording next to GC and latency events.
+ *
+ * Two event types are emitted, each only for operations that move more elements than
+ * the threshold (1000 unless set with -Ddynamicarray.jfr.threshold or setThreshold):
+ * DynamicArray.Resize when a backing array is replaced, and DynamicArray.Copy when
+ * append, insert, extract, delete, splitPrefix, splitSuffix or committing an edit
+ * batch moves elements. Both
+ * carry the operation name, the capacity before and after and the element count, and
+ * are timed, so a storm of resizes lines up with the pauses it causes.
+ *
+ * Below the threshold, or when no recording has the events enabled, an operation pays
+ * a comparison and a flag read, and nothing is allocated.
+ */
+public final class ArrayEvents {
+    private static volatile int threshold = Integer.getInteger("dynamicarray.jfr.threshold", 1000);
+
+    /** Types of the two events, whose isEnabled() is checked before an event is created. */
+    private static final jdk.jfr.EventType RESIZE = jdk.jfr.EventType.getEventType(Resize.class);
+    private static final jdk.jfr.EventType COPY = jdk.jfr.EventType.getEventType(Copy.class);
+
+    private ArrayEvents() {
+    }
+
+    /**
+     * Sets how many elements an operation must move, exclusive, before it is recorded.
+     * @param elements the new threshold, 0 to record every operation
+     * @throws IllegalArgumentException if elements is negative
+     */
+    public static void setThreshold(int elements) {
+        if (elements < 0) {
+            throw new IllegalArgumentException("Threshold: " + elements);
+        }
+        threshold = elements;
+    }
+
+    /**
+     * Returns how many elements an operation must move, exclusive, before it is recorded.
+     * @return the threshold
+     */
+    public static int threshold() {
+        return threshold;
+    }
+
+    /**
+     * Emitted when a DynamicArray replaces its backing array.
+     */
+    @jdk.jfr.Name("DynamicArray.Resize")
+    @jdk.jfr.Label("DynamicArray Resize")
+    @jdk.jfr.Category({"Data Structures", "DynamicArray"})
+    @jdk.jfr.Description("A backing array was replaced by a larger or smaller one")
+    public static final class Resize extends jdk.jfr.Event {
+        @jdk.jfr.Label("Operation")
+        @jdk.jfr.Description("Why the array was replaced: grow, shrink or trim")
+        String operation;
+
+        @jdk.jfr.Label("Old Capacity")
+        int oldCapacity;
+
+        @jdk.jfr.Label("New Capacity")
+        int newCapacity;
+
+        @jdk.jfr.Label("Elements")
+        @jdk.jfr.Description("Elements copied into the new backing array")
+        int elements;
+    }
+
+    /**
+     * Emitted when a bulk operation on a DynamicArray moves many elements.
+     */
+    @jdk.jfr.Name("DynamicArray.Copy")
+    @jdk.jfr.Label("DynamicArray Copy")
+    @jdk.jfr.Category({"Data Structures", "DynamicArray"})
+    @jdk.jfr.Description("A bulk operation copied or shifted elements")
+    public static final class Copy extends jdk.jfr.Event {
+        @jdk.jfr.Label("Operation")
+        String operation;
+
+        @jdk.jfr.Label("Old Capacity")
+        @jdk.jfr.Description("Capacity of the array operated on, before the operation; 0 when a new array is returned")
+        int oldCapacity;
+
+        @jdk.jfr.Label("New Capacity")
+        @jdk.jfr.Description("Capacity of the array operated on, after the operation, or of the new array returned")
+        int newCapacity;
+
+        @jdk.jfr.Label("Elements")
+        @jdk.jfr.Description("Elements copied or shifted")
+        int elements;
+    }
+
+    /**
+     * Starts timing a resize that copies the given number of elements.
+     * @return the started event, or null if it will not be recorded
+     */
+    static Resize beginResize(int elements) {
+        if (elements <= threshold || !RESIZE.isEnabled()) {
+            return null;
+        }
+        Resize event = new Resize();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes and commits an event from beginResize; does nothing for null.
+     */
+    static void commit(Resize event, String operation, int oldCapacity, int newCapacity, int elements) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.elements = elements;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a bulk operation that moves the given number of elements.
+     * @return the started event, or null if it will not be recorded
+     */
+    static Copy beginCopy(int elements) {
+        if (elements <= threshold || !COPY.isEnabled()) {
+            return null;
+        }
+        Copy event = new Copy();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes and commits an event from beginCopy; does nothing for null.
+     */
+    static void commit(Copy event, String operation, int oldCapacity, int newCapacity, int elements) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.elements = elements;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class ArrayEventsTests {
+
+    private final int defaultThreshold = ArrayEvents.threshold();
+
+    @After
+    public void tearDown() {
+        ArrayEvents.setThreshold(defaultThreshold);
+    }
+
+    /**
+     * Builds a DynamicArray holding 0..n-1 with exactly n slots.
+     */
+    public DynamicArray<Integer> filled(int n) {
+        DynamicArray<Integer> arr = new DynamicArray<Integer>(n);
+        for (int i = 0; i < n; i++) {
+            arr.add(i);
+        }
+        return arr;
+    }
+
+    /**
+     * Runs the work inside a recording with both event types enabled and returns the
+     * events it produced.
+     */
+    public List<RecordedEvent> record(Runnable work) throws IOException {
+        Path file = Files.createTempFile("dynamic-array", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("DynamicArray.Resize");
+            recording.enable("DynamicArray.Copy");
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().startsWith("DynamicArray.")) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testResizeEvents() throws IOException {
+        ArrayEvents.setThreshold(100);
+        List<RecordedEvent> events = record(() -> {
+            DynamicArray<Integer> arr = new DynamicArray<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                arr.add(i);
+            }
+            arr.trimToSize();
+        });
+        // grows copying 128, 256 and 512 elements pass the threshold, then the trim
+        assertEquals(4, events.size());
+        RecordedEvent grow = events.get(0);
+        assertEquals("DynamicArray.Resize", grow.getEventType().getName());
+        assertEquals("grow", grow.getString("operation"));
+        assertEquals(128, grow.getInt("oldCapacity"));
+        assertEquals(256, grow.getInt("newCapacity"));
+        assertEquals(128, grow.getInt("elements"));
+        RecordedEvent trim = events.get(3);
+        assertEquals("trim", trim.getString("operation"));
+        assertEquals(1024, trim.getInt("oldCapacity"));
+        assertEquals(1000, trim.getInt("newCapacity"));
+    }
+
+    @Test
+    public void testCopyEvents() throws IOException {
+        ArrayEvents.setThreshold(100);
+        DynamicArray<Integer> arr = filled(1000);
+        List<RecordedEvent> events = record(() -> {
+            arr.append(filled(10));
+            arr.delete(0, 10);
+            arr.extract(0, 100);
+            arr.splitPrefix(450);
+            arr.splitSuffix(400);
+            arr.insert(0, filled(200));
+            arr.sublist(1, 300);
+            arr.add(0, 1);
+        });
+        List<String> operations = new ArrayList<String>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("DynamicArray.Copy")) {
+                operations.add(event.getString("operation"));
+            }
+        }
+        assertEquals(java.util.Arrays.asList("append", "delete", "extract", "splitPrefix", "insert"), operations);
+        RecordedEvent append = events.get(0);
+        assertEquals(1010, append.getInt("elements"));
+        assertEquals(0, append.getInt("oldCapacity"));
+        assertEquals(1010, append.getInt("newCapacity"));
+        RecordedEvent delete = events.get(1);
+        assertEquals("delete", delete.getString("operation"));
+        assertEquals(990, delete.getInt("elements"));
+        assertEquals(0, delete.getInt("oldCapacity"));
+        assertEquals(990, delete.getInt("newCapacity"));
+        // splitSuffix(400) of 450 elements moves only 50, below the threshold
+        RecordedEvent insert = events.get(events.size() - 1);
+        assertEquals(200 + 400, insert.getInt("elements"));
+        assertEquals(1000, insert.getInt("oldCapacity"));
+        assertFalse(insert.getDuration().isNegative());
+    }
+
+    @Test
+    public void testBelowThreshold() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            DynamicArray<Integer> arr = new DynamicArray<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                arr.add(i);
+            }
+            arr.extract(0, 500);
+        });
+        assertEquals(0, events.size());
+    }
+
+    /**
+     * With no recording running, nothing is created even above the threshold.
+     */
+    @Test
+    public void testNothingCreatedWhenDisabled() {
+        ArrayEvents.setThreshold(0);
+        assertNull(ArrayEvents.beginResize(10));
+        assertNull(ArrayEvents.beginCopy(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreshold() {
+        ArrayEvents.setThreshold(-1);
+    }
+}
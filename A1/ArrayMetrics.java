@@ -0,0 +1,325 @@
+/**
+ * Counters and histograms that show where a DynamicArray spends its time: growing and
+ * shrinking the backing array, shifting tails on add(int, J) and remove(int), copying
+ * for Group 3 results and copy-on-write, and how long each operation takes.
+ *
+ * Metrics are opt in. An array records nothing until given an ArrayMetrics with
+ * DynamicArray.setMetrics, and without one it only pays a null check per operation.
+ * One ArrayMetrics can be given to a single array or shared by many; shared(name)
+ * keeps a registry of named instances so unrelated code can report into the same one.
+ * All recording is thread-safe, so arrays on different threads may share an instance.
+ *
+ * get and size are not timed: reading the clock would cost several times more than
+ * the operation itself. For the same reason latency can be sampled: with a sample
+ * rate of n, one operation in n on average is timed. Counters and the shift and waste
+ * histograms always see every operation.
+ */
+public class ArrayMetrics {
+
+    /**
+     * The operations whose latency is recorded.
+     */
+    public enum Op {
+        ADD, ADD_AT, SET, REMOVE, APPEND, INSERT, SUBLIST, DELETE, EXTRACT, SPLIT_PREFIX, SPLIT_SUFFIX, EDIT
+    }
+
+    /**
+     * Bytes per element reference, used to turn elements copied into bytes copied:
+     * 4 with compressed references, otherwise 8.
+     */
+    public static final int REFERENCE_BYTES = referenceBytes();
+
+    private static final java.util.concurrent.ConcurrentHashMap<String, ArrayMetrics> REGISTRY =
+            new java.util.concurrent.ConcurrentHashMap<String, ArrayMetrics>();
+
+    private final java.util.concurrent.atomic.LongAdder resizes = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder elementsCopied = new java.util.concurrent.atomic.LongAdder();
+    private final Histogram shifts = new Histogram();
+    private final Histogram waste = new Histogram();
+    private final Histogram[] latency = new Histogram[Op.values().length];
+    private final int sampleRate;
+
+    /** Returned by start for an operation that is not timed. */
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Constructs an empty set of metrics that times every operation, not in the registry.
+     */
+    public ArrayMetrics() {
+        this(1);
+    }
+
+    /**
+     * Constructs an empty set of metrics that times one operation in sampleRate, not in the registry.
+     * @param sampleRate how many operations per timed one, 1 to time them all
+     * @throws IllegalArgumentException if sampleRate is not positive
+     */
+    public ArrayMetrics(int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        for (int i = 0; i < latency.length; i++) {
+            latency[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Returns the registered metrics with the given name, creating them on first use.
+     * @param name the name to look up
+     * @return the metrics every caller with this name shares
+     */
+    public static ArrayMetrics shared(String name) {
+        return REGISTRY.computeIfAbsent(name, key -> new ArrayMetrics());
+    }
+
+    /**
+     * Returns the names currently in the registry, in sorted order.
+     * @return a snapshot of the registered names
+     */
+    public static java.util.SortedSet<String> registered() {
+        return new java.util.TreeSet<String>(REGISTRY.keySet());
+    }
+
+    private static int referenceBytes() {
+        try {
+            com.sun.management.HotSpotDiagnosticMXBean bean =
+                    java.lang.management.ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            return "true".equals(bean.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+        } catch (RuntimeException e) {
+            return 8;
+        }
+    }
+
+    //Recording, called by the arrays
+
+    /**
+     * Records a new backing array: one resize, size elements copied into it, and the
+     * capacity it leaves unused.
+     */
+    void reallocated(int size, int newCapacity) {
+        resizes.increment();
+        elementsCopied.add(size);
+        waste.record(newCapacity - size);
+    }
+
+    /**
+     * Records elements copied for a reason other than a resize.
+     */
+    void copied(int count) {
+        elementsCopied.add(count);
+    }
+
+    /**
+     * Records a shift of count elements to open or close a gap. Shifts also count as copies.
+     */
+    void shifted(int count) {
+        shifts.record(count);
+        elementsCopied.add(count);
+    }
+
+    /**
+     * Called as an operation starts. Returns the time to pass to timed, or NOT_SAMPLED
+     * if this operation is not one of those timed.
+     */
+    long start() {
+        if (sampleRate > 1 && java.util.concurrent.ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of an operation given what start returned for it.
+     */
+    void timed(Op op, long startNanos) {
+        if (startNanos != NOT_SAMPLED) {
+            latency[op.ordinal()].record(System.nanoTime() - startNanos);
+        }
+    }
+
+    //Reading
+
+    /**
+     * Returns how many times a backing array was replaced, by growing, shrinking or trimming.
+     * @return the number of resizes
+     */
+    public long resizes() {
+        return resizes.sum();
+    }
+
+    /**
+     * Returns the number of elements copied by resizes, shifts and copies of any kind.
+     * @return the number of elements copied
+     */
+    public long elementsCopied() {
+        return elementsCopied.sum();
+    }
+
+    /**
+     * Returns the number of bytes of references copied, elementsCopied() * REFERENCE_BYTES.
+     * @return the number of bytes copied
+     */
+    public long bytesCopied() {
+        return elementsCopied() * REFERENCE_BYTES;
+    }
+
+    /**
+     * Returns the histogram of shift lengths, in elements, from add(int, J), remove(int),
+     * insert, extract and splitPrefix.
+     * @return the shift histogram
+     */
+    public Histogram shifts() {
+        return shifts;
+    }
+
+    /**
+     * Returns the histogram of unused capacity, in elements, right after each resize.
+     * @return the capacity waste histogram
+     */
+    public Histogram capacityWaste() {
+        return waste;
+    }
+
+    /**
+     * Returns the latency histogram of one operation, in nanoseconds.
+     * @param op the operation
+     * @return its latency histogram
+     */
+    public Histogram latency(Op op) {
+        return latency[op.ordinal()];
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public void reset() {
+        resizes.reset();
+        elementsCopied.reset();
+        shifts.reset();
+        waste.reset();
+        for (Histogram histogram : latency) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns a multi-line summary, leaving out operations that never ran.
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append("resizes=").append(resizes()).append(" elementsCopied=").append(elementsCopied())
+                .append(" bytesCopied=").append(bytesCopied()).append('\n');
+        s.append("shifts ").append(shifts).append('\n');
+        s.append("capacityWaste ").append(waste).append('\n');
+        for (Op op : Op.values()) {
+            if (latency(op).count() > 0) {
+                s.append("latency ").append(op).append(" ns ").append(latency(op)).append('\n');
+            }
+        }
+        return s.toString();
+    }
+
+    /**
+     * A histogram of non-negative values in power-of-two buckets: bucket 0 holds 0 and
+     * bucket b holds [2^(b-1), 2^b). Percentiles are therefore accurate to within a
+     * factor of two, which is enough to tell a 10-element shift from a 10^6-element one.
+     */
+    public static final class Histogram {
+        private final java.util.concurrent.atomic.AtomicLongArray buckets = new java.util.concurrent.atomic.AtomicLongArray(65);
+        private final java.util.concurrent.atomic.LongAdder sum = new java.util.concurrent.atomic.LongAdder();
+        private final java.util.concurrent.atomic.AtomicLong max = new java.util.concurrent.atomic.AtomicLong();
+
+        /**
+         * Records a value with two atomic updates; the maximum is only written when it grows.
+         */
+        void record(long value) {
+            long v = Math.max(0, value);
+            buckets.getAndIncrement(64 - Long.numberOfLeadingZeros(v));
+            sum.add(v);
+            long m = max.get();
+            while (v > m && !max.compareAndSet(m, v)) {
+                m = max.get();
+            }
+        }
+
+        /**
+         * Returns the number of values recorded.
+         * @return the count
+         */
+        public long count() {
+            long n = 0;
+            for (int b = 0; b < 65; b++) {
+                n += buckets.get(b);
+            }
+            return n;
+        }
+
+        /**
+         * Returns the sum of the values recorded.
+         * @return the sum
+         */
+        public long sum() {
+            return sum.sum();
+        }
+
+        /**
+         * Returns the largest value recorded, or 0 if none.
+         * @return the maximum
+         */
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * Returns the mean of the values recorded, or 0 if none.
+         * @return the mean
+         */
+        public double mean() {
+            long n = count();
+            return n == 0 ? 0 : (double) sum() / n;
+        }
+
+        /**
+         * Returns an upper bound for the given percentile: the top of the bucket it falls in,
+         * capped at the maximum.
+         * @param percentile between 0 and 100
+         * @return a value at least as large as that percentile, or 0 if nothing was recorded
+         * @throws IllegalArgumentException if percentile is outside [0, 100]
+         */
+        public long percentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile: " + percentile);
+            }
+            long n = count();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+            long seen = 0;
+            for (int b = 0; b < 65; b++) {
+                seen += buckets.get(b);
+                if (seen >= rank) {
+                    return Math.min(b == 0 ? 0 : b == 64 ? Long.MAX_VALUE : (1L << b) - 1, max());
+                }
+            }
+            return max();
+        }
+
+        void reset() {
+            for (int b = 0; b < 65; b++) {
+                buckets.set(b, 0);
+            }
+            sum.reset();
+            max.set(0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT, "count=%d mean=%.1f p50<=%d p99<=%d max=%d",
+                    count(), mean(), percentile(50), percentile(99), max());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ArrayMetricsTests {
+
+    /**
+     * Builds a DynamicArray holding 0..n-1 with exactly n slots.
+     */
+    public DynamicArray<Integer> filled(int n) {
+        DynamicArray<Integer> arr = new DynamicArray<Integer>(n);
+        for (int i = 0; i < n; i++) {
+            arr.add(i);
+        }
+        return arr;
+    }
+
+    @Test
+    public void testResizesAndWaste() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setMetrics(metrics);
+        assertSame(metrics, arr.getMetrics());
+        for (int i = 0; i < 100; i++) {
+            arr.add(i);
+        }
+        // 8, 16, 32, 64, 128
+        assertEquals(5, metrics.resizes());
+        assertEquals(0 + 8 + 16 + 32 + 64, metrics.elementsCopied());
+        assertEquals(metrics.elementsCopied() * ArrayMetrics.REFERENCE_BYTES, metrics.bytesCopied());
+        assertEquals(5, metrics.capacityWaste().count());
+        assertEquals(64, metrics.capacityWaste().max());
+        assertEquals(100, metrics.latency(ArrayMetrics.Op.ADD).count());
+        arr.trimToSize();
+        assertEquals(6, metrics.resizes());
+    }
+
+    @Test
+    public void testShifts() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(10);
+        arr.ensureCapacity(100);
+        arr.setMetrics(metrics);
+        arr.add(0, -1);
+        arr.add(arr.size(), -1);
+        arr.remove(5);
+        assertEquals(3, metrics.shifts().count());
+        assertEquals(10 + 0 + 6, metrics.shifts().sum());
+        assertEquals(10, metrics.shifts().max());
+        assertEquals(16, metrics.elementsCopied());
+        assertEquals(2, metrics.latency(ArrayMetrics.Op.ADD_AT).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.REMOVE).count());
+        assertEquals(0, metrics.resizes());
+    }
+
+    @Test
+    public void testGroup3Copies() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(10);
+        arr.setMetrics(metrics);
+        arr.append(filled(5));
+        assertEquals(15, metrics.elementsCopied());
+        arr.sublist(2, 6);
+        assertEquals(19, metrics.elementsCopied());
+        arr.delete(2, 6);
+        assertEquals(25, metrics.elementsCopied());
+        arr.extract(2, 4);
+        assertEquals(25 + 2 + 6, metrics.elementsCopied());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.APPEND).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.SUBLIST).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.DELETE).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.EXTRACT).count());
+    }
+
+    @Test
+    public void testCopyOnWriteCounted() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(10);
+        DynamicArray<Integer> copy = new DynamicArray<Integer>(arr);
+        arr.setMetrics(metrics);
+        arr.set(0, -1);
+        assertEquals(10, metrics.elementsCopied());
+        assertEquals(0, copy.get(0).intValue());
+        assertNull(copy.getMetrics());
+    }
+
+    @Test
+    public void testSplitsAndInsert() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(10);
+        arr.setMetrics(metrics);
+        arr.splitPrefix(4);
+        assertEquals(10, metrics.elementsCopied());
+        assertEquals(6, metrics.shifts().sum());
+        arr.splitSuffix(3);
+        assertEquals(13, metrics.elementsCopied());
+        arr.insert(1, filled(4));
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.INSERT).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.SPLIT_PREFIX).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.SPLIT_SUFFIX).count());
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setMetrics(metrics);
+        arr.add(1);
+        arr.setMetrics(null);
+        for (int i = 0; i < 100; i++) {
+            arr.add(0, i);
+        }
+        arr.extract(0, 50);
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.ADD).count());
+        assertEquals(0, metrics.shifts().count());
+        assertEquals(1, metrics.resizes());
+        metrics.reset();
+        assertEquals(0, metrics.resizes());
+        assertEquals(0, metrics.latency(ArrayMetrics.Op.ADD).count());
+    }
+
+    @Test
+    public void testRegistry() {
+        ArrayMetrics a = ArrayMetrics.shared("metrics-test");
+        assertSame(a, ArrayMetrics.shared("metrics-test"));
+        assertNotSame(a, ArrayMetrics.shared("metrics-test-2"));
+        assertTrue(ArrayMetrics.registered().contains("metrics-test"));
+        a.reset();
+        DynamicArray<Integer> first = new DynamicArray<Integer>(0);
+        DynamicArray<Integer> second = new DynamicArray<Integer>(0);
+        first.setMetrics(a);
+        second.setMetrics(a);
+        first.add(1);
+        second.add(2);
+        assertEquals(2, a.resizes());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(1000);
+        arr.ensureCapacity(2000);
+        arr.setMetrics(metrics);
+        for (int i = 0; i < 99; i++) {
+            arr.add(arr.size() - 3, i);
+        }
+        arr.add(0, -1);
+        ArrayMetrics.Histogram shifts = metrics.shifts();
+        assertEquals(100, shifts.count());
+        assertEquals(3, shifts.percentile(50));
+        assertEquals(3, shifts.percentile(99));
+        assertEquals(1099, shifts.percentile(100));
+        assertEquals(1099, shifts.max());
+        assertEquals((99 * 3 + 1099) / 100.0, shifts.mean(), 1e-9);
+        assertTrue(metrics.toString().contains("ADD_AT"));
+        assertFalse(metrics.toString().contains("EXTRACT"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPercentile() {
+        new ArrayMetrics().shifts().percentile(101);
+    }
+
+    @Test
+    public void testSampledLatency() {
+        ArrayMetrics metrics = new ArrayMetrics(10);
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setMetrics(metrics);
+        for (int i = 0; i < 10_000; i++) {
+            arr.add(i);
+        }
+        long timed = metrics.latency(ArrayMetrics.Op.ADD).count();
+        assertTrue("timed " + timed, timed > 500 && timed < 2000);
+        assertEquals(12, metrics.resizes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSampleRate() {
+        new ArrayMetrics(0);
+    }
+
+    /**
+     * Calls that take a shortcut are timed too, or the mean would leave out the cheapest ones.
+     */
+    @Test
+    public void testShortcutsTimed() {
+        ArrayMetrics metrics = new ArrayMetrics();
+        DynamicArray<Integer> arr = filled(10);
+        DynamicArray<Integer> none = new DynamicArray<Integer>();
+        arr.setMetrics(metrics);
+        none.setMetrics(metrics);
+        arr.append(new DynamicArray<Integer>());
+        none.append(arr);
+        arr.sublist(0, 5);
+        arr.delete(5, 10);
+        assertEquals(2, metrics.latency(ArrayMetrics.Op.APPEND).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.SUBLIST).count());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.DELETE).count());
+    }
+}
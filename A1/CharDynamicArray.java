@@ -0,0 +1,396 @@
+/*
+ * GENERATED FILE - do not edit by hand.
+ * Edit PrimitiveDynamicArray.template and run: java -cp . GeneratePrimitiveArrays
+ */
+
+/**
+ * A dynamic array of char values stored in a char[] with no boxing.
+ * It has the same operations as DynamicArrayADT, specialized to char.
+ */
+public class CharDynamicArray {
+    private char[] data;
+    private int size;
+
+    /**
+     * Constructs an empty CharDynamicArray with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public CharDynamicArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        data = new char[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Constructs an empty CharDynamicArray with default initial capacity (0).
+     */
+    public CharDynamicArray() {
+        this(0);
+    }
+
+    /**
+     * Constructs a CharDynamicArray as a copy of another one.
+     * @param other the CharDynamicArray to copy
+     */
+    public CharDynamicArray(CharDynamicArray other) {
+        data = new char[other.data.length];
+        size = other.size;
+        System.arraycopy(other.data, 0, data, 0, size);
+    }
+
+    /**
+     * Builds a CharDynamicArray holding the unboxed elements of a DynamicArrayADT.
+     * @param other the array to convert
+     * @return a new CharDynamicArray with the same elements
+     */
+    public static CharDynamicArray from(DynamicArrayADT<Character> other) {
+        CharDynamicArray result = new CharDynamicArray(other.size());
+        for (int i = 0; i < other.size(); i++) {
+            result.data[i] = other.get(i);
+        }
+        result.size = other.size();
+        return result;
+    }
+
+    /**
+     * Builds a CharDynamicArray holding a copy of the given values.
+     * @param values the values to copy
+     * @return a new CharDynamicArray with the same elements
+     */
+    public static CharDynamicArray of(char... values) {
+        CharDynamicArray result = new CharDynamicArray(values.length);
+        System.arraycopy(values, 0, result.data, 0, values.length);
+        result.size = values.length;
+        return result;
+    }
+
+    /**
+     * Returns a boxed DynamicArray holding the same elements.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<Character> toDynamicArray() {
+        DynamicArray<Character> result = new DynamicArray<Character>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(data[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of the elements as a plain char[].
+     * @return a new array of length size()
+     */
+    public char[] toArray() {
+        char[] result = new char[size];
+        System.arraycopy(data, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Removes every element but keeps the allocated capacity, so the array can be
+     * refilled without growing again.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of a value at or after fromIndex.
+     * @param value the value to look for
+     * @param fromIndex the index to start searching from
+     * @return the index of the value, or -1 if it does not occur
+     */
+    public int indexOf(char value, int fromIndex) {
+        for (int i = Math.max(fromIndex, 0); i < size; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the elements [fromIndex, toIndex) into a char[] in one move.
+     * @param fromIndex the first element to copy (inclusive)
+     * @param toIndex the end of the range (exclusive)
+     * @param dest the array to copy into
+     * @param destPos the position in dest of the first copied element
+     * @throws IndexOutOfBoundsException if the range is invalid or does not fit in dest
+     */
+    public void copyTo(int fromIndex, int toIndex, char[] dest, int destPos) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+        System.arraycopy(data, fromIndex, dest, destPos, toIndex - fromIndex);
+    }
+
+    /**
+     * Grows the internal array so that it can hold at least minCapacity elements.
+     * @param minCapacity the number of elements that must fit
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity <= data.length) {
+            return;
+        }
+        int newCapacity = data.length == 0 ? 1 : data.length * 2;
+        if (newCapacity < minCapacity) {
+            newCapacity = minCapacity;
+        }
+        char[] newData = new char[newCapacity];
+        System.arraycopy(data, 0, newData, 0, size);
+        data = newData;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public char get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public char set(int index, char value) {
+        checkIndex(index);
+        char oldValue = data[index];
+        data[index] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements currently stored in the array.
+     * @return the size of the array
+     */
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the specified value at the given index, shifting subsequent elements to the right.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void add(int index, char value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     */
+    public void add(char value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    /**
+     * Appends count values taken from a char[], growing at most once and copying them in one move.
+     * @param values the array to copy from
+     * @param offset the position of the first value in values
+     * @param count the number of values to append
+     * @throws IndexOutOfBoundsException if the range is not inside values
+     */
+    public void addAll(char[] values, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > values.length) {
+            throw new IndexOutOfBoundsException("Invalid offset or count.");
+        }
+        grow(size + count);
+        System.arraycopy(values, offset, data, size, count);
+        size += count;
+    }
+
+    /**
+     * Removes and returns the element at the specified index, shifting subsequent elements to the left.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public char remove(int index) {
+        checkIndex(index);
+        char removedValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new CharDynamicArray that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    public CharDynamicArray append(CharDynamicArray other) {
+        CharDynamicArray result = new CharDynamicArray(size + other.size);
+        System.arraycopy(data, 0, result.data, 0, size);
+        System.arraycopy(other.data, 0, result.data, size, other.size);
+        result.size = size + other.size;
+        return result;
+    }
+
+    /**
+     * Inserts all elements from another array into this one at the specified index.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public CharDynamicArray insert(int index, CharDynamicArray other) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int count = other.size;
+        // snapshot first, in case other is this array
+        char[] source = other == this ? toArray() : other.data;
+        grow(size + count);
+        System.arraycopy(data, index, data, index + count, size - index);
+        System.arraycopy(source, 0, data, index, count);
+        size += count;
+        return this;
+    }
+
+    /**
+     * Returns a new array containing the elements in the range [fromIndex, toIndex).
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public CharDynamicArray sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        CharDynamicArray result = new CharDynamicArray(toIndex - fromIndex);
+        System.arraycopy(data, fromIndex, result.data, 0, toIndex - fromIndex);
+        result.size = toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns a new array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public CharDynamicArray delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int tail = size - toIndex;
+        CharDynamicArray result = new CharDynamicArray(fromIndex + tail);
+        System.arraycopy(data, 0, result.data, 0, fromIndex);
+        System.arraycopy(data, toIndex, result.data, fromIndex, tail);
+        result.size = fromIndex + tail;
+        return result;
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public CharDynamicArray extract(int fromIndex, int toIndex) {
+        CharDynamicArray result = sublist(fromIndex, toIndex);
+        System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public CharDynamicArray splitSuffix(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        CharDynamicArray suffix = new CharDynamicArray(size - index);
+        System.arraycopy(data, index, suffix.data, 0, size - index);
+        suffix.size = size - index;
+        size = index;
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public CharDynamicArray splitPrefix(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        CharDynamicArray prefix = new CharDynamicArray(index);
+        System.arraycopy(data, 0, prefix.data, 0, index);
+        prefix.size = index;
+        System.arraycopy(data, index, data, 0, size - index);
+        size -= index;
+        return prefix;
+    }
+
+    //Kudos-Group 4
+
+    /**
+     * Returns the lowest valid index of this array.
+     * @return returns the lowest index, always 0
+     */
+    public int lowIndex() {
+        return 0;
+    }
+
+    /**
+     * Returns the highest valid index of this array.
+     * @return returns one less than the size
+     */
+    public int highIndex() {
+        return size - 1;
+    }
+
+    /**
+     * Checks if a given index is within the valid range of this array.
+     * @param index the index to check
+     * @return returns true if the index is valid, false otherwise
+     */
+    public boolean indexInRange(int index) {
+        return index >= lowIndex() && index <= highIndex();
+    }
+}
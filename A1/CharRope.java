@@ -0,0 +1,317 @@
+/**
+ * A rope of characters: a balanced binary tree whose leaves are slices of
+ * immutable char[] chunks. Edits build new nodes over the existing chunks
+ * instead of copying text, so append, insert, delete and sublist cost
+ * O(log n) no matter how long the text is, and the functional Group 3
+ * operations share almost all of their structure with the receiver.
+ *
+ * The tree itself is a ChunkTree over char[] chunks, shared with PersistentDynamicArray.
+ */
+public class CharRope implements DynamicArrayADT<Character> {
+
+    /** Largest leaf that small edits are merged into. */
+    static final int LEAF_SIZE = 1024;
+
+    private static final ChunkTree<char[], Character> TREE =
+            new ChunkTree<char[], Character>(LEAF_SIZE, "Rope would exceed " + Integer.MAX_VALUE + " characters.") {
+                @Override
+                char[] allocate(int length) {
+                    return new char[length];
+                }
+
+                @Override
+                Character read(char[] chunk, int index) {
+                    return chunk[index];
+                }
+            };
+
+    private ChunkTree.Node<char[]> root;
+
+    /**
+     * Converts any DynamicArrayADT of characters into a node, sharing structure when it is already a rope.
+     */
+    private static ChunkTree.Node<char[]> nodeOf(DynamicArrayADT<Character> other) {
+        if (other instanceof CharRope) {
+            return ((CharRope) other).root;
+        }
+        char[] chars = new char[other.size()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = other.get(i);
+        }
+        return TREE.build(chars, 0, chars.length);
+    }
+
+    private static ChunkTree.Node<char[]> single(char value) {
+        return TREE.leaf(new char[] {value}, 0, 1);
+    }
+
+    // ~*~*~*~*~ construction and conversion ~*~*~*~*~
+
+    private CharRope(ChunkTree.Node<char[]> root) {
+        this.root = root;
+    }
+
+    /**
+     * Constructs an empty rope.
+     */
+    public CharRope() {
+        this(TREE.empty());
+    }
+
+    /**
+     * Constructs a rope holding the characters of a string.
+     * @param text the initial text
+     */
+    public CharRope(CharSequence text) {
+        char[] chars = text.toString().toCharArray();
+        root = TREE.build(chars, 0, chars.length);
+    }
+
+    /**
+     * Constructs a rope holding the elements of another array.
+     * @param other the characters to copy
+     */
+    public CharRope(DynamicArrayADT<Character> other) {
+        this(nodeOf(other));
+    }
+
+    /**
+     * Constructs a rope holding the elements of a CharDynamicArray.
+     * @param other the characters to copy
+     */
+    public CharRope(CharDynamicArray other) {
+        char[] chars = other.toArray();
+        root = TREE.build(chars, 0, chars.length);
+    }
+
+    /**
+     * Returns a DynamicArray holding the same characters.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<Character> toDynamicArray() {
+        return toCharDynamicArray().toDynamicArray();
+    }
+
+    /**
+     * Returns a CharDynamicArray holding the same characters, copied in one pass over the leaves.
+     * @return a new CharDynamicArray with the same elements
+     */
+    public CharDynamicArray toCharDynamicArray() {
+        return CharDynamicArray.of(toCharArray());
+    }
+
+    /**
+     * Returns the characters as a new char[].
+     * @return a new array of length size()
+     */
+    public char[] toCharArray() {
+        return TREE.toChunk(root);
+    }
+
+    @Override
+    public String toString() {
+        return new String(toCharArray());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= root.length) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > root.length || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    private void checkSplit(int index) {
+        if (index < 0 || index > root.length) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    //Group 1
+
+    /**
+     * Returns the character at the specified index in O(log n).
+     * @param index the index of the element to retrieve
+     * @return the character at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Character get(int index) {
+        checkIndex(index);
+        return TREE.elementAt(root, index);
+    }
+
+    /**
+     * Replaces the character at the specified index.
+     * @param index the index of the element to replace
+     * @param value the new character
+     * @return the previous character at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Character set(int index, Character value) {
+        checkIndex(index);
+        char oldValue = TREE.elementAt(root, index);
+        root = TREE.replace(root, index, index + 1, single(value));
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of characters in the rope.
+     * @return the size of the rope
+     */
+    @Override
+    public int size() {
+        return root.length;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts a character at the given index.
+     * @param index the index at which to insert the value
+     * @param value the character to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public void add(int index, Character value) {
+        checkSplit(index);
+        ChunkTree.Node<char[]>[] parts = TREE.split(root, index);
+        root = TREE.join(TREE.join(parts[0], single(value)), parts[1]);
+    }
+
+    /**
+     * Appends a character to the end of the rope. The last leaf grows in place when no
+     * other version has appended to it, so typing does not copy the leaf each time.
+     * @param value the character to append
+     */
+    @Override
+    public void add(Character value) {
+        root = TREE.join(root, single(value));
+    }
+
+    /**
+     * Removes and returns the character at the specified index.
+     * @param index the index of the element to remove
+     * @return the removed character
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Character remove(int index) {
+        checkIndex(index);
+        char removedValue = TREE.elementAt(root, index);
+        ChunkTree.Node<char[]>[] parts = TREE.split(root, index);
+        root = TREE.join(parts[0], TREE.split(parts[1], 1)[1]);
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new rope that is this one followed by other. When other is also a rope
+     * no characters are copied.
+     * @param other the array to append
+     * @return a new rope containing all elements from both
+     */
+    @Override
+    public CharRope append(DynamicArrayADT<Character> other) {
+        return new CharRope(TREE.join(root, nodeOf(other)));
+    }
+
+    /**
+     * Inserts all characters of another array at the specified index.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this rope with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public CharRope insert(int index, DynamicArrayADT<Character> other) {
+        checkSplit(index);
+        ChunkTree.Node<char[]> inserted = nodeOf(other);
+        ChunkTree.Node<char[]>[] parts = TREE.split(root, index);
+        root = TREE.join(TREE.join(parts[0], inserted), parts[1]);
+        return this;
+    }
+
+    /**
+     * Returns a new rope over the range [fromIndex, toIndex), sharing this rope's chunks.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new rope with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CharRope sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new CharRope(TREE.slice(root, fromIndex, toIndex));
+    }
+
+    /**
+     * Returns a new rope with the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new rope with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CharRope delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new CharRope(TREE.join(TREE.split(root, fromIndex)[0], TREE.split(root, toIndex)[1]));
+    }
+
+    /**
+     * Removes the range [fromIndex, toIndex) from this rope and returns it.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new rope containing the extracted characters
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CharRope extract(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        ChunkTree.Node<char[]>[] head = TREE.split(root, fromIndex);
+        ChunkTree.Node<char[]>[] tail = TREE.split(head[1], toIndex - fromIndex);
+        root = TREE.join(head[0], tail[1]);
+        return new CharRope(tail[0]);
+    }
+
+    /**
+     * Returns and removes the characters from index to the end.
+     * @param index the position to split at
+     * @return a new rope containing the suffix
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public CharRope splitSuffix(int index) {
+        checkSplit(index);
+        ChunkTree.Node<char[]>[] parts = TREE.split(root, index);
+        root = parts[0];
+        return new CharRope(parts[1]);
+    }
+
+    /**
+     * Returns and removes the characters before index.
+     * @param index the position to split at
+     * @return a new rope containing the prefix
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public CharRope splitPrefix(int index) {
+        checkSplit(index);
+        ChunkTree.Node<char[]>[] parts = TREE.split(root, index);
+        root = parts[1];
+        return new CharRope(parts[0]);
+    }
+
+    /**
+     * Returns the height of the tree, for tests and benchmarks.
+     */
+    int height() {
+        return root.height;
+    }
+}
@@ -0,0 +1,164 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class CharRopeTests {
+
+    private CharRope a1;
+    private CharRope a2;
+    private CharRope empty;
+
+    /**
+     * Re-initializes the ropes before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = new CharRope("abcdef");
+        a2 = new CharRope("wxyz");
+        empty = new CharRope();
+    }
+
+    /**
+     * Compares the size and contents of a rope against a string.
+     */
+    public void compareToString(CharRope arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        assertEquals(s, arr.toString());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    @Test
+    public void testGroup1And2() {
+        assertEquals((Character) 'c', a1.set(2, 'C'));
+        a1.add(0, '<');
+        a1.add('>');
+        compareToString(a1, "<abCdef>");
+        assertEquals((Character) '<', a1.remove(0));
+        assertEquals((Character) 'd', a1.remove(3));
+        compareToString(a1, "abCef>");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        empty.get(0);
+    }
+
+    @Test
+    public void testAppendIsFunctional() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(empty.append(empty), "");
+        compareToString(a1, "abcdef");
+        compareToString(a2, "wxyz");
+    }
+
+    @Test
+    public void testInsert() {
+        compareToString(a1.insert(3, a2), "abcwxyzdef");
+        compareToString(a2.insert(4, a2), "wxyzwxyz");
+        compareToString(empty.insert(0, new CharRope()), "");
+    }
+
+    @Test
+    public void testSublistDeleteExtract() {
+        compareToString(a1.sublist(1, 4), "bcd");
+        compareToString(a1.delete(1, 4), "aef");
+        compareToString(a1, "abcdef");
+        compareToString(a1.extract(4, 6), "ef");
+        compareToString(a1, "abcd");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSublistBounds() {
+        a1.sublist(2, 7);
+    }
+
+    @Test
+    public void testSplit() {
+        compareToString(a1.splitPrefix(2), "ab");
+        compareToString(a1.splitSuffix(2), "ef");
+        compareToString(a1, "cd");
+    }
+
+    /**
+     * Typing one character at a time grows the last leaf in place; copies taken along
+     * the way, and other versions appended to from the same point, must keep their text.
+     */
+    @Test
+    public void testTypingKeepsVersions() {
+        StringBuilder expected = new StringBuilder();
+        CharRope typed = new CharRope();
+        CharRope[] versions = new CharRope[3000];
+        String[] texts = new String[versions.length];
+        for (int i = 0; i < versions.length; i++) {
+            char c = (char) ('a' + i % 26);
+            typed.add(c);
+            expected.append(c);
+            versions[i] = typed.sublist(0, typed.size());
+            texts[i] = expected.toString();
+        }
+        CharRope branch = versions[1500].sublist(0, 1501);
+        branch.add('!');
+        versions[1500].add('?');
+        for (int i = 0; i < versions.length; i++) {
+            if (i != 1500) {
+                compareToString(versions[i], texts[i]);
+            }
+        }
+        compareToString(versions[1500], texts[1500] + "?");
+        compareToString(branch, texts[1500] + "!");
+        CharRope last = versions[versions.length - 1];
+        typed.add('1');
+        last.add('2');
+        compareToString(typed, expected + "1");
+        compareToString(last, expected + "2");
+    }
+
+    @Test
+    public void testInterop() {
+        DynamicArray<Character> plain = a1.toDynamicArray();
+        compareToString(new CharRope(plain), "abcdef");
+        compareToString(a2.append(plain), "wxyzabcdef");
+        compareToString(new CharRope(a1.toCharDynamicArray()), "abcdef");
+    }
+
+    /**
+     * Runs random edits against a StringBuilder and checks the rope stays equal and shallow.
+     */
+    @Test
+    public void testRandomEditsStayBalanced() {
+        Random rnd = new Random(42);
+        StringBuilder expected = new StringBuilder();
+        CharRope rope = new CharRope();
+        for (int step = 0; step < 5000; step++) {
+            int op = rnd.nextInt(4);
+            if (op == 0 || rope.size() == 0) {
+                int at = rnd.nextInt(rope.size() + 1);
+                char c = (char) ('a' + rnd.nextInt(26));
+                rope.add(at, c);
+                expected.insert(at, c);
+            } else if (op == 1) {
+                int at = rnd.nextInt(rope.size());
+                rope.remove(at);
+                expected.deleteCharAt(at);
+            } else if (op == 2) {
+                String text = "chunk" + step;
+                int at = rnd.nextInt(rope.size() + 1);
+                rope.insert(at, new CharRope(text));
+                expected.insert(at, text);
+            } else {
+                int from = rnd.nextInt(rope.size());
+                int to = from + 1 + rnd.nextInt(Math.min(20, rope.size() - from));
+                rope.extract(from, to);
+                expected.delete(from, to);
+            }
+        }
+        assertEquals(expected.toString(), rope.toString());
+        int bound = 2 * (32 - Integer.numberOfLeadingZeros(rope.size() + 1));
+        assertTrue("height " + rope.height() + " exceeds " + bound, rope.height() <= bound);
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * The balanced tree behind PersistentDynamicArray and CharRope: leaves are slices of
+ * immutable chunk arrays, inner nodes concatenate two subtrees, and every edit is a
+ * split and a join that builds new nodes over the existing chunks instead of copying
+ * elements. Nodes are never modified after they are built, so any number of trees
+ * can share them.
+ *
+ * The tree is kept height-balanced (AVL style) by join, which every edit goes through.
+ * Small neighbouring leaves are merged into one, up to leafSize elements, so edits of
+ * single elements do not leave a tree of one-element leaves. A merged chunk gets spare
+ * room after its elements, up to twice its length, and a leaf that ends where the
+ * chunk's claimed slots end appends into it in place. Slots are claimed atomically and
+ * no leaf reads past its own length, so older versions never see the new elements, and
+ * appending one element at a time costs O(1) amortized instead of copying the leaf.
+ *
+ * A is the chunk type, such as Object[] or char[], and E is the element type read from
+ * it. A subclass supplies how to allocate a chunk and read one element.
+ */
+abstract class ChunkTree<A, E> {
+
+    /** Largest leaf that small edits are merged into, and the chunk size of built trees. */
+    final int leafSize;
+
+    private final String overflowMessage;
+
+    private final Node<A> empty;
+
+    /**
+     * @param leafSize the largest leaf small edits are merged into
+     * @param overflowMessage the message of the exception thrown when a join would pass Integer.MAX_VALUE
+     */
+    ChunkTree(int leafSize, String overflowMessage) {
+        this.leafSize = leafSize;
+        this.overflowMessage = overflowMessage;
+        this.empty = new Leaf<A>(allocate(0), 0, 0, null);
+    }
+
+    /** Returns a new chunk of the given length. */
+    abstract A allocate(int length);
+
+    /** Returns the element at index of a chunk. */
+    abstract E read(A chunk, int index);
+
+    /**
+     * A tree node. Nodes are immutable once built, so they can be shared freely between trees.
+     */
+    abstract static class Node<A> {
+        final int length;
+        final int height;
+
+        Node(int length, int height) {
+            this.length = length;
+            this.height = height;
+        }
+
+        /** Copies the range [from, to) of this node into dest starting at destPos. */
+        abstract void copyTo(int from, int to, A dest, int destPos);
+    }
+
+    /**
+     * How much of a chunk with spare room has been claimed. Slots below used are never
+     * written again; the ones from used up to capacity are free for one leaf to append into.
+     */
+    static final class Fill {
+        final int capacity;
+        final java.util.concurrent.atomic.AtomicInteger used;
+
+        Fill(int capacity, int used) {
+            this.capacity = capacity;
+            this.used = new java.util.concurrent.atomic.AtomicInteger(used);
+        }
+    }
+
+    /**
+     * A leaf referencing items[offset, offset + length) of a chunk whose slots in that
+     * range are never written again. fill is null when the chunk has no spare room.
+     */
+    static final class Leaf<A> extends Node<A> {
+        final A items;
+        final int offset;
+        final Fill fill;
+
+        Leaf(A items, int offset, int length, Fill fill) {
+            super(length, 0);
+            this.items = items;
+            this.offset = offset;
+            this.fill = fill;
+        }
+
+        @Override
+        void copyTo(int from, int to, A dest, int destPos) {
+            System.arraycopy(items, offset + from, dest, destPos, to - from);
+        }
+    }
+
+    /**
+     * An inner node whose elements are left's followed by right's.
+     */
+    static final class Concat<A> extends Node<A> {
+        final Node<A> left;
+        final Node<A> right;
+
+        Concat(Node<A> left, Node<A> right) {
+            super(left.length + right.length, Math.max(left.height, right.height) + 1);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void copyTo(int from, int to, A dest, int destPos) {
+            int mid = left.length;
+            if (from < mid) {
+                left.copyTo(from, Math.min(to, mid), dest, destPos);
+            }
+            if (to > mid) {
+                int start = Math.max(from, mid);
+                right.copyTo(start - mid, to - mid, dest, destPos + (start - from));
+            }
+        }
+    }
+
+    /**
+     * Returns the tree with no elements.
+     */
+    Node<A> empty() {
+        return empty;
+    }
+
+    /**
+     * Returns a leaf over chunk[offset, offset + length). The caller must not modify
+     * that range of chunk afterwards.
+     */
+    Node<A> leaf(A chunk, int offset, int length) {
+        return length == 0 ? empty : new Leaf<A>(chunk, offset, length, null);
+    }
+
+    /**
+     * Returns the element at index within node, in O(height).
+     */
+    E elementAt(Node<A> node, int index) {
+        while (node instanceof Concat) {
+            Concat<A> c = (Concat<A>) node;
+            if (index < c.left.length) {
+                node = c.left;
+            } else {
+                index -= c.left.length;
+                node = c.right;
+            }
+        }
+        Leaf<A> leaf = (Leaf<A>) node;
+        return read(leaf.items, leaf.offset + index);
+    }
+
+    /**
+     * Returns the elements of node as a new chunk.
+     */
+    A toChunk(Node<A> node) {
+        A chunk = allocate(node.length);
+        node.copyTo(0, node.length, chunk, 0);
+        return chunk;
+    }
+
+    /**
+     * Returns a node holding a's elements followed by b's, rebalancing along the way.
+     * Costs O(|height(a) - height(b)|).
+     * @throws IllegalArgumentException if the result would hold more than Integer.MAX_VALUE elements
+     */
+    Node<A> join(Node<A> a, Node<A> b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length > Integer.MAX_VALUE - b.length) {
+            throw new IllegalArgumentException(overflowMessage);
+        }
+        if (a.length + b.length <= leafSize && a instanceof Leaf && b instanceof Leaf) {
+            return mergeLeaves(a, b);
+        }
+        // fold a small leaf into the neighbouring leaf instead of adding a level
+        if (b instanceof Leaf && a instanceof Concat) {
+            Concat<A> ca = (Concat<A>) a;
+            if (ca.right instanceof Leaf && ca.right.length + b.length <= leafSize) {
+                return new Concat<A>(ca.left, mergeLeaves(ca.right, b));
+            }
+        }
+        if (a instanceof Leaf && b instanceof Concat) {
+            Concat<A> cb = (Concat<A>) b;
+            if (cb.left instanceof Leaf && a.length + cb.left.length <= leafSize) {
+                return new Concat<A>(mergeLeaves(a, cb.left), cb.right);
+            }
+        }
+        if (a.height > b.height + 1) {
+            Concat<A> ca = (Concat<A>) a;
+            return balance(ca.left, join(ca.right, b));
+        }
+        if (b.height > a.height + 1) {
+            Concat<A> cb = (Concat<A>) b;
+            return balance(join(a, cb.left), cb.right);
+        }
+        return new Concat<A>(a, b);
+    }
+
+    /**
+     * Builds a Concat of two subtrees whose heights differ by at most two, rotating if needed.
+     */
+    private static <A> Node<A> balance(Node<A> l, Node<A> r) {
+        if (l.height > r.height + 1) {
+            Concat<A> cl = (Concat<A>) l;
+            if (cl.left.height >= cl.right.height) {
+                return new Concat<A>(cl.left, new Concat<A>(cl.right, r));
+            }
+            Concat<A> lr = (Concat<A>) cl.right;
+            return new Concat<A>(new Concat<A>(cl.left, lr.left), new Concat<A>(lr.right, r));
+        }
+        if (r.height > l.height + 1) {
+            Concat<A> cr = (Concat<A>) r;
+            if (cr.right.height >= cr.left.height) {
+                return new Concat<A>(new Concat<A>(l, cr.left), cr.right);
+            }
+            Concat<A> rl = (Concat<A>) cr.left;
+            return new Concat<A>(new Concat<A>(l, rl.left), new Concat<A>(rl.right, cr.right));
+        }
+        return new Concat<A>(l, r);
+    }
+
+    /**
+     * Joins two short leaves into one: in place when a can claim the room after it in
+     * its chunk, otherwise by copying both into a fresh chunk with room to grow.
+     */
+    private Node<A> mergeLeaves(Node<A> a, Node<A> b) {
+        int length = a.length + b.length;
+        Leaf<A> leaf = (Leaf<A>) a;
+        Fill fill = leaf.fill;
+        int end = leaf.offset + leaf.length;
+        if (fill != null && end + b.length <= fill.capacity && fill.used.compareAndSet(end, end + b.length)) {
+            b.copyTo(0, b.length, leaf.items, end);
+            return new Leaf<A>(leaf.items, leaf.offset, length, fill);
+        }
+        int capacity = Math.min(leafSize, 2 * length);
+        A items = allocate(capacity);
+        a.copyTo(0, a.length, items, 0);
+        b.copyTo(0, b.length, items, a.length);
+        return new Leaf<A>(items, 0, length, capacity > length ? new Fill(capacity, length) : null);
+    }
+
+    /**
+     * Splits a node at index into the elements before and the elements from index on.
+     * @return a two-element array {before, after}
+     */
+    Node<A>[] split(Node<A> node, int index) {
+        if (index <= 0) {
+            return pair(empty, node);
+        }
+        if (index >= node.length) {
+            return pair(node, empty);
+        }
+        if (node instanceof Leaf) {
+            Leaf<A> leaf = (Leaf<A>) node;
+            return pair(new Leaf<A>(leaf.items, leaf.offset, index, leaf.fill),
+                    new Leaf<A>(leaf.items, leaf.offset + index, leaf.length - index, leaf.fill));
+        }
+        Concat<A> c = (Concat<A>) node;
+        if (index < c.left.length) {
+            Node<A>[] parts = split(c.left, index);
+            return pair(parts[0], join(parts[1], c.right));
+        }
+        Node<A>[] parts = split(c.right, index - c.left.length);
+        return pair(join(c.left, parts[0]), parts[1]);
+    }
+
+    private static <A> Node<A>[] pair(Node<A> before, Node<A> after) {
+        Node<A>[] parts = nodes(2);
+        parts[0] = before;
+        parts[1] = after;
+        return parts;
+    }
+
+    /**
+     * Returns a new array for count nodes, which Java cannot create directly for a generic type.
+     */
+    @SuppressWarnings("unchecked")
+    static <A> Node<A>[] nodes(int count) {
+        return (Node<A>[]) new Node<?>[count];
+    }
+
+    /**
+     * Returns a node for the range [fromIndex, toIndex) of node.
+     */
+    Node<A> slice(Node<A> node, int fromIndex, int toIndex) {
+        return split(split(node, toIndex)[0], fromIndex)[1];
+    }
+
+    /**
+     * Returns node with [fromIndex, toIndex) replaced by replacement.
+     */
+    Node<A> replace(Node<A> node, int fromIndex, int toIndex, Node<A> replacement) {
+        Node<A>[] head = split(node, fromIndex);
+        return join(join(head[0], replacement), split(head[1], toIndex - fromIndex)[1]);
+    }
+
+    /**
+     * Builds a balanced tree over chunk[from, to) without copying it, in leaves of at
+     * most leafSize elements. The caller must not modify chunk afterwards.
+     */
+    Node<A> build(A chunk, int from, int to) {
+        if (to - from <= leafSize) {
+            return leaf(chunk, from, to - from);
+        }
+        int mid = (from + to) >>> 1;
+        return new Concat<A>(build(chunk, from, mid), build(chunk, mid, to));
+    }
+
+    /**
+     * Builds a balanced tree whose leaves, in order, are leaves[from, to).
+     */
+    Node<A> buildBalanced(Node<A>[] leaves, int from, int to) {
+        if (to == from) {
+            return empty;
+        }
+        if (to - from == 1) {
+            return leaves[from];
+        }
+        int mid = (from + to) >>> 1;
+        return new Concat<A>(buildBalanced(leaves, from, mid), buildBalanced(leaves, mid, to));
+    }
+}
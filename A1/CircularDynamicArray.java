@@ -0,0 +1,525 @@
+/**
+ * A dynamic array stored in a circular buffer with a head offset, so adding
+ * or removing at either end is amortized O(1). Inserts and removes in the
+ * middle shift whichever side of the index is shorter.
+ *
+ * Valid indices run from lowIndex() to highIndex(), and the low index can be
+ * any int, including a negative one. Changing it with setLowIndex re-labels
+ * the elements without moving them. Index arithmetic is done in long, and
+ * growing past an index of Integer.MAX_VALUE throws IllegalStateException
+ * before anything is changed. Arrays returned by the Group 3
+ * operations start at the same low index as the array they came from.
+ */
+public class CircularDynamicArray<J> implements DynamicArrayADT<J> {
+    private J[] data;
+    private int head;
+    private int size;
+    private int lowIndex;
+
+    /**
+     * Allocates a new array of the given length.
+     * @param len the length of the new array
+     * @return the new array
+     */
+    @SuppressWarnings("unchecked")
+    private J[] allocate(int len) {
+        return (J[]) new Object[len];
+    }
+
+    /**
+     * Constructs an empty CircularDynamicArray with the given capacity and lowest index.
+     * @param initialCapacity the initial capacity of the array
+     * @param lowIndex the index of the first element
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public CircularDynamicArray(int initialCapacity, int lowIndex) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        data = allocate(initialCapacity);
+        head = 0;
+        size = 0;
+        this.lowIndex = lowIndex;
+    }
+
+    /**
+     * Constructs an empty CircularDynamicArray with the specified initial capacity, indexed from 0.
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public CircularDynamicArray(int initialCapacity) {
+        this(initialCapacity, 0);
+    }
+
+    /**
+     * Constructs an empty CircularDynamicArray with default initial capacity (0), indexed from 0.
+     */
+    public CircularDynamicArray() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a CircularDynamicArray holding the elements of another array,
+     * starting at the same low index.
+     * @param other the array to copy
+     */
+    public CircularDynamicArray(DynamicArrayADT<J> other) {
+        this(other.size(), other.lowIndex());
+        for (int i = 0; i < other.size(); i++) {
+            data[i] = other.get(other.lowIndex() + i);
+        }
+        size = other.size();
+    }
+
+    /**
+     * Maps a position counted from the first element to its slot in the backing array.
+     */
+    private int slot(int offset) {
+        int slot = head + offset;
+        return slot >= data.length ? slot - data.length : slot;
+    }
+
+    /**
+     * Makes room for at least minCapacity elements, unwrapping the buffer so the head is at slot 0.
+     * @param minCapacity the number of elements that must fit
+     */
+    private void ensureCapacityInternal(int minCapacity) {
+        if (minCapacity <= data.length) {
+            return;
+        }
+        int newCapacity = data.length == 0 ? 1 : data.length * 2;
+        if (newCapacity < minCapacity) {
+            newCapacity = minCapacity;
+        }
+        J[] newData = allocate(newCapacity);
+        copyOut(0, size, newData, 0);
+        data = newData;
+        head = 0;
+    }
+
+    /**
+     * Copies the elements at offsets [from, to) into dest with at most two block copies.
+     */
+    private void copyOut(int from, int to, Object[] dest, int destPos) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        int start = slot(from);
+        int firstRun = Math.min(count, data.length - start);
+        System.arraycopy(data, start, dest, destPos, firstRun);
+        System.arraycopy(data, 0, dest, destPos + firstRun, count - firstRun);
+    }
+
+    /**
+     * Moves count elements from offset src to offset dst, which may overlap, using
+     * block copies split wherever either range wraps around the end of the buffer.
+     */
+    private void move(int src, int dst, int count) {
+        if (dst < src) {
+            while (count > 0) {
+                int s = slot(src);
+                int d = slot(dst);
+                int run = Math.min(count, Math.min(data.length - s, data.length - d));
+                System.arraycopy(data, s, data, d, run);
+                src += run;
+                dst += run;
+                count -= run;
+            }
+        } else {
+            while (count > 0) {
+                int s = slot(src + count - 1) + 1;
+                int d = slot(dst + count - 1) + 1;
+                int run = Math.min(count, Math.min(s, d));
+                System.arraycopy(data, s - run, data, d - run, run);
+                count -= run;
+            }
+        }
+    }
+
+    /**
+     * Nulls out the elements at offsets [from, to) so they can be garbage collected.
+     */
+    private void clear(int from, int to) {
+        for (int i = from; i < to; i++) {
+            data[slot(i)] = null;
+        }
+    }
+
+    /**
+     * Opens a gap of count slots before offset, moving whichever side is shorter.
+     * The capacity must already fit size + count.
+     */
+    private void openGap(int offset, int count) {
+        if (offset < size - offset) {
+            head -= count;
+            if (head < 0) {
+                head += data.length;
+            }
+            move(count, 0, offset);
+        } else {
+            move(offset, offset + count, size - offset);
+        }
+        size += count;
+    }
+
+    /**
+     * Closes the count elements starting at offset, moving whichever side is shorter
+     * and clearing the slots left behind.
+     */
+    private void closeGap(int offset, int count) {
+        int after = size - offset - count;
+        if (offset < after) {
+            move(0, count, offset);
+            clear(0, count);
+            head = slot(count);
+        } else {
+            move(offset + count, offset, after);
+            clear(size - count, size);
+        }
+        size -= count;
+        if (size == 0) {
+            head = 0;
+        }
+    }
+
+    /**
+     * Creates an empty array with the same low index and the given capacity.
+     */
+    private CircularDynamicArray<J> sibling(int capacity) {
+        return new CircularDynamicArray<J>(capacity, lowIndex);
+    }
+
+    private void checkIndex(int index) {
+        if (!indexInRange(index)) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    /**
+     * Checks that count more elements still leave highIndex() within int range.
+     */
+    private void checkGrowth(long count) {
+        if ((long) lowIndex + size + count - 1 > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index would exceed " + Integer.MAX_VALUE + ".");
+        }
+    }
+
+    private void checkPosition(int index) {
+        if (index < lowIndex || (long) index - lowIndex > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < lowIndex || (long) toIndex - lowIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index.
+     * @param index the index of the element to retrieve, between lowIndex() and highIndex()
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public J get(int index) {
+        checkIndex(index);
+        return data[slot(index - lowIndex)];
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public J set(int index, J value) {
+        checkIndex(index);
+        int slot = slot(index - lowIndex);
+        J oldValue = data[slot];
+        data[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements between lowIndex() and highIndex(), inclusive.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the value at the given index, shifting the elements on the shorter side.
+     * Inserting at lowIndex() or at lowIndex() + size() is amortized O(1).
+     * @param index the index at which to insert the value, from lowIndex() to lowIndex() + size()
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    @Override
+    public void add(int index, J value) {
+        checkPosition(index);
+        checkGrowth(1);
+        ensureCapacityInternal(size + 1);
+        int offset = index - lowIndex;
+        openGap(offset, 1);
+        data[slot(offset)] = value;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    @Override
+    public void add(J value) {
+        addLast(value);
+    }
+
+    /**
+     * Removes and returns the element at the specified index, shifting the elements on the shorter side.
+     * Removing at either end is O(1).
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    @Override
+    public J remove(int index) {
+        checkIndex(index);
+        int offset = index - lowIndex;
+        J removedValue = data[slot(offset)];
+        closeGap(offset, 1);
+        return removedValue;
+    }
+
+    /**
+     * Inserts the value before the first element; the new element gets index lowIndex().
+     * @param value the value to insert
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    public void addFirst(J value) {
+        checkGrowth(1);
+        ensureCapacityInternal(size + 1);
+        head = head == 0 ? data.length - 1 : head - 1;
+        data[head] = value;
+        size++;
+    }
+
+    /**
+     * Appends the value after the last element.
+     * @param value the value to append
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    public void addLast(J value) {
+        checkGrowth(1);
+        ensureCapacityInternal(size + 1);
+        data[slot(size)] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the first element.
+     * @return the element that was at lowIndex()
+     * @throws IndexOutOfBoundsException if the array is empty
+     */
+    public J removeFirst() {
+        return remove(lowIndex);
+    }
+
+    /**
+     * Removes and returns the last element.
+     * @return the element that was at highIndex()
+     * @throws IndexOutOfBoundsException if the array is empty
+     */
+    public J removeLast() {
+        return remove(highIndex());
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new array that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    @Override
+    public CircularDynamicArray<J> append(DynamicArrayADT<J> other) {
+        int otherSize = other.size();
+        checkGrowth(otherSize);
+        CircularDynamicArray<J> result = sibling(size + otherSize);
+        copyOut(0, size, result.data, 0);
+        for (int i = 0; i < otherSize; i++) {
+            result.data[size + i] = other.get(other.lowIndex() + i);
+        }
+        result.size = size + otherSize;
+        return result;
+    }
+
+    /**
+     * Inserts all elements of another array at the given index, moving the shorter side once.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if an index would exceed Integer.MAX_VALUE
+     */
+    @Override
+    public CircularDynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
+        checkPosition(index);
+        int count = other.size();
+        checkGrowth(count);
+        J[] source = allocate(count);
+        for (int i = 0; i < count; i++) {
+            source[i] = other.get(other.lowIndex() + i);
+        }
+        ensureCapacityInternal(size + count);
+        int offset = index - lowIndex;
+        openGap(offset, count);
+        for (int i = 0; i < count; i++) {
+            data[slot(offset + i)] = source[i];
+        }
+        return this;
+    }
+
+    /**
+     * Returns a new array containing the elements in the range [fromIndex, toIndex).
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CircularDynamicArray<J> sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        CircularDynamicArray<J> result = sibling(toIndex - fromIndex);
+        copyOut(fromIndex - lowIndex, toIndex - lowIndex, result.data, 0);
+        result.size = toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns a new array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CircularDynamicArray<J> delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int from = fromIndex - lowIndex;
+        int to = toIndex - lowIndex;
+        CircularDynamicArray<J> result = sibling(size - (to - from));
+        copyOut(0, from, result.data, 0);
+        copyOut(to, size, result.data, from);
+        result.size = size - (to - from);
+        return result;
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public CircularDynamicArray<J> extract(int fromIndex, int toIndex) {
+        CircularDynamicArray<J> result = sublist(fromIndex, toIndex);
+        closeGap(fromIndex - lowIndex, toIndex - fromIndex);
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public CircularDynamicArray<J> splitSuffix(int index) {
+        checkPosition(index);
+        int offset = index - lowIndex;
+        CircularDynamicArray<J> suffix = sibling(size - offset);
+        copyOut(offset, size, suffix.data, 0);
+        suffix.size = size - offset;
+        if (suffix.size > 0) {
+            closeGap(offset, suffix.size);
+        }
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * The remaining elements keep the low index, so they are renumbered from lowIndex().
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public CircularDynamicArray<J> splitPrefix(int index) {
+        checkPosition(index);
+        int offset = index - lowIndex;
+        CircularDynamicArray<J> prefix = sibling(offset);
+        copyOut(0, offset, prefix.data, 0);
+        prefix.size = offset;
+        if (offset > 0) {
+            closeGap(0, offset);
+        }
+        return prefix;
+    }
+
+    //Kudos-Group 4
+
+    /**
+     * Returns the lowest valid index of this array.
+     * @return returns the index of the first element
+     */
+    @Override
+    public int lowIndex() {
+        return lowIndex;
+    }
+
+    /**
+     * Returns the highest valid index of this array.
+     * @return returns lowIndex() + size() - 1, or Integer.MIN_VALUE for an empty
+     * array starting at Integer.MIN_VALUE, which has no valid index
+     */
+    @Override
+    public int highIndex() {
+        return (int) Math.max(Integer.MIN_VALUE, (long) lowIndex + size - 1);
+    }
+
+    /**
+     * Returns true if a given index is within the valid range.
+     * @param index the index to check
+     * @return returns whether index is between lowIndex() and highIndex()
+     */
+    @Override
+    public boolean indexInRange(int index) {
+        return index >= lowIndex && (long) index - lowIndex < size;
+    }
+
+    /**
+     * Changes the index of the first element without moving any elements.
+     * @param lowIndex the new index of the first element
+     * @throws IllegalArgumentException if the last element's index would exceed Integer.MAX_VALUE
+     */
+    public void setLowIndex(int lowIndex) {
+        if ((long) lowIndex + size - 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Low index: " + lowIndex);
+        }
+        this.lowIndex = lowIndex;
+    }
+}
@@ -0,0 +1,216 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class CircularDynamicArrayTests {
+
+    private CircularDynamicArray<Character> a1;
+    private CircularDynamicArray<Character> a2;
+    private CircularDynamicArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test. a1 is built from the front
+     * so that its contents wrap around the end of the backing array.
+     */
+    @Before
+    public void setUp() {
+        a1 = new CircularDynamicArray<Character>(8);
+        String s = "abcdef";
+        for (int i = s.length() - 1; i >= 0; i--) {
+            a1.addFirst(s.charAt(i));
+        }
+        a2 = new CircularDynamicArray<Character>(new DynamicArray<Character>());
+        a2.add('w');
+        a2.add('x');
+        a2.add('y');
+        a2.add('z');
+        empty = new CircularDynamicArray<Character>();
+    }
+
+    /**
+     * Compares the size and each element of an array against a string, starting at its low index.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i,
+                    s.charAt(i), arr.get(arr.lowIndex() + i).charValue());
+        }
+    }
+
+    @Test
+    public void testDequeEnds() {
+        compareToString(a1, "abcdef");
+        a1.addLast('g');
+        a1.addFirst('_');
+        compareToString(a1, "_abcdefg");
+        assertEquals((Character) '_', a1.removeFirst());
+        assertEquals((Character) 'g', a1.removeLast());
+        assertEquals((Character) 'a', a1.remove(0));
+        compareToString(a1, "bcdef");
+    }
+
+    @Test
+    public void testMiddleEdits() {
+        a1.add(1, '1');
+        a1.add(5, '5');
+        compareToString(a1, "a1bcd5ef");
+        assertEquals((Character) '1', a1.remove(1));
+        assertEquals((Character) '5', a1.remove(4));
+        assertEquals((Character) 'c', a1.set(2, 'C'));
+        compareToString(a1, "abCdef");
+    }
+
+    @Test
+    public void testOffsetIndexing() {
+        a1.setLowIndex(-3);
+        assertEquals(-3, a1.lowIndex());
+        assertEquals(2, a1.highIndex());
+        assertEquals((Character) 'a', a1.get(-3));
+        assertEquals((Character) 'd', a1.get(0));
+        assertTrue(a1.indexInRange(2));
+        assertFalse(a1.indexInRange(3));
+        assertFalse(a1.indexInRange(-4));
+        a1.add(-3, '<');
+        compareToString(a1, "<abcdef");
+        assertEquals((Character) '<', a1.get(-3));
+        CircularDynamicArray<Character> sub = a1.sublist(-2, 1);
+        assertEquals(-3, sub.lowIndex());
+        compareToString(sub, "abc");
+    }
+
+    /**
+     * Indices far from lowIndex() must be rejected without wrapping around.
+     */
+    @Test
+    public void testIndicesNearIntMin() {
+        CircularDynamicArray<Integer> arr = new CircularDynamicArray<Integer>(4, -2_000_000_000);
+        arr.add(1);
+        arr.add(2);
+        try {
+            arr.add(2_000_000_000, 9);
+            fail("add far past the end should throw");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        try {
+            arr.sublist(-2_000_000_000, 2_000_000_000);
+            fail("sublist far past the end should throw");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        assertEquals(2, arr.size());
+        assertEquals(-1_999_999_999, arr.highIndex());
+        CircularDynamicArray<Integer> low = new CircularDynamicArray<Integer>(0, Integer.MIN_VALUE);
+        assertFalse(low.indexInRange(Integer.MIN_VALUE));
+        assertFalse(low.indexInRange(Integer.MAX_VALUE));
+        low.addLast(5);
+        low.addFirst(4);
+        assertEquals((Integer) 4, low.get(Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE + 1, low.highIndex());
+        assertFalse(low.indexInRange(Integer.MAX_VALUE));
+        assertEquals((Integer) 5, low.removeLast());
+    }
+
+    /**
+     * Growing past an index of Integer.MAX_VALUE must throw and leave the array unchanged.
+     */
+    @Test
+    public void testIndicesNearIntMax() {
+        CircularDynamicArray<Integer> arr = new CircularDynamicArray<Integer>(4, Integer.MAX_VALUE - 1);
+        arr.add(1);
+        arr.add(2);
+        assertEquals(Integer.MAX_VALUE, arr.highIndex());
+        assertEquals((Integer) 2, arr.get(Integer.MAX_VALUE));
+        try {
+            arr.add(3);
+            fail("adding past Integer.MAX_VALUE should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arr.addFirst(0);
+            fail("adding past Integer.MAX_VALUE should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arr.insert(Integer.MAX_VALUE, arr);
+            fail("inserting past Integer.MAX_VALUE should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arr.append(arr);
+            fail("appending past Integer.MAX_VALUE should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arr.setLowIndex(Integer.MAX_VALUE);
+            fail("a low index leaving no room should throw");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(2, arr.size());
+        assertEquals(Integer.MAX_VALUE - 1, arr.lowIndex());
+        assertEquals((Integer) 1, arr.get(Integer.MAX_VALUE - 1));
+        assertEquals((Integer) 2, arr.removeLast());
+        arr.add(Integer.MAX_VALUE, 3);
+        assertEquals((Integer) 3, arr.get(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOffsetBounds() {
+        a1.setLowIndex(10);
+        a1.get(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRemoveEmpty() {
+        empty.removeFirst();
+    }
+
+    @Test
+    public void testGroup3() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(a1.delete(1, 5), "af");
+        compareToString(a1.sublist(4, 6), "ef");
+        compareToString(a1, "abcdef");
+        compareToString(a1.insert(4, a2), "abcdwxyzef");
+        compareToString(a1.extract(2, 8), "cdwxyz");
+        compareToString(a1, "abef");
+        compareToString(empty.append(empty), "");
+    }
+
+    @Test
+    public void testSplit() {
+        compareToString(a1.splitPrefix(1), "a");
+        compareToString(a1.splitSuffix(3), "ef");
+        compareToString(a1, "bcd");
+        compareToString(a1.splitSuffix(3), "");
+        compareToString(a1.splitPrefix(0), "");
+    }
+
+    /**
+     * Runs random end and middle operations against ArrayList.
+     */
+    @Test
+    public void testRandomOps() {
+        Random rnd = new Random(3);
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        CircularDynamicArray<Integer> arr = new CircularDynamicArray<Integer>(2);
+        for (int step = 0; step < 20000; step++) {
+            int op = rnd.nextInt(6);
+            if (op < 3 || expected.isEmpty()) {
+                int at = op == 0 ? 0 : op == 1 ? expected.size() : rnd.nextInt(expected.size() + 1);
+                arr.add(at, step);
+                expected.add(at, step);
+            } else {
+                int at = op == 3 ? 0 : op == 4 ? expected.size() - 1 : rnd.nextInt(expected.size());
+                assertEquals(expected.remove(at), arr.remove(at));
+            }
+        }
+        assertEquals(expected.size(), arr.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), arr.get(i));
+        }
+    }
+}
@@ -0,0 +1,415 @@
+/**
+ * A dynamic array that can be shared between threads without outside locking.
+ *
+ * A StampedLock guards the backing array. get, size and sublist first read without
+ * locking and then validate the stamp; only if a write happened in between do they
+ * read again under the read lock, so readers never block one another or writers.
+ * Every method that changes the array takes the write lock for its whole duration,
+ * which makes compound operations such as insert, extract and splitPrefix atomic.
+ * @param <J> the type of elements stored in the array
+ */
+public class ConcurrentDynamicArray<J> implements DynamicArrayADT<J> {
+    private final java.util.concurrent.locks.StampedLock lock = new java.util.concurrent.locks.StampedLock();
+    private Object[] data;
+    private int size;
+
+    /**
+     * Constructs an empty ConcurrentDynamicArray with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public ConcurrentDynamicArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        data = new Object[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Constructs an empty ConcurrentDynamicArray with default initial capacity (0).
+     */
+    public ConcurrentDynamicArray() {
+        this(0);
+    }
+
+    /**
+     * Constructs a ConcurrentDynamicArray holding a snapshot of another array's elements.
+     * @param other the array to copy
+     */
+    public ConcurrentDynamicArray(DynamicArrayADT<J> other) {
+        this(snapshotOf(other), -1);
+    }
+
+    /**
+     * Wraps an array that nobody else references. A size of -1 means all of it.
+     */
+    private ConcurrentDynamicArray(Object[] data, int size) {
+        this.data = data;
+        this.size = size < 0 ? data.length : size;
+    }
+
+    /**
+     * Returns a DynamicArray holding a snapshot of the elements.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<J> toDynamicArray() {
+        Object[] elements = readRange(0, 0, true);
+        DynamicArray<J> result = new DynamicArray<J>(elements.length);
+        for (Object element : elements) {
+            result.add(elementAt(element));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <J> J elementAt(Object element) {
+        return (J) element;
+    }
+
+    /**
+     * Copies the elements of any array. A concurrent array is copied atomically;
+     * for other arrays the caller must make sure they do not change meanwhile.
+     */
+    private static Object[] snapshotOf(DynamicArrayADT<?> other) {
+        if (other instanceof ConcurrentDynamicArray) {
+            return ((ConcurrentDynamicArray<?>) other).readRange(0, 0, true);
+        }
+        Object[] copy = new Object[other.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = other.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies [fromIndex, toIndex), or everything when whole is set, with an optimistic
+     * read that falls back to the read lock if a writer got in the way.
+     * @throws IndexOutOfBoundsException if the range is invalid
+     */
+    private Object[] readRange(int fromIndex, int toIndex, boolean whole) {
+        long stamp = lock.tryOptimisticRead();
+        Object[] copy = tryCopy(data, size, fromIndex, toIndex, whole);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                copy = tryCopy(data, size, fromIndex, toIndex, whole);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (copy == null) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+        return copy;
+    }
+
+    /**
+     * Copies a range out of fields that may have been read inconsistently, returning
+     * null instead of failing when the range does not fit.
+     */
+    private static Object[] tryCopy(Object[] elements, int n, int fromIndex, int toIndex, boolean whole) {
+        if (whole) {
+            fromIndex = 0;
+            toIndex = n;
+        } else if (fromIndex < 0 || toIndex > n || fromIndex >= toIndex) {
+            return null;
+        }
+        if (toIndex > elements.length) {
+            return null;
+        }
+        Object[] copy = new Object[toIndex - fromIndex];
+        System.arraycopy(elements, fromIndex, copy, 0, copy.length);
+        return copy;
+    }
+
+    /**
+     * Makes room for at least minCapacity elements, at least doubling. Caller holds the write lock.
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity <= data.length) {
+            return;
+        }
+        int newCapacity = Math.max(Math.max(1, data.length * 2), minCapacity);
+        data = java.util.Arrays.copyOf(data, newCapacity);
+    }
+
+    /**
+     * Removes [fromIndex, toIndex) and returns the removed elements. Caller holds the write lock.
+     */
+    private Object[] cut(int fromIndex, int toIndex) {
+        Object[] removed = java.util.Arrays.copyOfRange(data, fromIndex, toIndex);
+        System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+        java.util.Arrays.fill(data, size - (toIndex - fromIndex), size, null);
+        size -= toIndex - fromIndex;
+        return removed;
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index, reading optimistically without a lock.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        Object[] elements = data;
+        int n = size;
+        Object value = index >= 0 && index < n && index < elements.length ? elements[index] : null;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = size;
+                value = index >= 0 && index < n ? data[index] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        return elementAt(value);
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J set(int index, J value) {
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+            }
+            J oldValue = elementAt(data[index]);
+            data[index] = value;
+            return oldValue;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of elements, reading optimistically without a lock.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int n = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                n = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return n;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the specified value at the given index.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public void add(int index, J value) {
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+            }
+            grow(size + 1);
+            System.arraycopy(data, index, data, index + 1, size - index);
+            data[index] = value;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     */
+    @Override
+    public void add(J value) {
+        long stamp = lock.writeLock();
+        try {
+            grow(size + 1);
+            data[size++] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes and returns the element at the specified index.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J remove(int index) {
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+            }
+            return elementAt(cut(index, index + 1)[0]);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new array that is a snapshot of this one followed by a snapshot of other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    @Override
+    public ConcurrentDynamicArray<J> append(DynamicArrayADT<J> other) {
+        Object[] mine = readRange(0, 0, true);
+        Object[] theirs = other == this ? mine : snapshotOf(other);
+        Object[] joined = java.util.Arrays.copyOf(mine, mine.length + theirs.length);
+        System.arraycopy(theirs, 0, joined, mine.length, theirs.length);
+        return new ConcurrentDynamicArray<J>(joined, -1);
+    }
+
+    /**
+     * Atomically inserts all elements from another array into this one at the specified
+     * index. The other array is copied before the write lock is taken, so two arrays
+     * inserted into each other from different threads cannot deadlock.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public ConcurrentDynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
+        Object[] inserted = other == this ? null : snapshotOf(other);
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            if (inserted == null) {
+                inserted = java.util.Arrays.copyOf(data, size);
+            }
+            grow(size + inserted.length);
+            System.arraycopy(data, index, data, index + inserted.length, size - index);
+            System.arraycopy(inserted, 0, data, index, inserted.length);
+            size += inserted.length;
+            return this;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns a new array with a snapshot of the elements in [fromIndex, toIndex),
+     * read optimistically without a lock.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public ConcurrentDynamicArray<J> sublist(int fromIndex, int toIndex) {
+        return new ConcurrentDynamicArray<J>(readRange(fromIndex, toIndex, false), -1);
+    }
+
+    /**
+     * Returns a new array with a snapshot of this one, minus the range [fromIndex, toIndex).
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public ConcurrentDynamicArray<J> delete(int fromIndex, int toIndex) {
+        long stamp = lock.readLock();
+        try {
+            if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+                throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+            }
+            Object[] kept = new Object[size - (toIndex - fromIndex)];
+            System.arraycopy(data, 0, kept, 0, fromIndex);
+            System.arraycopy(data, toIndex, kept, fromIndex, size - toIndex);
+            return new ConcurrentDynamicArray<J>(kept, -1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Atomically removes the elements in [fromIndex, toIndex) and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public ConcurrentDynamicArray<J> extract(int fromIndex, int toIndex) {
+        long stamp = lock.writeLock();
+        try {
+            if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+                throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+            }
+            return new ConcurrentDynamicArray<J>(cut(fromIndex, toIndex), -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically removes and returns the elements from index to the end.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public ConcurrentDynamicArray<J> splitSuffix(int index) {
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return new ConcurrentDynamicArray<J>(cut(index, size), -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically removes and returns the elements before index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public ConcurrentDynamicArray<J> splitPrefix(int index) {
+        long stamp = lock.writeLock();
+        try {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return new ConcurrentDynamicArray<J>(cut(0, index), -1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
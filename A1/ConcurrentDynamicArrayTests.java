@@ -0,0 +1,162 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentDynamicArrayTests {
+
+    private ConcurrentDynamicArray<Character> a1;
+    private ConcurrentDynamicArray<Character> a2;
+    private ConcurrentDynamicArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = stringToArray("abcdef");
+        a2 = stringToArray("wxyz");
+        empty = stringToArray("");
+    }
+
+    /**
+     * Builds a ConcurrentDynamicArray from the characters of a string.
+     */
+    public ConcurrentDynamicArray<Character> stringToArray(String s) {
+        ConcurrentDynamicArray<Character> result = new ConcurrentDynamicArray<Character>();
+        for (int i = 0; i < s.length(); i++) {
+            result.add(s.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    @Test
+    public void testGroup1And2() {
+        assertEquals('c', a1.set(2, 'C').charValue());
+        a1.add(0, '<');
+        a1.add('>');
+        assertEquals('d', a1.remove(4).charValue());
+        compareToString(a1, "<abCef>");
+        compareToString(empty, "");
+    }
+
+    @Test
+    public void testFunctionalOps() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(a1.append(new DynamicArray<Character>()), "abcdef");
+        compareToString(a1.sublist(1, 4), "bcd");
+        compareToString(a1.delete(1, 4), "aef");
+        compareToString(a1, "abcdef");
+        compareToString(a2, "wxyz");
+    }
+
+    @Test
+    public void testMutatingOps() {
+        a1.insert(2, a2);
+        compareToString(a1, "abwxyzcdef");
+        compareToString(a1.extract(2, 6), "wxyz");
+        compareToString(a1, "abcdef");
+        a1.insert(3, a1);
+        compareToString(a1, "abcabcdefdef");
+        compareToString(a1.splitSuffix(6), "defdef");
+        compareToString(a1.splitPrefix(2), "ab");
+        compareToString(a1, "cabc");
+        compareToString(a1.splitSuffix(4), "");
+    }
+
+    @Test
+    public void testInterop() {
+        DynamicArray<Character> plain = a1.toDynamicArray();
+        plain.add('g');
+        compareToString(plain, "abcdefg");
+        compareToString(new ConcurrentDynamicArray<Character>(plain), "abcdefg");
+        compareToString(a1, "abcdef");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSublistBounds() {
+        a1.sublist(3, 3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSplitBounds() {
+        a1.splitPrefix(7);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacity() {
+        new ConcurrentDynamicArray<Character>(-1);
+    }
+
+    /**
+     * Writers keep cutting blocks out of an array and putting them back while readers
+     * check every get and sublist. A read that mixed two states would see a slot that
+     * was just cleared (null) or a size the writers never left the array at.
+     */
+    @Test
+    public void testReadersSeeConsistentState() throws InterruptedException {
+        int n = 4_000;
+        ConcurrentDynamicArray<Integer> arr = new ConcurrentDynamicArray<Integer>();
+        for (int i = 0; i < n; i++) {
+            arr.add(7);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < 2_000; round++) {
+                    ConcurrentDynamicArray<Integer> block = arr.extract(0, 100);
+                    arr.insert(n / 2, block);
+                    arr.splitPrefix(5).size();
+                    arr.insert(0, new ConcurrentDynamicArray<Integer>(block.sublist(0, 5)));
+                }
+            }));
+        }
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int round = 0; round < 20_000; round++) {
+                        int size = arr.size();
+                        assertTrue(size >= n - 250 && size <= n);
+                        assertEquals(7, arr.get(round % (n - 250)).intValue());
+                        ConcurrentDynamicArray<Integer> part = arr.sublist(0, 50);
+                        for (int i = 0; i < part.size(); i++) {
+                            assertEquals(7, part.get(i).intValue());
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(n, arr.size());
+    }
+}
@@ -2,21 +2,57 @@
 /**
  * A simple implementation of a dynamic array.
  */
-public class DynamicArray<J> implements DynamicArrayADT<J> {
+public class DynamicArray<J> implements DynamicArrayADT<J>, Iterable<J> {
     private J[] data;
     private int size;
+    /** Number of structural modifications (size changes), used by views to fail fast. */
+    private int modCount;
+    /**
+     * True when data may also be referenced by another DynamicArray. Such an array is
+     * copied before this one writes to it (copy-on-write). The flag is never cleared on
+     * the other side, so that side may make one extra copy later.
+     */
+    private boolean shared;
+    /** Decides how data grows when full and whether it shrinks after removals. */
+    private GrowthPolicy policy = GrowthPolicy.DOUBLING;
+    /** Where operations are recorded, or null (the default) to record nothing. */
+    private ArrayMetrics metrics;
+    /** Speeds up indexOf, lastIndexOf and contains, or null (the default) to scan. */
+    private ValueIndex valueIndex;
 
     /**
-     * Doubles the capacity of the internal array when full.
+     * Grows the capacity of the internal array when full, as the growth policy says.
      */
-    //@SuppressWarnings("unchecked")
     private void resize() {
-        int newCapacity = data.length == 0 ? 1 : data.length * 2;
-        J[] newData = allocate(newCapacity);
-        for (int i = 0; i < size; i++) {
-            newData[i] = data[i];
+        ensureCapacityInternal(size + 1);
+    }
+
+    /**
+     * Gives this array its own copy of the backing array if it is shared, before a write.
+     */
+    private void ensureUnshared() {
+        if (shared) {
+            if (metrics != null) {
+                metrics.copied(size);
+            }
+            J[] newData = allocate(data.length);
+            System.arraycopy(data, 0, newData, 0, size);
+            data = newData;
+            shared = false;
         }
-        data = newData;
+    }
+
+    /**
+     * Returns a DynamicArray holding the same elements by sharing this array's storage.
+     * Both arrays copy it before their next write. Only whole arrays are shared: a
+     * shorter result would keep the elements past its end reachable.
+     * @return a new DynamicArray sharing this one's backing array
+     */
+    private DynamicArray<J> share() {
+        DynamicArray<J> result = derived(data, size);
+        result.shared = true;
+        shared = true;
+        return result;
     }
 
     /**
@@ -47,16 +83,58 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         size = 0;
     }
 
+    /**
+     * Constructs an empty DynamicArray that grows, and possibly shrinks, as the given policy says.
+     * @param initialCapacity the initial capacity of the array
+     * @param policy the growth policy, for example GrowthPolicy.ONE_AND_A_HALF.withShrinking()
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public DynamicArray(int initialCapacity, GrowthPolicy policy) {
+        this(initialCapacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Wraps an existing backing array without copying it.
+     * @param data the backing array, which this DynamicArray takes ownership of
+     * @param size the number of elements in use
+     */
+    private DynamicArray(J[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Returns an empty array with the given capacity and this array's growth policy,
+     * so every Group 3 result grows and shrinks like the array it came from.
+     */
+    private DynamicArray<J> derived(int capacity) {
+        DynamicArray<J> result = new DynamicArray<J>(capacity);
+        result.policy = policy;
+        return result;
+    }
+
+    /**
+     * Returns an array over the given backing array with this array's growth policy.
+     */
+    private DynamicArray<J> derived(J[] data, int size) {
+        DynamicArray<J> result = new DynamicArray<J>(data, size);
+        result.policy = policy;
+        return result;
+    }
+
     /**
      * Constructs a DynamicArray as a copy of another DynamicArray.
+     * The copy is lazy: both arrays share the backing array until either one is modified,
+     * and only then does the modified one copy it.
      * @param other the DynamicArray to copy
      */
     public DynamicArray(DynamicArray<J> other){
-        data = allocate(other.data.length);
+        data = other.data;
         size = other.size;
-        for (int i = 0; i < size; i++) {
-            data[i] = other.data[i];
-        }
+        policy = other.policy;
+        shared = true;
+        other.shared = true;
     }
 
     /**
@@ -85,8 +163,16 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (index < 0 || index >= size){
             throw new IndexOutOfBoundsException("Index:"+ index + "is out of bounds.");
         }
+        long start = metrics == null ? 0 : metrics.start();
+        ensureUnshared();
         J oldValue = data[index];
         data[index] = value;
+        if (valueIndex != null) {
+            valueIndex.replaced(data, index, oldValue);
+        }
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.SET, start);
+        }
         return oldValue;
     }
 
@@ -101,14 +187,23 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (index < 0 || index > size){
             throw new IndexOutOfBoundsException("Index:"+ index + "is out of bounds.");
         }
+        long start = metrics == null ? 0 : metrics.start();
         if (size == data.length){
             resize();
+        } else {
+            ensureUnshared();
         }
-        for (int i = size; i > index; i--){
-            data[i] = data[i-1];
-        }
+        System.arraycopy(data, index, data, index + 1, size - index);
         data[index] = value;
         size++;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.inserted(data, index, 1);
+        }
+        if (metrics != null) {
+            metrics.shifted(size - 1 - index);
+            metrics.timed(ArrayMetrics.Op.ADD_AT, start);
+        }
     }
 
     /**
@@ -117,11 +212,21 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
      */
     @Override
     public void add(J value){
+        long start = metrics == null ? 0 : metrics.start();
         if (size == data.length){
             resize();
+        } else {
+            ensureUnshared();
         }
         data[size] = value;
+        if (valueIndex != null) {
+            valueIndex.inserted(data, size, 1);
+        }
         size++;
+        modCount++;
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.ADD, start);
+        }
     }
 
     /**
@@ -135,12 +240,25 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (index < 0 || index >= size){
             throw new IndexOutOfBoundsException("Index:"+ index + "is out of bounds.");
         }
+        long start = metrics == null ? 0 : metrics.start();
+        ensureUnshared();
         J removedValue = data[index];
         for (int i = index; i < size - 1; i++){
             data[i] = data[i+1];
         }
         data[size - 1] = null; // clear the last element
         size--;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.removed(data, index, removedValue);
+        }
+        if (metrics != null) {
+            metrics.shifted(size - index);
+        }
+        shrinkIfPolicySays();
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.REMOVE, start);
+        }
         return removedValue;
     }
 
@@ -156,13 +274,20 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
             throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
         }
-        DynamicArray<J> newArray = new DynamicArray<J>(size - (toIndex - fromIndex));
+        long start = metrics == null ? 0 : metrics.start();
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(size - (toIndex - fromIndex));
+        DynamicArray<J> newArray = derived(size - (toIndex - fromIndex));
         for (int i = 0; i < fromIndex; i++) {
             newArray.add(data[i]);
         }
         for (int i = toIndex; i < size; i++) {
             newArray.add(data[i]);
         }
+        if (metrics != null) {
+            metrics.copied(newArray.size);
+            metrics.timed(ArrayMetrics.Op.DELETE, start);
+        }
+        ArrayEvents.commit(event, "delete", 0, newArray.data.length, newArray.size);
         return newArray;
     }
     // @Override
@@ -199,13 +324,29 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
      */
     @Override
     public DynamicArray<J> append(DynamicArrayADT<J> other){
-        DynamicArray<J> newArray = new DynamicArray<J>(this.size + other.size());
+        long start = metrics == null ? 0 : metrics.start();
+        // with nothing to add on one side, the result can share the other side's storage
+        if (other.size() == 0 || (size == 0 && other instanceof DynamicArray)) {
+            DynamicArray<J> result = other.size() == 0 ? share() : new DynamicArray<J>((DynamicArray<J>) other);
+            result.policy = policy;
+            if (metrics != null) {
+                metrics.timed(ArrayMetrics.Op.APPEND, start);
+            }
+            return result;
+        }
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(this.size + other.size());
+        DynamicArray<J> newArray = derived(this.size + other.size());
         for (int i = 0; i < this.size; i++){
             newArray.add(this.data[i]);
         }
         for (int i = 0; i < other.size(); i++){
             newArray.add(other.get(i));
         }
+        if (metrics != null) {
+            metrics.copied(newArray.size);
+            metrics.timed(ArrayMetrics.Op.APPEND, start);
+        }
+        ArrayEvents.commit(event, "append", 0, newArray.data.length, newArray.size);
         return newArray;
     }
 
@@ -218,16 +359,142 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
      */
     @Override
     public DynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
-        if (index < 0 || index > this.size()) {
+        long start = metrics == null ? 0 : metrics.start();
+        int moved = other.size() + size - index;
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(moved);
+        int oldCapacity = data.length;
+        addAll(index, other);
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.INSERT, start);
+        }
+        ArrayEvents.commit(event, "insert", oldCapacity, data.length, moved);
+        return this; // return the modified array 
+    }
+
+    /**
+     * Appends all elements of another DynamicArray to the end of this one.
+     * @param other the other DynamicArray whose elements are added
+     */
+    public void addAll(DynamicArrayADT<J> other) {
+        addAll(size, other);
+    }
+
+    /**
+     * Inserts all elements of another DynamicArray at the given index, shifting subsequent elements to the right.
+     * The capacity grows at most once, the tail is moved in a single block and the new elements are copied in,
+     * so the cost is O(size + other.size()) instead of one shift per inserted element.
+     * @param index the position to insert the other DynamicArray
+     * @param other the other DynamicArray to insert
+     * @throws IndexOutOfBoundsException if the index is out of range where it's lees than zero or greater than the size of the array.
+     */
+    public void addAll(int index, DynamicArrayADT<J> other) {
+        if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException("Index: " + index);
         }
+        int count = other.size();
+        if (count == 0) {
+            return;
+        }
 
-        // Insert elements of `other` starting at position `index`
-        for (int i = 0; i < other.size(); i++) {
-            this.add(index + i, other.get(i)); 
+        // read the source before opening the gap, in case other is this array
+        Object[] source;
+        if (other instanceof DynamicArray) {
+            source = ((DynamicArray<J>) other).data;
+            if (other == this) {
+                source = new Object[count];
+                System.arraycopy(data, 0, source, 0, count);
+            }
+        } else {
+            source = new Object[count];
+            for (int i = 0; i < count; i++) {
+                source[i] = other.get(i);
+            }
         }
 
-        return this; // return the modified array 
+        ensureCapacityInternal(size + count);
+        ensureUnshared();
+        // open a gap of `count` slots at `index`, then fill it
+        System.arraycopy(data, index, data, index + count, size - index);
+        System.arraycopy(source, 0, data, index, count);
+        if (metrics != null) {
+            metrics.shifted(size - index);
+            metrics.copied(count);
+        }
+        size += count;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.inserted(data, index, count);
+        }
+    }
+
+    /**
+     * Grows the internal array once so that it can hold at least minCapacity elements.
+     * @param minCapacity the number of elements that must fit
+     * @throws IllegalStateException if the growth policy returns less than minCapacity
+     */
+    private void ensureCapacityInternal(int minCapacity) {
+        if (minCapacity <= data.length) {
+            return;
+        }
+        int newCapacity = policy.grow(data.length, minCapacity);
+        if (newCapacity < minCapacity) {
+            throw new IllegalStateException("Growth policy returned capacity: " + newCapacity);
+        }
+        reallocate(newCapacity, "grow");
+    }
+
+    /**
+     * Moves the elements into a new backing array of exactly the given capacity.
+     */
+    private void reallocate(int newCapacity, String operation) {
+        if (metrics != null) {
+            metrics.reallocated(size, newCapacity);
+        }
+        ArrayEvents.Resize event = ArrayEvents.beginResize(size);
+        int oldCapacity = data.length;
+        J[] newData = allocate(newCapacity);
+        System.arraycopy(data, 0, newData, 0, size);
+        data = newData;
+        shared = false;
+        ArrayEvents.commit(event, operation, oldCapacity, newCapacity, size);
+    }
+
+    /**
+     * Shrinks the internal array if the growth policy asks for it after a removal.
+     */
+    private void shrinkIfPolicySays() {
+        int newCapacity = policy.shrink(data.length, size);
+        if (newCapacity < data.length && newCapacity >= size) {
+            reallocate(newCapacity, "shrink");
+        }
+    }
+
+    //Capacity
+
+    /**
+     * Grows the internal array, if needed, so that it holds at least minCapacity elements
+     * without reallocating. Use before adding a known number of elements.
+     * @param minCapacity the number of elements that must fit
+     */
+    public void ensureCapacity(int minCapacity) {
+        ensureCapacityInternal(minCapacity);
+    }
+
+    /**
+     * Shrinks the internal array to exactly the current size, releasing the unused capacity.
+     */
+    public void trimToSize() {
+        if (data.length > size) {
+            reallocate(size, "trim");
+        }
+    }
+
+    /**
+     * Returns the length of the internal array, for tests and benchmarks.
+     * @return the current capacity
+     */
+    int capacity() {
+        return data.length;
     }
 
 
@@ -243,13 +510,36 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex){
             throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
         }
-        DynamicArray<J> newArray = new DynamicArray<J>(toIndex - fromIndex);
+        long start = metrics == null ? 0 : metrics.start();
+        DynamicArray<J> newArray = derived(toIndex - fromIndex);
         for (int i = fromIndex; i < toIndex; i++){
             newArray.add(this.data[i]);
         }
+        if (metrics != null) {
+            metrics.copied(newArray.size);
+            metrics.timed(ArrayMetrics.Op.SUBLIST, start);
+        }
         return newArray;
     }
 
+    /**
+     * Returns a read-mostly view of the range [fromIndex, toIndex) that reads this array's
+     * storage directly instead of copying it. The view sees later set calls on this array,
+     * but any structural change here (add, remove, insert, extract, split) makes the view
+     * throw ConcurrentModificationException on its next use. The first write through the
+     * view copies the range into the view's own storage, so writes never reach this array.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a view of the specified range
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public DynamicArrayADT<J> sublistView(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex){
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+        return new SublistView<J>(this, fromIndex, toIndex - fromIndex);
+    }
+
     /**
      * Extracts a subarray from this DynamicArray within the given index range,
      * removes those elements from the original array, and returns them as a new DynamicArray.
@@ -264,11 +554,20 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex){
             throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
         }
-        DynamicArray<J> newArray = new DynamicArray<J>(toIndex - fromIndex);
+        long start = metrics == null ? 0 : metrics.start();
+        int moved = size - fromIndex;
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(moved);
+        int oldCapacity = data.length;
+        DynamicArray<J> newArray = derived(toIndex - fromIndex);
         for (int i = fromIndex; i < toIndex; i++){
             newArray.add(this.data[i]);
         }
+        if (metrics != null) {
+            metrics.copied(toIndex - fromIndex);
+            metrics.shifted(size - toIndex);
+        }
         // Remove the extracted elements from the original array
+        ensureUnshared();
         int numToRemove = toIndex - fromIndex;
         for (int i = fromIndex; i < size - numToRemove; i++) {
             data[i] = data[i + numToRemove];
@@ -277,6 +576,15 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
             data[i] = null;
         }
         size -= numToRemove;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.removed(data, fromIndex, newArray.data, 0, newArray.size);
+        }
+        shrinkIfPolicySays();
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.EXTRACT, start);
+        }
+        ArrayEvents.commit(event, "extract", oldCapacity, data.length, moved);
         return newArray;
     }
     // @Override
@@ -300,21 +608,71 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
     * @return a new dynamic array containing the suffix elements
     * @throws IndexOutOfBoundsException if index is out of range
     */
+    @Override
     public DynamicArray<J> splitSuffix(int index) {
+        return splitSuffix(index, false);
+    }
+
+    /**
+    * Returns and removes the elements from index to the end of the array.
+    * With steal set, whichever half is larger keeps the current backing array, only the smaller
+    * half is copied into new storage, and the array that kept the old storage is trimmed if it
+    * is left mostly empty.
+    *
+    * @param index the position to split at
+    * @param steal whether the larger half may take over the existing backing array
+    * @return a new dynamic array containing the suffix elements
+    * @throws IndexOutOfBoundsException if index is out of range
+    */
+    public DynamicArray<J> splitSuffix(int index, boolean steal) {
         if (index < 0 || index > this.size()) {
             throw new IndexOutOfBoundsException("Index: " + index);
         }
-
-        DynamicArray<J> suffix = new DynamicArray<J>(); 
-
-        for (int i = index; i < this.size(); i++) {
-            suffix.add(suffix.size(), this.get(i));
+        long start = metrics == null ? 0 : metrics.start();
+        ensureUnshared();
+        int count = size - index;
+        DynamicArray<J> suffix;
+        int moved = steal && count > index ? size : count;
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(moved);
+        int oldCapacity = data.length;
+        if (metrics != null) {
+            if (steal && count > index) {
+                metrics.copied(index);
+                metrics.shifted(count);
+            } else {
+                metrics.copied(count);
+            }
         }
 
-        // shrink current array to only keep elements before `index`
-        while (this.size() > index) {
-            this.remove(this.size() - 1);
+        if (steal && count > index) {
+            // the suffix keeps the backing array, shifted down to slot 0
+            J[] prefixData = allocate(index);
+            System.arraycopy(data, 0, prefixData, 0, index);
+            System.arraycopy(data, index, data, 0, count);
+            clear(data, count, size);
+            suffix = derived(data, count);
+            suffix.trimIfSparse();
+            data = prefixData;
+        } else {
+            suffix = derived(count);
+            System.arraycopy(data, index, suffix.data, 0, count);
+            suffix.size = count;
+            clear(data, index, size);
+        }
+        size = index;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.removed(data, index, suffix.data, 0, suffix.size);
+        }
+        if (steal) {
+            trimIfSparse();
+        } else {
+            shrinkIfPolicySays();
         }
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.SPLIT_SUFFIX, start);
+        }
+        ArrayEvents.commit(event, "splitSuffix", oldCapacity, data.length, moved);
 
         return suffix;
     }
@@ -326,25 +684,932 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
     * @return a new dynamic array containing the prefix elements
     * @throws IndexOutOfBoundsException if index is out of range
     */
-
-    //@Override
+    @Override
     public DynamicArray<J> splitPrefix(int index) {
+        return splitPrefix(index, false);
+    }
+
+    /**
+    * Returns and removes the elements before the given index.
+    * With steal set, whichever half is larger keeps the current backing array, only the smaller
+    * half is copied into new storage, and the array that kept the old storage is trimmed if it
+    * is left mostly empty.
+    *
+    * @param index the position to split at
+    * @param steal whether the larger half may take over the existing backing array
+    * @return a new dynamic array containing the prefix elements
+    * @throws IndexOutOfBoundsException if index is out of range
+    */
+    public DynamicArray<J> splitPrefix(int index, boolean steal) {
         if (index < 0 || index > this.size()) {
             throw new IndexOutOfBoundsException("Index: " + index);
         }
+        long start = metrics == null ? 0 : metrics.start();
+        ensureUnshared();
+        int rest = size - index;
+        DynamicArray<J> prefix;
+        int moved = steal && index > rest ? rest : size;
+        ArrayEvents.Copy event = ArrayEvents.beginCopy(moved);
+        int oldCapacity = data.length;
+        if (metrics != null) {
+            if (steal && index > rest) {
+                metrics.copied(rest);
+            } else {
+                metrics.copied(index);
+                metrics.shifted(rest);
+            }
+        }
 
-        DynamicArray<J> prefix = new DynamicArray<J>();
+        if (steal && index > rest) {
+            // the prefix keeps the backing array as is
+            J[] restData = allocate(rest);
+            System.arraycopy(data, index, restData, 0, rest);
+            clear(data, index, size);
+            prefix = derived(data, index);
+            prefix.trimIfSparse();
+            data = restData;
+        } else {
+            prefix = derived(index);
+            System.arraycopy(data, 0, prefix.data, 0, index);
+            prefix.size = index;
+            // move the remaining elements to the front in one block
+            System.arraycopy(data, index, data, 0, rest);
+            clear(data, rest, size);
+        }
+        size = rest;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.removed(data, 0, prefix.data, 0, prefix.size);
+        }
+        if (steal) {
+            trimIfSparse();
+        } else {
+            shrinkIfPolicySays();
+        }
+        if (metrics != null) {
+            metrics.timed(ArrayMetrics.Op.SPLIT_PREFIX, start);
+        }
+        ArrayEvents.commit(event, "splitPrefix", oldCapacity, data.length, moved);
+
+        return prefix;
+    }
 
-        for (int i = 0; i < index; i++) {
-            prefix.add(prefix.size(), this.get(i));
+    /**
+     * Nulls out the slots [fromIndex, toIndex) so removed elements can be garbage collected.
+     */
+    private static void clear(Object[] arr, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            arr[i] = null;
         }
+    }
 
-        // remove first `index` elements from current array
-        for (int i = 0; i < index; i++) {
-            this.remove(0);
+    /**
+     * Shrinks the backing array to the current size when less than a quarter of it is in use.
+     */
+    private void trimIfSparse() {
+        if (size < data.length / 4) {
+            reallocate(size, "trim");
         }
+    }
 
-        return prefix;
+    //Searching
+
+    /**
+     * Returns the index of the first element equal to value, by Objects.equals.
+     * @param value the value to look for, which may be null
+     * @return the lowest index holding value, or -1 if there is none
+     */
+    public int indexOf(Object value) {
+        if (valueIndex != null) {
+            return valueIndex.indexOf(data, size, value);
+        }
+        for (int i = 0; i < size; i++) {
+            if (java.util.Objects.equals(data[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last element equal to value, by Objects.equals.
+     * @param value the value to look for, which may be null
+     * @return the highest index holding value, or -1 if there is none
+     */
+    public int lastIndexOf(Object value) {
+        if (valueIndex != null) {
+            return valueIndex.lastIndexOf(data, size, value);
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            if (java.util.Objects.equals(data[i], value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether some element equals value, by Objects.equals.
+     * @param value the value to look for, which may be null
+     * @return true if indexOf(value) is not -1
+     */
+    public boolean contains(Object value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Turns the hash index behind indexOf, lastIndexOf and contains on or off. While on,
+     * a lookup costs O(log n) per element equal to the value instead of a scan, wherever
+     * mutations shift elements (see ValueIndex), for about 28 bytes per element plus a
+     * map entry per distinct value, and a mutation of k elements does O(k + log n)
+     * bookkeeping. The index is built on the first lookup. Arrays returned by this one's methods are not indexed. While
+     * indexed, elements must not change their hashCode.
+     * @param indexed true to keep an index, false to drop it and scan
+     */
+    public void setIndexed(boolean indexed) {
+        if (!indexed) {
+            valueIndex = null;
+        } else if (valueIndex == null) {
+            valueIndex = new ValueIndex();
+        }
+    }
+
+    /**
+     * Returns whether lookups use a hash index.
+     * @return true if setIndexed(true) was called last
+     */
+    public boolean isIndexed() {
+        return valueIndex != null;
+    }
+
+    //Batched edits
+
+    /**
+     * Starts a batch of inserts, removals and replacements, all given as indices into
+     * this array as it is now. Nothing changes until the batch is committed, and then
+     * the whole batch is applied in one pass.
+     * @return a new, empty batch for this array
+     */
+    public EditBatch edit() {
+        return new EditBatch();
+    }
+
+    /**
+     * Positional edits recorded against the indices an array had when the batch was
+     * started, applied together by commit. Applying k scattered add(int, J) and remove
+     * calls one at a time shifts the tail k times, for O(k * n). commit instead sorts the
+     * edits and copies the untouched runs between them into a new backing array, for
+     * O(n + k log k) and a single allocation. A batch of replacements alone is written
+     * in place.
+     *
+     * Inserts at the same index keep the order they were recorded in, and land before
+     * the original element at that index, or at the end for size(). Removed and replaced
+     * ranges must not overlap, and an insert must not fall strictly inside one.
+     * A batch can only be committed once.
+     */
+    public final class EditBatch {
+        private int[] from = new int[8];
+        private int[] to = new int[8];
+        private Object[][] values = new Object[8][];
+        private int count;
+        private final int expectedModCount = modCount;
+        private boolean committed;
+
+        private EditBatch() {
+        }
+
+        /**
+         * Inserts a value before the element now at index.
+         * @param index an index into the array as it was when the batch started, up to size()
+         * @param value the value to insert
+         * @return this batch
+         * @throws IndexOutOfBoundsException if index is out of range
+         */
+        public EditBatch insert(int index, J value) {
+            return record(index, index, new Object[] {value});
+        }
+
+        /**
+         * Inserts all elements of another array before the element now at index.
+         * The elements are read now, so other may change before the commit.
+         * @param index an index into the array as it was when the batch started, up to size()
+         * @param other the elements to insert
+         * @return this batch
+         * @throws IndexOutOfBoundsException if index is out of range
+         */
+        public EditBatch insertAll(int index, DynamicArrayADT<J> other) {
+            return record(index, index, toArray(other));
+        }
+
+        /**
+         * Removes the element now at index.
+         * @param index an index into the array as it was when the batch started
+         * @return this batch
+         * @throws IndexOutOfBoundsException if index is out of range
+         */
+        public EditBatch remove(int index) {
+            return remove(index, index + 1);
+        }
+
+        /**
+         * Removes the elements now in [fromIndex, toIndex).
+         * @param fromIndex the first index removed
+         * @param toIndex the index after the last one removed
+         * @return this batch
+         * @throws IndexOutOfBoundsException if the range is invalid
+         */
+        public EditBatch remove(int fromIndex, int toIndex) {
+            return replace(fromIndex, toIndex, new Object[0]);
+        }
+
+        /**
+         * Replaces the element now at index, like set.
+         * @param index an index into the array as it was when the batch started
+         * @param value the new value
+         * @return this batch
+         * @throws IndexOutOfBoundsException if index is out of range
+         */
+        public EditBatch replace(int index, J value) {
+            return replace(index, index + 1, new Object[] {value});
+        }
+
+        /**
+         * Replaces the elements now in [fromIndex, toIndex) with the elements of another
+         * array, which may be longer or shorter. The elements are read now.
+         * @param fromIndex the first index replaced
+         * @param toIndex the index after the last one replaced
+         * @param other the replacement elements
+         * @return this batch
+         * @throws IndexOutOfBoundsException if the range is invalid
+         */
+        public EditBatch replace(int fromIndex, int toIndex, DynamicArrayADT<J> other) {
+            return replace(fromIndex, toIndex, toArray(other));
+        }
+
+        private EditBatch replace(int fromIndex, int toIndex, Object[] replacement) {
+            if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+                throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+            }
+            return record(fromIndex, toIndex, replacement);
+        }
+
+        private EditBatch record(int fromIndex, int toIndex, Object[] replacement) {
+            if (committed) {
+                throw new IllegalStateException("Batch already committed.");
+            }
+            if (fromIndex < 0 || fromIndex > size) {
+                throw new IndexOutOfBoundsException("Index: " + fromIndex);
+            }
+            if (count == from.length) {
+                from = java.util.Arrays.copyOf(from, count * 2);
+                to = java.util.Arrays.copyOf(to, count * 2);
+                values = java.util.Arrays.copyOf(values, count * 2);
+            }
+            from[count] = fromIndex;
+            to[count] = toIndex;
+            values[count] = replacement;
+            count++;
+            return this;
+        }
+
+        private Object[] toArray(DynamicArrayADT<J> other) {
+            Object[] copy = new Object[other.size()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = other.get(i);
+            }
+            return copy;
+        }
+
+        /**
+         * Returns the number of edits recorded.
+         * @return the number of edits
+         */
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Applies every edit to the array in one pass. The array grows or shrinks at most
+         * once, as its growth policy says.
+         * @return the edited array
+         * @throws IllegalStateException if the batch was already committed
+         * @throws IllegalArgumentException if two removed or replaced ranges overlap, or an
+         *         insert falls inside one; the array is then left unchanged
+         * @throws java.util.ConcurrentModificationException if the array changed size
+         *         since the batch was started
+         */
+        public DynamicArray<J> commit() {
+            if (committed) {
+                throw new IllegalStateException("Batch already committed.");
+            }
+            if (modCount != expectedModCount) {
+                throw new java.util.ConcurrentModificationException(
+                        "DynamicArray was structurally modified after the batch was started.");
+            }
+            // sort by index, inserts before a range starting at the same index, then in recorded order
+            long[] order = new long[count];
+            for (int e = 0; e < count; e++) {
+                order[e] = ((long) from[e] << 32) | (from[e] == to[e] ? 0 : 1L << 31) | e;
+            }
+            java.util.Arrays.sort(order);
+            long newSize = size;
+            boolean inPlace = true;
+            int covered = 0;
+            for (long key : order) {
+                int e = (int) (key & Integer.MAX_VALUE);
+                if (from[e] < covered) {
+                    throw new IllegalArgumentException("Overlapping edits at index: " + from[e]);
+                }
+                covered = to[e];
+                newSize += values[e].length - (to[e] - from[e]);
+                inPlace &= values[e].length == to[e] - from[e];
+            }
+            if (newSize > GrowthPolicy.MAX_CAPACITY) {
+                throw new OutOfMemoryError("Required array size too large");
+            }
+            committed = true;
+            if (count == 0) {
+                return DynamicArray.this;
+            }
+            if (inPlace) {
+                replaceInPlace();
+            } else {
+                rebuild(order, (int) newSize);
+            }
+            return DynamicArray.this;
+        }
+
+        /**
+         * Writes a batch that only replaces elements one for one over the old ones.
+         */
+        @SuppressWarnings("unchecked")
+        private void replaceInPlace() {
+            ensureUnshared();
+            for (int e = 0; e < count; e++) {
+                for (int i = 0; i < values[e].length; i++) {
+                    J old = data[from[e] + i];
+                    data[from[e] + i] = (J) values[e][i];
+                    if (valueIndex != null) {
+                        valueIndex.replaced(data, from[e] + i, old);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the runs between edits and the edits' new elements, in index order, into
+         * one new backing array.
+         */
+        private void rebuild(long[] order, int newSize) {
+            long start = metrics == null ? 0 : metrics.start();
+            ArrayEvents.Copy event = ArrayEvents.beginCopy(newSize);
+            int oldCapacity = data.length;
+            int capacity = newSize > data.length
+                    ? policy.grow(data.length, newSize)
+                    : Math.max(policy.shrink(data.length, newSize), newSize);
+            if (capacity < newSize) {
+                throw new IllegalStateException("Growth policy returned capacity: " + capacity);
+            }
+            J[] result = allocate(capacity);
+            int cursor = 0;
+            int out = 0;
+            for (long key : order) {
+                int e = (int) (key & Integer.MAX_VALUE);
+                System.arraycopy(data, cursor, result, out, from[e] - cursor);
+                out += from[e] - cursor;
+                System.arraycopy(values[e], 0, result, out, values[e].length);
+                out += values[e].length;
+                cursor = to[e];
+            }
+            System.arraycopy(data, cursor, result, out, size - cursor);
+            data = result;
+            shared = false;
+            size = newSize;
+            modCount++;
+            if (valueIndex != null) {
+                valueIndex.reset(); // the removed elements are scattered, and this pass was O(n) anyway
+            }
+            if (metrics != null) {
+                metrics.copied(newSize);
+                metrics.timed(ArrayMetrics.Op.EDIT, start);
+            }
+            ArrayEvents.commit(event, "edit", oldCapacity, capacity, newSize);
+        }
+    }
+
+    //Metrics
+
+    /**
+     * Starts recording this array's resizes, copies, shifts and operation latencies into
+     * the given metrics, or stops recording when given null. Arrays returned by this
+     * one's methods do not inherit it.
+     * @param metrics where to record, for example ArrayMetrics.shared("sessions"), or null
+     */
+    public void setMetrics(ArrayMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics this array records into.
+     * @return the metrics, or null if recording is off
+     */
+    public ArrayMetrics getMetrics() {
+        return metrics;
+    }
+
+    //Iteration
+
+    /**
+     * Returns an iterator over the elements in index order. It reads the backing array
+     * directly and fails fast: once this array changes size other than through the
+     * iterator's own remove, the iterator throws ConcurrentModificationException.
+     * @return an iterator over this array
+     */
+    @Override
+    public java.util.Iterator<J> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a late-binding, fail-fast spliterator over the elements, reporting
+     * SIZED, SUBSIZED and ORDERED. It splits by halving its index range, so the
+     * pieces of a parallel stream stay even.
+     * @return a spliterator over this array
+     */
+    @Override
+    public java.util.Spliterator<J> spliterator() {
+        return new ArraySpliterator<J>(this, 0, -1, 0);
+    }
+
+    /**
+     * Returns a sequential Stream over the elements.
+     * @return a stream over this array
+     */
+    public java.util.stream.Stream<J> stream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the elements.
+     * @return a possibly parallel stream over this array
+     */
+    public java.util.stream.Stream<J> parallelStream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * The iterator returned by iterator().
+     */
+    private final class Itr implements java.util.Iterator<J> {
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor != size;
+        }
+
+        @Override
+        public J next() {
+            checkForComodification(expectedModCount);
+            if (cursor >= size) {
+                throw new java.util.NoSuchElementException();
+            }
+            lastReturned = cursor++;
+            return data[lastReturned];
+        }
+
+        /**
+         * Removes the element last returned by next.
+         * @throws IllegalStateException if next has not been called since the last remove
+         */
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification(expectedModCount);
+            DynamicArray.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Splits an index range of a DynamicArray. The end of the range (fence) and the
+     * expected modCount are read on first use, so changes made between creating the
+     * spliterator and using it are allowed.
+     */
+    private static final class ArraySpliterator<J> implements java.util.Spliterator<J> {
+        private final DynamicArray<J> array;
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        ArraySpliterator(DynamicArray<J> array, int origin, int fence, int expectedModCount) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = array.modCount;
+                fence = array.size;
+            }
+            return fence;
+        }
+
+        @Override
+        public ArraySpliterator<J> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ArraySpliterator<J>(array, lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(java.util.function.Consumer<? super J> action) {
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            J element = array.data[index++];
+            action.accept(element);
+            array.checkForComodification(expectedModCount);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(java.util.function.Consumer<? super J> action) {
+            int hi = getFence();
+            J[] elements = array.data;
+            for (int i = index; i < hi; i++) {
+                action.accept(elements[i]);
+            }
+            index = hi;
+            array.checkForComodification(expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED;
+        }
+    }
+
+    //Bulk operations
+
+    /**
+     * Performs an action on each element, in index order.
+     * @param action the action to perform
+     * @throws java.util.ConcurrentModificationException if the action changes the size of this array
+     */
+    @Override
+    public void forEach(java.util.function.Consumer<? super J> action) {
+        forEach(action, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Performs an action on each element. When the array holds more than threshold
+     * elements the backing array is split into ranges of at most threshold elements
+     * that run in parallel on the ForkJoinPool, so the action must be safe to call
+     * from several threads and the order is not defined.
+     * @param action the action to perform
+     * @param threshold the largest range handled by one task
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws java.util.ConcurrentModificationException if the action changes the size of this array
+     */
+    public void forEach(java.util.function.Consumer<? super J> action, int threshold) {
+        J[] elements = data;
+        int expectedModCount = modCount;
+        inRanges(size, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                action.accept(elements[i]);
+            }
+            return null;
+        }, (a, b) -> null);
+        checkForComodification(expectedModCount);
+    }
+
+    /**
+     * Replaces each element with the result of applying an operator to it.
+     * @param operator the operator to apply
+     */
+    public void replaceAll(java.util.function.UnaryOperator<J> operator) {
+        replaceAll(operator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replaces each element with the result of applying an operator to it, in parallel
+     * ranges of at most threshold elements when the array is larger than that.
+     * @param operator the operator to apply
+     * @param threshold the largest range handled by one task
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws java.util.ConcurrentModificationException if the operator changes the size of this array
+     */
+    public void replaceAll(java.util.function.UnaryOperator<J> operator, int threshold) {
+        ensureUnshared();
+        J[] elements = data;
+        int expectedModCount = modCount;
+        inRanges(size, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                elements[i] = operator.apply(elements[i]);
+            }
+            return null;
+        }, (a, b) -> null);
+        checkForComodification(expectedModCount);
+        if (valueIndex != null) {
+            valueIndex.reset();
+        }
+    }
+
+    /**
+     * Returns a new DynamicArray holding the result of applying a function to each element.
+     * @param <R> the element type of the result
+     * @param mapper the function to apply
+     * @return a new DynamicArray of the same size
+     */
+    public <R> DynamicArray<R> map(java.util.function.Function<? super J, ? extends R> mapper) {
+        return map(mapper, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a new DynamicArray holding the result of applying a function to each
+     * element, filled in parallel ranges of at most threshold elements when the array
+     * is larger than that.
+     * @param <R> the element type of the result
+     * @param mapper the function to apply
+     * @param threshold the largest range handled by one task
+     * @return a new DynamicArray of the same size
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws java.util.ConcurrentModificationException if the function changes the size of this array
+     */
+    public <R> DynamicArray<R> map(java.util.function.Function<? super J, ? extends R> mapper, int threshold) {
+        J[] elements = data;
+        @SuppressWarnings("unchecked")
+        R[] results = (R[]) new Object[size];
+        int expectedModCount = modCount;
+        inRanges(size, threshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = mapper.apply(elements[i]);
+            }
+            return null;
+        }, (a, b) -> null);
+        checkForComodification(expectedModCount);
+        return new DynamicArray<R>(results, results.length);
+    }
+
+    /**
+     * Combines the elements from left to right, starting from identity.
+     * @param identity the starting value, returned for an empty array
+     * @param accumulator the function combining a partial result with the next element
+     * @return the combined value
+     */
+    public J reduce(J identity, java.util.function.BinaryOperator<J> accumulator) {
+        return reduce(identity, accumulator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Combines the elements, in parallel ranges of at most threshold elements when the
+     * array is larger than that. Each range starts from identity and the range results
+     * are combined with the same function, so as with Stream.reduce the function must
+     * be associative and identity must leave any value unchanged.
+     * @param identity the starting value of each range, returned for an empty array
+     * @param accumulator an associative function combining two values
+     * @param threshold the largest range handled by one task
+     * @return the combined value
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws java.util.ConcurrentModificationException if the function changes the size of this array
+     */
+    public J reduce(J identity, java.util.function.BinaryOperator<J> accumulator, int threshold) {
+        J[] elements = data;
+        int expectedModCount = modCount;
+        J result = inRanges(size, threshold, (from, to) -> {
+            J value = identity;
+            for (int i = from; i < to; i++) {
+                value = accumulator.apply(value, elements[i]);
+            }
+            return value;
+        }, accumulator);
+        checkForComodification(expectedModCount);
+        return size == 0 ? identity : result;
+    }
+
+    /**
+     * Returns how many elements satisfy a predicate.
+     * @param predicate the test to apply
+     * @return the number of matching elements
+     */
+    public int count(java.util.function.Predicate<? super J> predicate) {
+        return count(predicate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns how many elements satisfy a predicate, testing parallel ranges of at
+     * most threshold elements when the array is larger than that.
+     * @param predicate the test to apply
+     * @param threshold the largest range handled by one task
+     * @return the number of matching elements
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws java.util.ConcurrentModificationException if the predicate changes the size of this array
+     */
+    public int count(java.util.function.Predicate<? super J> predicate, int threshold) {
+        J[] elements = data;
+        int expectedModCount = modCount;
+        Integer result = inRanges(size, threshold, (from, to) -> {
+            int matches = 0;
+            for (int i = from; i < to; i++) {
+                if (predicate.test(elements[i])) {
+                    matches++;
+                }
+            }
+            return matches;
+        }, Integer::sum);
+        checkForComodification(expectedModCount);
+        return result;
+    }
+
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new java.util.ConcurrentModificationException("DynamicArray was structurally modified during a bulk operation.");
+        }
+    }
+
+    //Sorting
+
+    /**
+     * Sorts the elements in place, in the backing array, stably.
+     * @param comparator the order to sort by, or null for the elements' natural order
+     * @throws ClassCastException if comparator is null and the elements are not mutually Comparable
+     */
+    public void sort(java.util.Comparator<? super J> comparator) {
+        sort(comparator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sorts the elements in place, stably. When the array is larger than threshold this
+     * is a parallel merge sort: ranges of at most threshold elements are sorted as
+     * separate tasks on the ForkJoinPool and then merged pairwise, using one scratch
+     * array of size() elements.
+     * @param comparator the order to sort by, or null for the elements' natural order
+     * @param threshold the largest range sorted by one task
+     * @throws IllegalArgumentException if threshold is not positive
+     * @throws ClassCastException if comparator is null and the elements are not mutually Comparable
+     * @throws java.util.ConcurrentModificationException if the comparator changes the size of this array
+     */
+    public void sort(java.util.Comparator<? super J> comparator, int threshold) {
+        java.util.Comparator<? super J> order = comparator != null ? comparator : naturalOrder();
+        ensureUnshared();
+        J[] elements = data;
+        Object[] scratch = size > threshold ? new Object[size] : null;
+        int expectedModCount = modCount;
+        inRanges(size, threshold, (from, to) -> {
+            java.util.Arrays.sort(elements, from, to, comparator);
+            return new int[] {from, to};
+        }, (left, right) -> {
+            merge(elements, scratch, left[0], left[1], right[1], order);
+            return new int[] {left[0], right[1]};
+        });
+        checkForComodification(expectedModCount);
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.reset();
+        }
+    }
+
+    /**
+     * Merges the sorted runs [from, mid) and [mid, to) of elements, taking from the left
+     * run on ties so the merge is stable. The left run is first moved to the same
+     * positions in scratch, which other merges running at the same time never touch.
+     */
+    private static <J> void merge(J[] elements, Object[] scratch, int from, int mid, int to, java.util.Comparator<? super J> order) {
+        if (order.compare(elements[mid - 1], elements[mid]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(elements, from, scratch, from, mid - from);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            @SuppressWarnings("unchecked")
+            J left = (J) scratch[i];
+            if (order.compare(elements[j], left) < 0) {
+                elements[k++] = elements[j++];
+            } else {
+                elements[k++] = left;
+                i++;
+            }
+        }
+        System.arraycopy(scratch, i, elements, k, mid - i);
+        clear(scratch, from, mid);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <J> java.util.Comparator<? super J> naturalOrder() {
+        return (java.util.Comparator<? super J>) java.util.Comparator.naturalOrder();
+    }
+
+    /**
+     * Searches this array, which must be sorted by comparator, for a value.
+     * @param value the value to find
+     * @param comparator the order the array is sorted by, or null for natural order
+     * @return the index of an element equal to value if there is one; otherwise
+     *         (-(insertion point) - 1), where the insertion point is the index of the
+     *         first greater element, or size() if there is none
+     */
+    public int binarySearch(J value, java.util.Comparator<? super J> comparator) {
+        return java.util.Arrays.binarySearch(data, 0, size, value, comparator);
+    }
+
+    /**
+     * Inserts a value into this array, which must be sorted by comparator, keeping it
+     * sorted. The value goes after any equal elements, so repeated calls are stable.
+     * The position is found by binary search and the tail moves over in one block.
+     * @param value the value to insert
+     * @param comparator the order the array is sorted by, or null for natural order
+     * @return the index the value was inserted at
+     */
+    public int addSorted(J value, java.util.Comparator<? super J> comparator) {
+        java.util.Comparator<? super J> order = comparator != null ? comparator : naturalOrder();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(data[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        add(low, value);
+        return low;
+    }
+
+    /**
+     * Work on the index range [from, to) that produces one partial result.
+     */
+    private interface RangeBody<T> {
+        T apply(int from, int to);
+    }
+
+    /**
+     * Runs body over [0, size), directly when size is at most threshold and otherwise
+     * as a RangeTask on the ForkJoinPool (the current pool when called from one of its
+     * workers, the common pool otherwise).
+     */
+    private static <T> T inRanges(int size, int threshold, RangeBody<T> body, java.util.function.BinaryOperator<T> combiner) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold: " + threshold);
+        }
+        if (size <= threshold) {
+            return body.apply(0, size);
+        }
+        return new RangeTask<T>(0, size, threshold, body, combiner).invoke();
+    }
+
+    /**
+     * Splits an index range in half until the pieces are no larger than threshold,
+     * then runs the body on each piece and combines the results in index order.
+     */
+    private static final class RangeTask<T> extends java.util.concurrent.RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final RangeBody<T> body;
+        private final java.util.function.BinaryOperator<T> combiner;
+
+        RangeTask(int from, int to, int threshold, RangeBody<T> body, java.util.function.BinaryOperator<T> combiner) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= threshold) {
+                return body.apply(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask<T> left = new RangeTask<T>(from, mid, threshold, body, combiner);
+            left.fork();
+            T right = new RangeTask<T>(mid, to, threshold, body, combiner).compute();
+            return combiner.apply(left.join(), right);
+        }
     }
 
 
@@ -379,6 +1644,154 @@ public class DynamicArray<J> implements DynamicArrayADT<J> {
         return index >= lowIndex() && index <= highIndex();
     }
 
+    /**
+     * A zero-copy view of part of a DynamicArray, returned by sublistView.
+     * Until its first write it reads the parent's backing array at an offset;
+     * after that it works on a private copy held in `own`.
+     */
+    private static final class SublistView<J> implements DynamicArrayADT<J> {
+        private final DynamicArray<J> parent;
+        private final int offset;
+        private final int length;
+        private final int expectedModCount;
+        private DynamicArray<J> own;
+
+        SublistView(DynamicArray<J> parent, int offset, int length) {
+            this.parent = parent;
+            this.offset = offset;
+            this.length = length;
+            this.expectedModCount = parent.modCount;
+        }
+
+        private void checkForComodification() {
+            if (parent.modCount != expectedModCount) {
+                throw new java.util.ConcurrentModificationException(
+                        "DynamicArray was structurally modified after the view was created.");
+            }
+        }
+
+        /**
+         * Copies [from, to) of the viewed range into a new DynamicArray with one block copy.
+         */
+        private DynamicArray<J> copyRange(int from, int to) {
+            checkForComodification();
+            DynamicArray<J> copy = parent.derived(to - from);
+            System.arraycopy(parent.data, offset + from, copy.data, 0, to - from);
+            copy.size = to - from;
+            return copy;
+        }
+
+        /**
+         * Detaches the view from its parent on the first write.
+         */
+        private DynamicArray<J> materialize() {
+            if (own == null) {
+                own = copyRange(0, length);
+            }
+            return own;
+        }
+
+        @Override
+        public J get(int index) {
+            if (own != null) {
+                return own.get(index);
+            }
+            checkForComodification();
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+            }
+            return parent.data[offset + index];
+        }
+
+        @Override
+        public int size() {
+            if (own != null) {
+                return own.size();
+            }
+            checkForComodification();
+            return length;
+        }
+
+        @Override
+        public J set(int index, J value) {
+            return materialize().set(index, value);
+        }
+
+        @Override
+        public void add(int index, J value) {
+            materialize().add(index, value);
+        }
+
+        @Override
+        public void add(J value) {
+            materialize().add(value);
+        }
+
+        @Override
+        public J remove(int index) {
+            return materialize().remove(index);
+        }
+
+        @Override
+        public DynamicArray<J> append(DynamicArrayADT<J> other) {
+            if (own != null) {
+                return own.append(other);
+            }
+            DynamicArray<J> result = copyRange(0, length);
+            result.addAll(other);
+            return result;
+        }
+
+        @Override
+        public DynamicArrayADT<J> insert(int index, DynamicArrayADT<J> other) {
+            materialize().insert(index, other);
+            return this;
+        }
+
+        /**
+         * Returns a view of part of this view, still over the parent's storage when possible.
+         */
+        @Override
+        public DynamicArrayADT<J> sublist(int fromIndex, int toIndex) {
+            if (own != null) {
+                return own.sublistView(fromIndex, toIndex);
+            }
+            checkForComodification();
+            if (fromIndex < 0 || toIndex > length || fromIndex >= toIndex) {
+                throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+            }
+            return new SublistView<J>(parent, offset + fromIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public DynamicArray<J> delete(int fromIndex, int toIndex) {
+            if (own != null) {
+                return own.delete(fromIndex, toIndex);
+            }
+            if (fromIndex < 0 || toIndex > length || fromIndex >= toIndex) {
+                throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+            }
+            DynamicArray<J> result = copyRange(0, fromIndex);
+            result.addAll(copyRange(toIndex, length));
+            return result;
+        }
+
+        @Override
+        public DynamicArray<J> extract(int fromIndex, int toIndex) {
+            return materialize().extract(fromIndex, toIndex);
+        }
+
+        @Override
+        public DynamicArray<J> splitSuffix(int index) {
+            return materialize().splitSuffix(index);
+        }
+
+        @Override
+        public DynamicArray<J> splitPrefix(int index) {
+            return materialize().splitPrefix(index);
+        }
+    }
+
 }
 
 
@@ -52,6 +52,14 @@ public class DynamicArrayTests {
         }
     }
 
+    /**
+     * Compares both the size and the elements of a DynamicArray<Character> against a string.
+     */
+    public void compareAll(DynamicArray<Character> arr, String s) {
+        compareSize(arr, s);
+        compareToString(arr, s);
+    }
+
     // ~*~*~*~*~ Append Tests Below ~*~*~*~*~
 
     /**
@@ -163,6 +171,85 @@ public class DynamicArrayTests {
         assertEquals("square", arr.get(1));
     }
 
+    @Test
+    public void testCopyConstructorCopyOnWrite(){
+        // every kind of write on either side leaves the other side untouched
+        DynamicArray<Character> copy = new DynamicArray<Character>(a1);
+        copy.set(0, 'A');
+        compareAll(a1, "abcdef");
+        compareAll(copy, "Abcdef");
+
+        copy = new DynamicArray<Character>(a1);
+        a1.add(1, '+');
+        compareAll(copy, "abcdef");
+        compareAll(a1, "a+bcdef");
+
+        copy = new DynamicArray<Character>(a1);
+        copy.remove(0);
+        copy.add('!');
+        copy.extract(0, 2);
+        compareAll(a1, "a+bcdef");
+        compareAll(copy, "cdef!");
+
+        copy = new DynamicArray<Character>(a1);
+        copy.splitPrefix(2);
+        a1.splitSuffix(5);
+        compareAll(copy, "bcdef");
+        compareAll(a1, "a+bcd");
+
+        copy = new DynamicArray<Character>(a1);
+        copy.insert(0, a2);
+        compareAll(a1, "a+bcd");
+        compareAll(copy, "wxyza+bcd");
+    }
+
+    @Test
+    public void testSharedFunctionalResults(){
+        DynamicArray<Character> same = a1.append(empty);
+        DynamicArray<Character> prefix = a1.sublist(0, 3);
+        DynamicArray<Character> shortened = a1.delete(4, 6);
+        DynamicArray<Character> copyOfA2 = empty.append(a2);
+
+        prefix.add('!');
+        shortened.set(0, 'A');
+        same.remove(5);
+        copyOfA2.set(0, 'W');
+        compareAll(a1, "abcdef");
+        compareAll(a2, "wxyz");
+        compareAll(prefix, "abc!");
+        compareAll(shortened, "Abcd");
+        compareAll(same, "abcde");
+        compareAll(copyOfA2, "Wxyz");
+
+        a1.set(1, 'B');
+        compareAll(prefix, "abc!");
+        compareAll(shortened, "Abcd");
+    }
+
+    /**
+     * A short prefix result must not keep the rest of the source's storage or elements reachable.
+     */
+    @Test
+    public void testPrefixResultsDoNotPinSource() throws InterruptedException {
+        DynamicArray<Object> source = new DynamicArray<Object>();
+        for (int i = 0; i < 1000; i++) {
+            source.add(new Object());
+        }
+        DynamicArray<Object> prefix = source.sublist(0, 1);
+        DynamicArray<Object> shortened = source.delete(2, 1000);
+        assertEquals(1, prefix.capacity());
+        assertEquals(2, shortened.capacity());
+        java.lang.ref.WeakReference<Object> tail = new java.lang.ref.WeakReference<Object>(source.get(500));
+        source = null;
+        for (int i = 0; i < 50 && tail.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(tail.get());
+        assertEquals(1, prefix.size());
+        assertEquals(2, shortened.size());
+    }
+
     @Test 
     public void testConstructorSize(){
         DynamicArray<Integer> arr = new DynamicArray<Integer>(10);
@@ -223,6 +310,31 @@ public class DynamicArrayTests {
         assertEquals("mate", arr1.get(2));
     }
 
+    @Test
+    public void testInsertEnds(){
+        compareToString(stringToArray("abc").insert(0, a2), "wxyzabc");
+        compareToString(stringToArray("abc").insert(3, a2), "abcwxyz");
+        compareToString(a1.insert(2, empty), "abcdef");
+        compareToString(empty.insert(0, a2), "wxyz");
+    }
+
+    @Test
+    public void testInsertSelf(){
+        a1.insert(2, a1);
+        compareSize(a1, "ababcdefcdef");
+        compareToString(a1, "ababcdefcdef");
+    }
+
+    @Test
+    public void testAddAll(){
+        DynamicArray<Character> arr = new DynamicArray<Character>();
+        arr.addAll(a1);
+        arr.addAll(3, s);
+        compareSize(arr, "abcsdef");
+        compareToString(arr, "abcsdef");
+        compareToString(a1, "abcdef"); // other is not modified
+    }
+
     @Test 
     public void testSublist(){
         DynamicArray<String> arr = new DynamicArray<>(5);
@@ -237,6 +349,44 @@ public class DynamicArrayTests {
         assertEquals("is", sub.get(1));
     }
 
+    @Test
+    public void testSublistView(){
+        DynamicArrayADT<Character> view = a1.sublistView(1, 5);
+        assertEquals(4, view.size());
+        assertEquals((Character) 'b', view.get(0));
+        assertEquals((Character) 'e', view.get(3));
+        assertEquals((Character) 'c', view.sublist(1, 3).get(0));
+        compareToString((DynamicArray<Character>) view.append(a2), "bcdewxyz");
+        compareToString((DynamicArray<Character>) view.delete(1, 3), "be");
+
+        a1.set(2, 'C'); // non-structural changes show through
+        assertEquals((Character) 'C', view.get(1));
+    }
+
+    @Test
+    public void testSublistViewCopiesOnWrite(){
+        DynamicArrayADT<Character> view = a1.sublistView(0, 3);
+        view.set(0, 'A');
+        view.add('!');
+        assertEquals(4, view.size());
+        assertEquals((Character) 'A', view.get(0));
+        compareToString(a1, "abcdef");
+        a1.add('g'); // the view no longer depends on a1
+        assertEquals((Character) '!', view.get(3));
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testSublistViewFailFast(){
+        DynamicArrayADT<Character> view = a1.sublistView(0, 3);
+        a1.remove(0);
+        view.get(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSublistViewBounds(){
+        a1.sublistView(2, 4).get(2);
+    }
+
     @Test 
     public void testDelete(){
         DynamicArray<String> arr = new DynamicArray<>(5);
@@ -310,6 +460,37 @@ public class DynamicArrayTests {
         assertEquals("f", arr.get(2));
     }
 
+    @Test
+    public void testSplitEnds() {
+        compareToString(a1.splitPrefix(0), "");
+        compareToString(a1, "abcdef");
+        compareToString(a1.splitSuffix(6), "");
+        compareToString(a1, "abcdef");
+        compareToString(a2.splitPrefix(4), "wxyz");
+        compareSize(a2, "");
+    }
+
+    @Test
+    public void testSplitSteal() {
+        DynamicArray<Character> prefix = a1.splitPrefix(5, true);
+        compareSize(prefix, "abcde");
+        compareToString(prefix, "abcde");
+        compareSize(a1, "f");
+        compareToString(a1, "f");
+
+        DynamicArray<Character> suffix = a2.splitSuffix(1, true);
+        compareSize(suffix, "xyz");
+        compareToString(suffix, "xyz");
+        compareSize(a2, "w");
+        compareToString(a2, "w");
+
+        // both halves stay usable after handing over storage
+        prefix.add('g');
+        suffix.add(0, 'q');
+        compareToString(prefix, "abcdeg");
+        compareToString(suffix, "qxyz");
+    }
+
     @Test(expected = IndexOutOfBoundsException.class)
     public void testSplitSuffixNegativeIndex() {
         DynamicArray<String> arr = new DynamicArray<>(3);
@@ -372,38 +553,555 @@ public class DynamicArrayTests {
         assertTrue(arr.indexInRange(1));
         assertFalse(arr.indexInRange(2));
     }
-}
 
+    // ~*~*~*~*~ Bulk Operation Tests Below ~*~*~*~*~
+
+    @Test
+    public void testBulkOps(){
+        StringBuilder seen = new StringBuilder();
+        a1.forEach(c -> seen.append(c));
+        assertEquals("abcdef", seen.toString());
+        compareAll(a1.map(c -> Character.toUpperCase(c)), "ABCDEF");
+        assertEquals(2, a1.count(c -> c > 'd'));
+        assertEquals((Character) 'f', a1.reduce('a', (x, y) -> x > y ? x : y));
+        assertEquals((Character) '?', empty.reduce('?', (x, y) -> x));
+        a1.replaceAll(c -> (char) (c + 1));
+        compareAll(a1, "bcdefg");
+    }
+
+    @Test
+    public void testBulkOpsKeepCopiesApart(){
+        DynamicArray<Character> copy = new DynamicArray<Character>(a1);
+        copy.replaceAll(c -> '*');
+        compareAll(copy, "******");
+        compareAll(a1, "abcdef");
+    }
+
+    /**
+     * Runs each bulk operation split into small parallel ranges and checks it against a plain loop.
+     */
+    @Test
+    public void testParallelBulkOps(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        long expectedSum = 0;
+        int expectedEven = 0;
+        for (int i = 0; i < 100000; i++) {
+            arr.add(i);
+            expectedSum += i;
+            if (i % 2 == 0) {
+                expectedEven++;
+            }
+        }
+        java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+        arr.forEach(x -> sum.addAndGet(x), 1000);
+        assertEquals(expectedSum, sum.get());
+        assertEquals(expectedEven, arr.count(x -> x % 2 == 0, 1000));
+        assertEquals((Integer) 99999, arr.reduce(Integer.MIN_VALUE, Math::max, 1000));
+        DynamicArray<Long> squares = arr.map(x -> (long) x * x, 1000);
+        arr.replaceAll(x -> -x, 1000);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals((Long) ((long) i * i), squares.get(i));
+            assertEquals((Integer) (-i), arr.get(i));
+        }
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testBulkOpsFailFast(){
+        a1.forEach(c -> a1.add('x'));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBulkOpsThreshold(){
+        a1.count(c -> true, 0);
+    }
+
+    // ~*~*~*~*~ Iteration Tests Below ~*~*~*~*~
+
+    @Test
+    public void testIterator(){
+        StringBuilder seen = new StringBuilder();
+        for (Character c : a1) {
+            seen.append(c);
+        }
+        assertEquals("abcdef", seen.toString());
+        assertFalse(empty.iterator().hasNext());
+
+        java.util.Iterator<Character> it = a1.iterator();
+        while (it.hasNext()) {
+            if (it.next() < 'd') {
+                it.remove();
+            }
+        }
+        compareAll(a1, "def");
+    }
+
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testIteratorFailFast(){
+        java.util.Iterator<Character> it = a1.iterator();
+        it.next();
+        a1.add('g');
+        it.next();
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testIteratorPastEnd(){
+        empty.iterator().next();
+    }
 
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice(){
+        java.util.Iterator<Character> it = a1.iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
 
+    @Test
+    public void testSpliterator(){
+        java.util.Spliterator<Character> right = a1.spliterator();
+        assertTrue(right.hasCharacteristics(java.util.Spliterator.SIZED | java.util.Spliterator.SUBSIZED
+                | java.util.Spliterator.ORDERED));
+        java.util.Spliterator<Character> left = right.trySplit();
+        assertEquals(3, left.estimateSize());
+        assertEquals(3, right.estimateSize());
+        StringBuilder seen = new StringBuilder();
+        left.forEachRemaining(seen::append);
+        while (right.tryAdvance(seen::append)) {
+        }
+        assertEquals("abcdef", seen.toString());
+        assertNull(s.spliterator().trySplit());
+    }
 
+    @Test
+    public void testStreams(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        long expected = 0;
+        for (int i = 0; i < 100000; i++) {
+            arr.add(i);
+            expected += i;
+        }
+        assertEquals(expected, arr.stream().mapToLong(x -> x).sum());
+        assertEquals(expected, arr.parallelStream().mapToLong(x -> x).sum());
+        assertEquals("abcdef", a1.stream().map(String::valueOf).collect(java.util.stream.Collectors.joining()));
+        assertEquals(java.util.Arrays.asList(99998, 99999),
+                arr.parallelStream().skip(99998).collect(java.util.stream.Collectors.toList()));
+    }
 
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testStreamFailFast(){
+        a1.stream().forEach(c -> a1.remove(0));
+    }
 
+    // ~*~*~*~*~ Growth Policy Tests Below ~*~*~*~*~
 
+    @Test
+    public void testGrowthPolicies(){
+        DynamicArray<Integer> doubling = new DynamicArray<Integer>();
+        doubling.add(1);
+        assertEquals(GrowthPolicy.MIN_CAPACITY, doubling.capacity());
+        for (int i = 1; i < 9; i++) {
+            doubling.add(i);
+        }
+        assertEquals(16, doubling.capacity());
+
+        DynamicArray<Integer> oneAndHalf = new DynamicArray<Integer>(16, GrowthPolicy.ONE_AND_A_HALF);
+        DynamicArray<Integer> chunks = new DynamicArray<Integer>(0, GrowthPolicy.chunks(100));
+        DynamicArray<Integer> custom = new DynamicArray<Integer>(0, (capacity, min) -> min);
+        for (int i = 0; i < 17; i++) {
+            oneAndHalf.add(i);
+            chunks.add(i);
+            custom.add(i);
+        }
+        assertEquals(24, oneAndHalf.capacity());
+        assertEquals(100, chunks.capacity());
+        assertEquals(17, custom.capacity());
+        assertEquals(16, custom.get(16).intValue());
+    }
 
+    /**
+     * Fills an array to capacity and checks that one more add grows it by a 100-slot chunk.
+     */
+    public void assertGrowsByChunk(DynamicArray<Integer> arr){
+        int capacity = arr.capacity();
+        while (arr.size() < capacity) {
+            arr.add(0);
+        }
+        arr.add(0);
+        assertEquals(capacity + 100, arr.capacity());
+    }
 
+    /**
+     * Every Group 3 result keeps the growth policy of the array it came from, whichever
+     * way it was built.
+     */
+    @Test
+    public void testResultsKeepGrowthPolicy(){
+        DynamicArray<Integer> chunked = new DynamicArray<Integer>(0, GrowthPolicy.chunks(100));
+        for (int i = 0; i < 50; i++) {
+            chunked.add(i);
+        }
+        DynamicArray<Integer> plain = new DynamicArray<Integer>();
+        plain.add(1);
+        assertGrowsByChunk(chunked.append(plain));
+        assertGrowsByChunk(chunked.append(new DynamicArray<Integer>()));
+        assertGrowsByChunk(new DynamicArray<Integer>(0, GrowthPolicy.chunks(100)).append(plain));
+        assertGrowsByChunk(chunked.delete(0, 10));
+        assertGrowsByChunk(chunked.sublist(0, 10));
+        assertGrowsByChunk(chunked.extract(0, 5));
+        assertGrowsByChunk(chunked.splitSuffix(40, false));
+        assertGrowsByChunk(chunked.splitPrefix(5, false));
+        assertGrowsByChunk(chunked.splitSuffix(20, true));
+        assertGrowsByChunk(chunked.splitPrefix(10, true));
+    }
 
+    @Test(expected = IllegalStateException.class)
+    public void testGrowthPolicyTooSmall(){
+        new DynamicArray<Integer>(0, (capacity, min) -> capacity).add(1);
+    }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunksNotPositive(){
+        GrowthPolicy.chunks(0);
+    }
 
+    @Test
+    public void testEnsureCapacityAndTrim(){
+        DynamicArray<Character> arr = stringToArray("abc");
+        arr.ensureCapacity(1000);
+        assertEquals(1000, arr.capacity());
+        arr.trimToSize();
+        assertEquals(3, arr.capacity());
+        compareToString(arr, "abc");
+        DynamicArray<Character> copy = new DynamicArray<Character>(arr);
+        arr.ensureCapacity(10);
+        arr.set(0, 'x');
+        compareToString(copy, "abc");
+        compareToString(arr, "xbc");
+    }
 
+    @Test
+    public void testDefaultNeverShrinks(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            arr.add(i);
+        }
+        int peak = arr.capacity();
+        arr.extract(0, 999);
+        assertEquals(peak, arr.capacity());
+    }
 
+    /**
+     * Shrinks once a quarter full, to half full, so a size moving back and forth
+     * across a growth boundary does not reallocate every time.
+     */
+    @Test
+    public void testShrinkingWithHysteresis(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>(0, GrowthPolicy.DOUBLING.withShrinking());
+        for (int i = 0; i < 1024; i++) {
+            arr.add(i);
+        }
+        assertEquals(1024, arr.capacity());
+        arr.extract(0, 768);
+        assertEquals(1024, arr.capacity());
+        arr.remove(0);
+        assertEquals(510, arr.capacity());
+        for (int i = 0; i < 100; i++) {
+            arr.add(i);
+            arr.remove(arr.size() - 1);
+        }
+        assertEquals(510, arr.capacity());
+        arr.splitSuffix(0);
+        assertEquals(GrowthPolicy.MIN_CAPACITY, arr.capacity());
+        assertEquals(0, arr.size());
 
+        DynamicArray<Integer> other = new DynamicArray<Integer>(0, GrowthPolicy.DOUBLING.withShrinking());
+        for (int i = 0; i < 100; i++) {
+            other.add(i);
+        }
+        java.util.Iterator<Integer> it = other.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 10 != 0) {
+                it.remove();
+            }
+        }
+        assertEquals(10, other.size());
+        assertEquals(90, other.get(9).intValue());
+        assertTrue(other.capacity() < 128);
+    }
 
+    // ~*~*~*~*~ Sorting Tests Below ~*~*~*~*~
 
+    /**
+     * Lists the elements as "[a, b, c]".
+     */
+    private static String contents(DynamicArray<?> arr){
+        java.util.StringJoiner joined = new java.util.StringJoiner(", ", "[", "]");
+        for (int i = 0; i < arr.size(); i++) {
+            joined.add(String.valueOf(arr.get(i)));
+        }
+        return joined.toString();
+    }
 
+    @Test
+    public void testSortNaturalAndComparator(){
+        DynamicArray<String> arr = new DynamicArray<String>();
+        for (String s : new String[] {"pear", "fig", "apple", "kiwi", "banana"}) {
+            arr.add(s);
+        }
+        arr.sort(null);
+        assertEquals("[apple, banana, fig, kiwi, pear]", contents(arr));
+        arr.sort(java.util.Comparator.comparing(String::length));
+        assertEquals("[fig, kiwi, pear, apple, banana]", contents(arr));
+        arr.sort(java.util.Comparator.reverseOrder());
+        assertEquals("[pear, kiwi, fig, banana, apple]", contents(arr));
+
+        DynamicArray<String> empty = new DynamicArray<String>();
+        empty.sort(null);
+        assertEquals(0, empty.size());
+    }
 
+    /**
+     * The parallel merge must agree with a sequential stable sort, ties included.
+     */
+    @Test
+    public void testParallelSortIsStable(){
+        java.util.Random random = new java.util.Random(42);
+        DynamicArray<int[]> arr = new DynamicArray<int[]>();
+        java.util.List<int[]> expected = new java.util.ArrayList<int[]>();
+        for (int i = 0; i < 10_000; i++) {
+            int[] pair = {random.nextInt(100), i};
+            arr.add(pair);
+            expected.add(pair);
+        }
+        java.util.Comparator<int[]> byKey = java.util.Comparator.comparingInt(pair -> pair[0]);
+        expected.sort(byKey);
+        arr.sort(byKey, 300);
+        assertEquals(expected.size(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertSame(expected.get(i), arr.get(i));
+        }
 
+        DynamicArray<Integer> sorted = new DynamicArray<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            sorted.add(i);
+        }
+        sorted.sort(null, 7);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, sorted.get(i).intValue());
+        }
+    }
 
+    @Test
+    public void testSortLeavesCopyAlone(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        for (int i = 10; i > 0; i--) {
+            arr.add(i);
+        }
+        DynamicArray<Integer> copy = new DynamicArray<Integer>(arr);
+        arr.sort(null, 3);
+        assertEquals(1, arr.get(0).intValue());
+        assertEquals(10, copy.get(0).intValue());
+    }
 
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testSortInvalidatesIterator(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.add(2);
+        arr.add(1);
+        java.util.Iterator<Integer> it = arr.iterator();
+        arr.sort(null);
+        it.next();
+    }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortBadThreshold(){
+        new DynamicArray<Integer>().sort(null, 0);
+    }
 
+    @Test
+    public void testBinarySearch(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        for (int i = 0; i < 20; i += 2) {
+            arr.add(i);
+        }
+        arr.add(100);
+        arr.remove(arr.size() - 1);
+        assertEquals(3, arr.binarySearch(6, null));
+        assertEquals(0, arr.binarySearch(0, null));
+        assertEquals(-1, arr.binarySearch(-5, null));
+        assertEquals(-4, arr.binarySearch(5, null));
+        // past the end, not into the unused slot that held 100
+        assertEquals(-11, arr.binarySearch(100, null));
+        assertEquals(-1, new DynamicArray<Integer>().binarySearch(1, null));
+        arr.sort(java.util.Comparator.reverseOrder());
+        assertEquals(6, arr.binarySearch(6, java.util.Comparator.reverseOrder()));
+    }
 
+    @Test
+    public void testAddSorted(){
+        DynamicArray<String> arr = new DynamicArray<String>(0);
+        java.util.Comparator<String> byLength = java.util.Comparator.comparing(String::length);
+        assertEquals(0, arr.addSorted("ccc", byLength));
+        assertEquals(0, arr.addSorted("a", byLength));
+        assertEquals(2, arr.addSorted("eeeee", byLength));
+        // equal elements go after the ones already there
+        assertEquals(2, arr.addSorted("ddd", byLength));
+        assertEquals(1, arr.addSorted("b", byLength));
+        assertEquals("[a, b, ccc, ddd, eeeee]", contents(arr));
+
+        DynamicArray<Integer> numbers = new DynamicArray<Integer>();
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < 500; i++) {
+            numbers.addSorted(random.nextInt(50), null);
+        }
+        for (int i = 1; i < numbers.size(); i++) {
+            assertTrue(numbers.get(i - 1) <= numbers.get(i));
+        }
+        assertEquals(500, numbers.size());
+    }
 
+    // ~*~*~*~*~ Edit Batch Tests Below ~*~*~*~*~
 
+    @Test
+    public void testEditBatch(){
+        DynamicArray<String> arr = new DynamicArray<String>();
+        for (String x : "a b c d e f g".split(" ")) {
+            arr.add(x);
+        }
+        DynamicArray<String> other = new DynamicArray<String>();
+        other.add("X");
+        other.add("Y");
+        DynamicArray<String> result = arr.edit()
+                .replace(6, "G")
+                .insert(2, "1")
+                .remove(4)
+                .insert(2, "2")
+                .insertAll(7, other)
+                .replace(0, 2, other)
+                .insert(0, "0")
+                .commit();
+        assertSame(arr, result);
+        assertEquals("[0, X, Y, 1, 2, c, d, f, G, X, Y]", contents(arr));
+    }
 
+    @Test
+    public void testEditBatchMatchesOneAtATime(){
+        java.util.Random random = new java.util.Random(11);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(40);
+            DynamicArray<Integer> arr = new DynamicArray<Integer>(0);
+            java.util.List<Integer> expected = new java.util.ArrayList<Integer>();
+            for (int i = 0; i < n; i++) {
+                arr.add(i);
+                expected.add(i);
+            }
+            DynamicArray<Integer>.EditBatch batch = arr.edit();
+            // distinct positions, applied to the list from the back so earlier indices hold
+            for (int i = n; i >= 0; i--) {
+                int op = random.nextInt(4);
+                if (op == 1) {
+                    batch.insert(i, -i);
+                    expected.add(i, -i);
+                } else if (op == 2 && i < n) {
+                    batch.remove(i);
+                    expected.remove(i);
+                } else if (op == 3 && i < n) {
+                    batch.replace(i, 1000 + i);
+                    expected.set(i, 1000 + i);
+                }
+            }
+            batch.commit();
+            assertEquals(expected.size(), arr.size());
+            for (int i = 0; i < arr.size(); i++) {
+                assertEquals(expected.get(i), arr.get(i));
+            }
+        }
+    }
 
+    @Test
+    public void testEditBatchReplaceOnlyLeavesCopyAlone(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        for (int i = 0; i < 5; i++) {
+            arr.add(i);
+        }
+        DynamicArray<Integer> copy = new DynamicArray<Integer>(arr);
+        java.util.Iterator<Integer> it = arr.iterator();
+        arr.edit().replace(1, 10).replace(3, 30).commit();
+        assertEquals("[0, 10, 2, 30, 4]", contents(arr));
+        assertEquals("[0, 1, 2, 3, 4]", contents(copy));
+        assertEquals(0, it.next().intValue()); // same size, so the iterator is still valid
+        assertEquals(0, arr.edit().commit().size() - 5);
+    }
 
+    @Test
+    public void testEditBatchOverlap(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        for (int i = 0; i < 10; i++) {
+            arr.add(i);
+        }
+        try {
+            arr.edit().remove(2, 5).replace(4, -1).commit();
+            fail("overlapping ranges");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            arr.edit().remove(2, 5).insert(3, -1).commit();
+            fail("insert inside a removed range");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(10, arr.size());
+        arr.edit().remove(2, 5).insert(2, -1).insert(5, -2).commit();
+        assertEquals("[0, 1, -1, -2, 5, 6, 7, 8, 9]", contents(arr));
+    }
 
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testEditBatchOutOfBounds(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.add(1);
+        arr.edit().insert(1, 2).remove(1);
+    }
 
+    @Test(expected = IllegalStateException.class)
+    public void testEditBatchCommitTwice(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.add(1);
+        DynamicArray<Integer>.EditBatch batch = arr.edit().insert(0, 0);
+        batch.commit();
+        batch.commit();
+    }
 
+    @Test(expected = java.util.ConcurrentModificationException.class)
+    public void testEditBatchAfterModification(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.add(1);
+        DynamicArray<Integer>.EditBatch batch = arr.edit().insert(0, 0);
+        arr.add(2);
+        batch.commit();
+    }
 
+    @Test
+    public void testEditBatchGrowsOnce(){
+        DynamicArray<Integer> arr = new DynamicArray<Integer>(4);
+        for (int i = 0; i < 4; i++) {
+            arr.add(i);
+        }
+        ArrayMetrics metrics = new ArrayMetrics();
+        arr.setMetrics(metrics);
+        DynamicArray<Integer>.EditBatch batch = arr.edit();
+        for (int i = 0; i < 100; i++) {
+            batch.insert(i % 5, i);
+        }
+        assertEquals(100, batch.size());
+        batch.commit();
+        assertEquals(104, arr.size());
+        assertEquals(104, metrics.elementsCopied());
+        assertEquals(1, metrics.latency(ArrayMetrics.Op.EDIT).count());
+        assertEquals(0, arr.get(0).intValue());
+        assertEquals(5, arr.get(1).intValue());
+        // inserts at size() land after the last original element
+        assertEquals(3, arr.get(83).intValue());
+        assertEquals(99, arr.get(103).intValue());
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Reads and writes elements of one type as a fixed number of bytes, so they can be
+ * stored in raw memory instead of as objects. Used by OffHeapDynamicArray.
+ *
+ * A codec for a user-defined struct packs its fields one after another, for example
+ * an (int x, int y) point as 8 bytes with x at offset and y at offset + 4.
+ * @param <J> the type of elements encoded
+ */
+public interface ElementCodec<J> {
+
+    /**
+     * Returns the number of bytes each element takes.
+     * @return the element width in bytes, at least 1
+     */
+    int width();
+
+    /**
+     * Reads the element stored at a byte offset.
+     * @param buffer the buffer to read from
+     * @param offset the byte offset of the element
+     * @return the decoded element
+     */
+    J read(java.nio.ByteBuffer buffer, int offset);
+
+    /**
+     * Writes an element at a byte offset, using exactly width() bytes.
+     * @param buffer the buffer to write to
+     * @param offset the byte offset of the element
+     * @param value the element to encode
+     * @throws NullPointerException if value is null and the codec has no encoding for it
+     */
+    void write(java.nio.ByteBuffer buffer, int offset, J value);
+
+    /**
+     * Stores Integer elements as 4-byte ints.
+     */
+    ElementCodec<Integer> INTS = new ElementCodec<Integer>() {
+        public int width() {
+            return 4;
+        }
+
+        public Integer read(java.nio.ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+
+        public void write(java.nio.ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+    };
+
+    /**
+     * Stores Long elements as 8-byte longs.
+     */
+    ElementCodec<Long> LONGS = new ElementCodec<Long>() {
+        public int width() {
+            return 8;
+        }
+
+        public Long read(java.nio.ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+
+        public void write(java.nio.ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+    };
+
+    /**
+     * Stores Double elements as 8-byte doubles.
+     */
+    ElementCodec<Double> DOUBLES = new ElementCodec<Double>() {
+        public int width() {
+            return 8;
+        }
+
+        public Double read(java.nio.ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+
+        public void write(java.nio.ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+    };
+
+    /**
+     * Stores Character elements as 2-byte chars.
+     */
+    ElementCodec<Character> CHARS = new ElementCodec<Character>() {
+        public int width() {
+            return 2;
+        }
+
+        public Character read(java.nio.ByteBuffer buffer, int offset) {
+            return buffer.getChar(offset);
+        }
+
+        public void write(java.nio.ByteBuffer buffer, int offset, Character value) {
+            buffer.putChar(offset, value);
+        }
+    };
+}
@@ -0,0 +1,384 @@
+/**
+ * A dynamic array that keeps a movable gap of free slots inside its storage.
+ * Inserting or removing at the gap is O(1), and moving the gap costs only the
+ * distance it travels, so edits that cluster around a cursor stay cheap.
+ *
+ * Elements [0, gapStart) sit before the gap and [gapEnd, data.length) after it.
+ */
+public class GapBufferArray<J> implements DynamicArrayADT<J> {
+    private J[] data;
+    private int gapStart;
+    private int gapEnd;
+
+    /**
+     * Allocates a new array of the given length.
+     * @param len the length of the new array
+     * @return the new array
+     */
+    @SuppressWarnings("unchecked")
+    private J[] allocate(int len) {
+        return (J[]) new Object[len];
+    }
+
+    /**
+     * Constructs an empty GapBufferArray with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public GapBufferArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        data = allocate(initialCapacity);
+        gapStart = 0;
+        gapEnd = initialCapacity;
+    }
+
+    /**
+     * Constructs an empty GapBufferArray with default initial capacity (0).
+     */
+    public GapBufferArray() {
+        this(0);
+    }
+
+    /**
+     * Constructs a GapBufferArray holding the elements of another array, with the gap at the end.
+     * @param other the array to copy
+     */
+    public GapBufferArray(DynamicArrayADT<J> other) {
+        this(other.size());
+        for (int i = 0; i < other.size(); i++) {
+            data[i] = other.get(i);
+        }
+        gapStart = other.size();
+    }
+
+    /**
+     * Returns a DynamicArray holding the same elements.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<J> toDynamicArray() {
+        DynamicArray<J> result = new DynamicArray<J>(size());
+        result.addAll(this);
+        return result;
+    }
+
+    private int gapLength() {
+        return gapEnd - gapStart;
+    }
+
+    /**
+     * Maps a logical index to its slot in the backing array.
+     */
+    private int slot(int index) {
+        return index < gapStart ? index : index + gapLength();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    /**
+     * Moves the gap so that it starts at the given logical index, using one block move.
+     * @param index the new gap position
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(data, index, data, gapEnd - count, count);
+            clear(index, Math.min(gapStart, gapEnd - count));
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(data, gapEnd, data, gapStart, count);
+            clear(Math.max(gapEnd, index), gapEnd + count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Makes sure the gap has room for at least the given number of elements,
+     * growing the backing array (at least doubling it) when it does not.
+     * @param needed the number of free slots required
+     */
+    private void ensureGap(int needed) {
+        if (gapLength() >= needed) {
+            return;
+        }
+        int size = size();
+        int newCapacity = data.length == 0 ? 1 : data.length * 2;
+        if (newCapacity < size + needed) {
+            newCapacity = size + needed;
+        }
+        J[] newData = allocate(newCapacity);
+        int tail = data.length - gapEnd;
+        System.arraycopy(data, 0, newData, 0, gapStart);
+        System.arraycopy(data, gapEnd, newData, newCapacity - tail, tail);
+        data = newData;
+        gapEnd = newCapacity - tail;
+    }
+
+    /**
+     * Nulls out the slots [fromIndex, toIndex) so removed elements can be garbage collected.
+     */
+    private void clear(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            data[i] = null;
+        }
+    }
+
+    /**
+     * Copies the logical range [fromIndex, toIndex) into dest, splitting the copy around the gap.
+     */
+    private void copyOut(int fromIndex, int toIndex, Object[] dest, int destPos) {
+        int beforeGap = Math.max(0, Math.min(toIndex, gapStart) - fromIndex);
+        if (beforeGap > 0) {
+            System.arraycopy(data, fromIndex, dest, destPos, beforeGap);
+        }
+        int rest = toIndex - fromIndex - beforeGap;
+        if (rest > 0) {
+            System.arraycopy(data, slot(fromIndex + beforeGap), dest, destPos + beforeGap, rest);
+        }
+    }
+
+    /**
+     * Builds a GapBufferArray from the logical ranges [0, fromIndex) and [toIndex, size()).
+     */
+    private GapBufferArray<J> copyWithout(int fromIndex, int toIndex) {
+        int size = size();
+        GapBufferArray<J> result = new GapBufferArray<J>(size - (toIndex - fromIndex));
+        copyOut(0, fromIndex, result.data, 0);
+        copyOut(toIndex, size, result.data, fromIndex);
+        result.gapStart = result.data.length;
+        return result;
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J get(int index) {
+        checkIndex(index);
+        return data[slot(index)];
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J set(int index, J value) {
+        checkIndex(index);
+        int slot = slot(index);
+        J oldValue = data[slot];
+        data[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements currently stored in the array.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return data.length - gapLength();
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the specified value at the given index. The gap is moved there first,
+     * so consecutive inserts at or next to the same position only move a few elements.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public void add(int index, J value) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        moveGap(index);
+        ensureGap(1);
+        data[gapStart++] = value;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     */
+    @Override
+    public void add(J value) {
+        add(size(), value);
+    }
+
+    /**
+     * Removes and returns the element at the specified index by moving the gap
+     * there and widening it over the element.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J remove(int index) {
+        checkIndex(index);
+        moveGap(index);
+        J removedValue = data[gapEnd];
+        data[gapEnd++] = null;
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new GapBufferArray that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    @Override
+    public GapBufferArray<J> append(DynamicArrayADT<J> other) {
+        int size = size();
+        GapBufferArray<J> result = new GapBufferArray<J>(size + other.size());
+        copyOut(0, size, result.data, 0);
+        for (int i = 0; i < other.size(); i++) {
+            result.data[size + i] = other.get(i);
+        }
+        result.gapStart = result.data.length;
+        return result;
+    }
+
+    /**
+     * Inserts all elements from another array into this one at the specified index.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public GapBufferArray<J> insert(int index, DynamicArrayADT<J> other) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int count = other.size();
+        Object[] source = new Object[count];
+        if (other instanceof GapBufferArray) {
+            GapBufferArray<J> gapOther = (GapBufferArray<J>) other;
+            gapOther.copyOut(0, count, source, 0);
+        } else {
+            for (int i = 0; i < count; i++) {
+                source[i] = other.get(i);
+            }
+        }
+        moveGap(index);
+        ensureGap(count);
+        System.arraycopy(source, 0, data, gapStart, count);
+        gapStart += count;
+        return this;
+    }
+
+    /**
+     * Returns a new array containing the elements in the range [fromIndex, toIndex).
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public GapBufferArray<J> sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        GapBufferArray<J> result = new GapBufferArray<J>(toIndex - fromIndex);
+        copyOut(fromIndex, toIndex, result.data, 0);
+        result.gapStart = result.data.length;
+        return result;
+    }
+
+    /**
+     * Returns a new array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public GapBufferArray<J> delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return copyWithout(fromIndex, toIndex);
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * The gap is moved to fromIndex and widened over the range.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public GapBufferArray<J> extract(int fromIndex, int toIndex) {
+        GapBufferArray<J> result = sublist(fromIndex, toIndex);
+        moveGap(fromIndex);
+        int count = toIndex - fromIndex;
+        clear(gapEnd, gapEnd + count);
+        gapEnd += count;
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public GapBufferArray<J> splitSuffix(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        moveGap(index);
+        int count = data.length - gapEnd;
+        GapBufferArray<J> suffix = new GapBufferArray<J>(count);
+        System.arraycopy(data, gapEnd, suffix.data, 0, count);
+        suffix.gapStart = count;
+        clear(gapEnd, data.length);
+        gapEnd = data.length;
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public GapBufferArray<J> splitPrefix(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        moveGap(index);
+        GapBufferArray<J> prefix = new GapBufferArray<J>(index);
+        System.arraycopy(data, 0, prefix.data, 0, index);
+        prefix.gapStart = index;
+        clear(0, gapStart);
+        gapStart = 0;
+        return prefix;
+    }
+}
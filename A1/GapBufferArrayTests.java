@@ -0,0 +1,129 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GapBufferArrayTests {
+
+    private GapBufferArray<Character> a1;
+    private GapBufferArray<Character> a2;
+    private GapBufferArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = stringToArray("abcdef");
+        a2 = stringToArray("wxyz");
+        empty = stringToArray("");
+    }
+
+    /**
+     * Puts the characters of a string into a GapBufferArray.
+     */
+    public GapBufferArray<Character> stringToArray(String s) {
+        GapBufferArray<Character> result = new GapBufferArray<Character>(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            result.add(i, s.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    @Test
+    public void testCursorEdits() {
+        a1.add(3, '1');
+        a1.add(4, '2');
+        a1.add(5, '3');
+        compareToString(a1, "abc123def");
+        assertEquals((Character) '3', a1.remove(5));
+        a1.add(0, '<');
+        a1.add('>');
+        compareToString(a1, "<abc12def>");
+        assertEquals((Character) 'd', a1.set(6, 'D'));
+        assertEquals((Character) 'D', a1.get(6));
+    }
+
+    @Test
+    public void testBackspace() {
+        for (int i = a1.size() - 1; i >= 2; i--) {
+            a1.remove(i);
+        }
+        compareToString(a1, "ab");
+        a1.remove(0);
+        a1.remove(0);
+        compareToString(a1, "");
+        a1.add('q');
+        compareToString(a1, "q");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRemoveBounds() {
+        a1.remove(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddBounds() {
+        a1.add(-1, 'x');
+    }
+
+    @Test
+    public void testAppend() {
+        a1.add(2, '_'); // leave the gap in the middle
+        compareToString(a1.append(a2), "ab_cdefwxyz");
+        compareToString(a2.append(a2), "wxyzwxyz");
+        compareToString(empty.append(empty), "");
+        compareToString(a1, "ab_cdef");
+    }
+
+    @Test
+    public void testInsert() {
+        a1.add(1, '_');
+        compareToString(a1.insert(4, a2), "a_bcwxyzdef");
+        compareToString(a2.insert(2, a2), "wxwxyzyz");
+        compareToString(empty.insert(0, new DynamicArray<Character>()), "");
+    }
+
+    @Test
+    public void testSublistDeleteExtract() {
+        a1.add(3, '_');
+        compareToString(a1.sublist(1, 6), "bc_de");
+        compareToString(a1.delete(2, 5), "abef");
+        compareToString(a1, "abc_def");
+        compareToString(a1.extract(2, 5), "c_d");
+        compareToString(a1, "abef");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testExtractBounds() {
+        a1.extract(3, 3);
+    }
+
+    @Test
+    public void testSplit() {
+        a1.add(5, '_');
+        compareToString(a1.splitPrefix(2), "ab");
+        compareToString(a1, "cde_f");
+        compareToString(a1.splitSuffix(1), "de_f");
+        compareToString(a1, "c");
+        a1.add(0, 'b');
+        compareToString(a1, "bc");
+    }
+
+    @Test
+    public void testConvert() {
+        a1.add(2, '_');
+        DynamicArray<Character> plain = a1.toDynamicArray();
+        assertEquals(7, plain.size());
+        compareToString(new GapBufferArray<Character>(plain), "ab_cdef");
+    }
+}
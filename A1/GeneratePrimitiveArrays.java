@@ -0,0 +1,37 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates CharDynamicArray, IntDynamicArray and LongDynamicArray from
+ * PrimitiveDynamicArray.template so the three stay in sync.
+ * Run from this directory after editing the template:
+ *
+ *   javac GeneratePrimitiveArrays.java
+ *   java -cp . GeneratePrimitiveArrays
+ */
+public class GeneratePrimitiveArrays {
+
+    // {Type, type, Boxed}
+    private static final String[][] TYPES = {
+        {"Char", "char", "Character"},
+        {"Int", "int", "Integer"},
+        {"Long", "long", "Long"},
+    };
+
+    public static void main(String[] args) throws IOException {
+        Path template = Paths.get("PrimitiveDynamicArray.template");
+        String source = new String(Files.readAllBytes(template), StandardCharsets.UTF_8);
+        for (String[] t : TYPES) {
+            String out = source
+                    .replace("$Type$", t[0])
+                    .replace("$type$", t[1])
+                    .replace("$Boxed$", t[2]);
+            Path target = Paths.get(t[0] + "DynamicArray.java");
+            Files.write(target, out.getBytes(StandardCharsets.UTF_8));
+            System.out.println("Wrote " + target);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Decides how a DynamicArray's backing array grows when it is full and, optionally,
+ * when it shrinks after elements are removed.
+ *
+ * A caller-supplied policy can be written as a lambda for grow alone, which never
+ * shrinks, or as a class that also overrides shrink. withShrinking adds shrinking
+ * with hysteresis to any policy.
+ */
+public interface GrowthPolicy {
+
+    /**
+     * The largest capacity handed out. Some VMs reserve a few header words in an array.
+     */
+    int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * The capacity an empty array grows to at first, so the first few adds do not each reallocate.
+     */
+    int MIN_CAPACITY = 8;
+
+    /**
+     * Returns the new capacity for a full backing array.
+     * @param capacity the current capacity
+     * @param minCapacity the number of elements that must fit, greater than capacity
+     * @return the new capacity, at least minCapacity
+     */
+    int grow(int capacity, int minCapacity);
+
+    /**
+     * Returns the capacity to shrink to after elements were removed. The default never shrinks.
+     * @param capacity the current capacity
+     * @param size the number of elements now in use
+     * @return the new capacity, between size and capacity; capacity to leave it alone
+     */
+    default int shrink(int capacity, int size) {
+        return capacity;
+    }
+
+    /**
+     * Returns this policy, shrinking to twice the size once less than a quarter of the
+     * capacity is in use. The gap between the two thresholds is the hysteresis: right
+     * after a shrink the array is half full, so it takes as many adds to grow again as
+     * it takes removes to shrink again, and a size moving back and forth across one
+     * boundary never reallocates over and over.
+     * @return a policy that grows like this one and also shrinks
+     */
+    default GrowthPolicy withShrinking() {
+        GrowthPolicy growth = this;
+        return new GrowthPolicy() {
+            public int grow(int capacity, int minCapacity) {
+                return growth.grow(capacity, minCapacity);
+            }
+
+            public int shrink(int capacity, int size) {
+                if (capacity <= MIN_CAPACITY || size >= capacity / 4) {
+                    return capacity;
+                }
+                return Math.max(size * 2, MIN_CAPACITY);
+            }
+        };
+    }
+
+    /**
+     * Doubles the capacity, starting at MIN_CAPACITY. This is the default.
+     */
+    GrowthPolicy DOUBLING = (capacity, minCapacity) -> clamp((long) capacity * 2, minCapacity);
+
+    /**
+     * Grows by half the capacity, starting at MIN_CAPACITY. Wastes at most a third of
+     * the array instead of half, for about 70% more reallocations.
+     */
+    GrowthPolicy ONE_AND_A_HALF = (capacity, minCapacity) -> clamp(capacity + (long) (capacity >> 1), minCapacity);
+
+    /**
+     * Returns a policy that grows by a fixed number of slots at a time. Waste is bounded
+     * by the chunk, but appending n elements copies O(n^2 / chunk) of them.
+     * @param chunk the number of slots to add each time
+     * @return the additive policy
+     * @throws IllegalArgumentException if chunk is not positive
+     */
+    static GrowthPolicy chunks(int chunk) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException("Chunk: " + chunk);
+        }
+        return (capacity, minCapacity) -> clamp((long) capacity + chunk, minCapacity);
+    }
+
+    /**
+     * Rounds a wanted capacity up to minCapacity and MIN_CAPACITY and down to MAX_CAPACITY.
+     * @throws OutOfMemoryError if minCapacity itself is past MAX_CAPACITY
+     */
+    private static int clamp(long wanted, int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array size too large");
+        }
+        return (int) Math.max(Math.min(wanted, MAX_CAPACITY), Math.max(minCapacity, MIN_CAPACITY));
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * GENERATED FILE - do not edit by hand.
+ * Edit PrimitiveDynamicArray.template and run: java -cp . GeneratePrimitiveArrays
+ */
+
+/**
+ * A dynamic array of long values stored in a long[] with no boxing.
+ * It has the same operations as DynamicArrayADT, specialized to long.
+ */
+public class LongDynamicArray {
+    private long[] data;
+    private int size;
+
+    /**
+     * Constructs an empty LongDynamicArray with the specified initial capacity.
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public LongDynamicArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        data = new long[initialCapacity];
+        size = 0;
+    }
+
+    /**
+     * Constructs an empty LongDynamicArray with default initial capacity (0).
+     */
+    public LongDynamicArray() {
+        this(0);
+    }
+
+    /**
+     * Constructs a LongDynamicArray as a copy of another one.
+     * @param other the LongDynamicArray to copy
+     */
+    public LongDynamicArray(LongDynamicArray other) {
+        data = new long[other.data.length];
+        size = other.size;
+        System.arraycopy(other.data, 0, data, 0, size);
+    }
+
+    /**
+     * Builds a LongDynamicArray holding the unboxed elements of a DynamicArrayADT.
+     * @param other the array to convert
+     * @return a new LongDynamicArray with the same elements
+     */
+    public static LongDynamicArray from(DynamicArrayADT<Long> other) {
+        LongDynamicArray result = new LongDynamicArray(other.size());
+        for (int i = 0; i < other.size(); i++) {
+            result.data[i] = other.get(i);
+        }
+        result.size = other.size();
+        return result;
+    }
+
+    /**
+     * Builds a LongDynamicArray holding a copy of the given values.
+     * @param values the values to copy
+     * @return a new LongDynamicArray with the same elements
+     */
+    public static LongDynamicArray of(long... values) {
+        LongDynamicArray result = new LongDynamicArray(values.length);
+        System.arraycopy(values, 0, result.data, 0, values.length);
+        result.size = values.length;
+        return result;
+    }
+
+    /**
+     * Returns a boxed DynamicArray holding the same elements.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<Long> toDynamicArray() {
+        DynamicArray<Long> result = new DynamicArray<Long>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(data[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of the elements as a plain long[].
+     * @return a new array of length size()
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        System.arraycopy(data, 0, result, 0, size);
+        return result;
+    }
+
+    /**
+     * Removes every element but keeps the allocated capacity, so the array can be
+     * refilled without growing again.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the index of the first occurrence of a value at or after fromIndex.
+     * @param value the value to look for
+     * @param fromIndex the index to start searching from
+     * @return the index of the value, or -1 if it does not occur
+     */
+    public int indexOf(long value, int fromIndex) {
+        for (int i = Math.max(fromIndex, 0); i < size; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the elements [fromIndex, toIndex) into a long[] in one move.
+     * @param fromIndex the first element to copy (inclusive)
+     * @param toIndex the end of the range (exclusive)
+     * @param dest the array to copy into
+     * @param destPos the position in dest of the first copied element
+     * @throws IndexOutOfBoundsException if the range is invalid or does not fit in dest
+     */
+    public void copyTo(int fromIndex, int toIndex, long[] dest, int destPos) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+        System.arraycopy(data, fromIndex, dest, destPos, toIndex - fromIndex);
+    }
+
+    /**
+     * Grows the internal array so that it can hold at least minCapacity elements.
+     * @param minCapacity the number of elements that must fit
+     */
+    private void grow(int minCapacity) {
+        if (minCapacity <= data.length) {
+            return;
+        }
+        int newCapacity = data.length == 0 ? 1 : data.length * 2;
+        if (newCapacity < minCapacity) {
+            newCapacity = minCapacity;
+        }
+        long[] newData = new long[newCapacity];
+        System.arraycopy(data, 0, newData, 0, size);
+        data = newData;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long set(int index, long value) {
+        checkIndex(index);
+        long oldValue = data[index];
+        data[index] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements currently stored in the array.
+     * @return the size of the array
+     */
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the specified value at the given index, shifting subsequent elements to the right.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void add(int index, long value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        grow(size + 1);
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     */
+    public void add(long value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    /**
+     * Appends count values taken from a long[], growing at most once and copying them in one move.
+     * @param values the array to copy from
+     * @param offset the position of the first value in values
+     * @param count the number of values to append
+     * @throws IndexOutOfBoundsException if the range is not inside values
+     */
+    public void addAll(long[] values, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > values.length) {
+            throw new IndexOutOfBoundsException("Invalid offset or count.");
+        }
+        grow(size + count);
+        System.arraycopy(values, offset, data, size, count);
+        size += count;
+    }
+
+    /**
+     * Removes and returns the element at the specified index, shifting subsequent elements to the left.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long remove(int index) {
+        checkIndex(index);
+        long removedValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new LongDynamicArray that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    public LongDynamicArray append(LongDynamicArray other) {
+        LongDynamicArray result = new LongDynamicArray(size + other.size);
+        System.arraycopy(data, 0, result.data, 0, size);
+        System.arraycopy(other.data, 0, result.data, size, other.size);
+        result.size = size + other.size;
+        return result;
+    }
+
+    /**
+     * Inserts all elements from another array into this one at the specified index.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public LongDynamicArray insert(int index, LongDynamicArray other) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        int count = other.size;
+        // snapshot first, in case other is this array
+        long[] source = other == this ? toArray() : other.data;
+        grow(size + count);
+        System.arraycopy(data, index, data, index + count, size - index);
+        System.arraycopy(source, 0, data, index, count);
+        size += count;
+        return this;
+    }
+
+    /**
+     * Returns a new array containing the elements in the range [fromIndex, toIndex).
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public LongDynamicArray sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        LongDynamicArray result = new LongDynamicArray(toIndex - fromIndex);
+        System.arraycopy(data, fromIndex, result.data, 0, toIndex - fromIndex);
+        result.size = toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns a new array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public LongDynamicArray delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int tail = size - toIndex;
+        LongDynamicArray result = new LongDynamicArray(fromIndex + tail);
+        System.arraycopy(data, 0, result.data, 0, fromIndex);
+        System.arraycopy(data, toIndex, result.data, fromIndex, tail);
+        result.size = fromIndex + tail;
+        return result;
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    public LongDynamicArray extract(int fromIndex, int toIndex) {
+        LongDynamicArray result = sublist(fromIndex, toIndex);
+        System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public LongDynamicArray splitSuffix(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        LongDynamicArray suffix = new LongDynamicArray(size - index);
+        System.arraycopy(data, index, suffix.data, 0, size - index);
+        suffix.size = size - index;
+        size = index;
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    public LongDynamicArray splitPrefix(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+        LongDynamicArray prefix = new LongDynamicArray(index);
+        System.arraycopy(data, 0, prefix.data, 0, index);
+        prefix.size = index;
+        System.arraycopy(data, index, data, 0, size - index);
+        size -= index;
+        return prefix;
+    }
+
+    //Kudos-Group 4
+
+    /**
+     * Returns the lowest valid index of this array.
+     * @return returns the lowest index, always 0
+     */
+    public int lowIndex() {
+        return 0;
+    }
+
+    /**
+     * Returns the highest valid index of this array.
+     * @return returns one less than the size
+     */
+    public int highIndex() {
+        return size - 1;
+    }
+
+    /**
+     * Checks if a given index is within the valid range of this array.
+     * @param index the index to check
+     * @return returns true if the index is valid, false otherwise
+     */
+    public boolean indexInRange(int index) {
+        return index >= lowIndex() && index <= highIndex();
+    }
+}
@@ -0,0 +1,601 @@
+/**
+ * A character array backed by a memory-mapped file. Opening maps the file with
+ * FileChannel.map and reads nothing, so a file larger than the heap opens at once;
+ * get pages characters in from the mapping on demand.
+ *
+ * The mapping is never written. Edits are recorded in an overlay: the array is a
+ * list of pieces, each either a range of the mapped file or a range of characters
+ * added since it was opened. writeTo streams the edited result into another file.
+ *
+ * Each character is one byte of the file (ISO-8859-1), so any file round-trips byte
+ * for byte. UTF-8 text shows a multi-byte character as several chars, and only
+ * chars up to 0xFF can be added.
+ *
+ * Arrays returned by Group 3 methods share the mapping. close() unmaps the file once
+ * every array sharing it has been closed; otherwise the garbage collector unmaps it
+ * when they are all unreachable. Any use after close() throws IllegalStateException.
+ */
+public class MappedCharArray implements DynamicArrayADT<Character>, AutoCloseable {
+
+    /**
+     * A mapped file and the number of open arrays whose pieces may reference it.
+     */
+    private static final class Mapping {
+        final java.nio.ByteBuffer bytes;
+        final java.nio.file.Path path;
+        int users;
+
+        Mapping(java.nio.ByteBuffer bytes, java.nio.file.Path path) {
+            this.bytes = bytes;
+            this.path = path;
+        }
+    }
+
+    /**
+     * An immutable range of characters, taken either from a mapped file or from an
+     * added-text buffer that is only ever appended to.
+     */
+    private static final class Piece {
+        final Mapping mapping;
+        final CharDynamicArray chars;
+        final int start;
+        final int length;
+
+        Piece(Mapping mapping, CharDynamicArray chars, int start, int length) {
+            this.mapping = mapping;
+            this.chars = chars;
+            this.start = start;
+            this.length = length;
+        }
+
+        char charAt(int offset) {
+            if (mapping != null) {
+                return (char) (mapping.bytes.get(start + offset) & 0xff);
+            }
+            return chars.get(start + offset);
+        }
+
+        Piece slice(int offset, int newLength) {
+            return new Piece(mapping, chars, start + offset, newLength);
+        }
+    }
+
+    private DynamicArray<Piece> pieces;
+    private int size;
+    private CharDynamicArray added;
+    /** Mappings this array holds a use of; null once closed. */
+    private DynamicArray<Mapping> mappings;
+    /** End offset of each piece; only the first validEnds entries are up to date. */
+    private int[] ends = new int[1];
+    private int validEnds;
+
+    /**
+     * Maps a file read-only. Nothing is read until characters are accessed.
+     * @param file the file to map
+     * @throws java.io.IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the file is longer than Integer.MAX_VALUE bytes
+     */
+    public MappedCharArray(java.nio.file.Path file) throws java.io.IOException {
+        this(new DynamicArray<Piece>(1), 0, null);
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file, java.nio.file.StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File is longer than " + Integer.MAX_VALUE + " bytes: " + file);
+            }
+            if (length > 0) {
+                Mapping mapping = new Mapping(channel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, 0, length), file);
+                mapping.users = 1;
+                mappings.add(mapping);
+                pieces.add(new Piece(mapping, null, 0, (int) length));
+                size = (int) length;
+            }
+        }
+    }
+
+    /**
+     * Constructs an array over pieces taken from source, sharing its mappings.
+     */
+    private MappedCharArray(DynamicArray<Piece> pieces, int size, MappedCharArray source) {
+        this.pieces = pieces;
+        this.size = size;
+        this.added = new CharDynamicArray();
+        this.mappings = new DynamicArray<Mapping>(1);
+        if (source != null) {
+            use(source);
+        }
+    }
+
+    /**
+     * Takes a use of each mapping of other that this array does not hold yet.
+     */
+    private void use(MappedCharArray other) {
+        for (int i = 0; i < other.mappings.size(); i++) {
+            Mapping mapping = other.mappings.get(i);
+            if (!mappings.contains(mapping)) {
+                mapping.users++;
+                mappings.add(mapping);
+            }
+        }
+    }
+
+    /**
+     * Releases this array's use of its mappings, unmapping each one no open array
+     * uses any more. Closing an array twice does nothing.
+     */
+    @Override
+    public void close() {
+        if (mappings == null) {
+            return;
+        }
+        for (int i = 0; i < mappings.size(); i++) {
+            Mapping mapping = mappings.get(i);
+            if (--mapping.users == 0) {
+                OffHeapDynamicArray.release(mapping.bytes);
+            }
+        }
+        mappings = null;
+        pieces = new DynamicArray<Piece>(1);
+        size = 0;
+        validEnds = 0;
+    }
+
+    /**
+     * Returns whether close() has been called.
+     * @return true if the array is closed
+     */
+    public boolean isClosed() {
+        return mappings == null;
+    }
+
+    /**
+     * Returns a DynamicArray holding the same characters, on the heap.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<Character> toDynamicArray() {
+        checkOpen();
+        DynamicArray<Character> result = new DynamicArray<Character>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of pieces the overlay is made of: 1 for an unedited file,
+     * growing by about two with each edit away from the previous one.
+     * @return the number of pieces
+     */
+    int pieceCount() {
+        return pieces.size();
+    }
+
+    /**
+     * Streams the current contents to a file, one byte per character. Unedited
+     * ranges are written straight from the mapping.
+     * @param target the file to write, replaced if it exists
+     * @throws java.io.IOException if writing fails
+     * @throws IllegalArgumentException if target is a file this array is mapped from
+     * @throws IllegalStateException if the array is closed
+     */
+    public void writeTo(java.nio.file.Path target) throws java.io.IOException {
+        checkOpen();
+        java.nio.file.Path checked = null;
+        for (int i = 0; i < pieces.size(); i++) {
+            java.nio.file.Path path = pieces.get(i).mapping == null ? null : pieces.get(i).mapping.path;
+            if (path != null && !path.equals(checked)) {
+                if (java.nio.file.Files.exists(target) && java.nio.file.Files.isSameFile(path, target)) {
+                    throw new IllegalArgumentException("Cannot write over a mapped file: " + target);
+                }
+                checked = path;
+            }
+        }
+        try (java.nio.channels.FileChannel out = java.nio.channels.FileChannel.open(target,
+                java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                java.nio.file.StandardOpenOption.WRITE)) {
+            java.nio.ByteBuffer chunk = java.nio.ByteBuffer.allocate(8192);
+            for (int i = 0; i < pieces.size(); i++) {
+                Piece piece = pieces.get(i);
+                if (piece.mapping != null) {
+                    writeChunk(out, chunk);
+                    java.nio.ByteBuffer range = piece.mapping.bytes.duplicate();
+                    range.limit(piece.start + piece.length).position(piece.start);
+                    while (range.hasRemaining()) {
+                        out.write(range);
+                    }
+                } else {
+                    for (int k = 0; k < piece.length; k++) {
+                        if (!chunk.hasRemaining()) {
+                            writeChunk(out, chunk);
+                        }
+                        chunk.put((byte) piece.charAt(k));
+                    }
+                }
+            }
+            writeChunk(out, chunk);
+        }
+    }
+
+    private static void writeChunk(java.nio.channels.FileChannel out, java.nio.ByteBuffer chunk) throws java.io.IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    private void checkOpen() {
+        if (mappings == null) {
+            throw new IllegalStateException("Array is closed.");
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        checkOpen();
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    private void checkPosition(int index) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    private static void checkByte(Character value) {
+        if (value > 0xff) {
+            throw new IllegalArgumentException("Character " + (int) value + " does not fit in one byte.");
+        }
+    }
+
+    /**
+     * Returns the position of the piece holding the character at index. The table of
+     * piece ends is only brought up to date as far as index, from the first piece an
+     * edit changed, so edits cost O(pieces after them) once rather than a full rebuild.
+     */
+    private int locate(int index) {
+        if (validEnds == 0 || ends[validEnds - 1] <= index) {
+            if (ends.length < pieces.size()) {
+                ends = java.util.Arrays.copyOf(ends, pieces.size() * 2);
+            }
+            int end = validEnds == 0 ? 0 : ends[validEnds - 1];
+            while (end <= index) {
+                end += pieces.get(validEnds).length;
+                ends[validEnds++] = end;
+            }
+            return validEnds - 1;
+        }
+        int low = 0;
+        int high = validEnds - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Marks the piece ends from position on as out of date, after the pieces there changed length.
+     */
+    private void changedFrom(int position) {
+        if (position < validEnds) {
+            validEnds = position;
+        }
+    }
+
+    private int pieceStart(int position) {
+        return ends[position] - pieces.get(position).length;
+    }
+
+    /**
+     * Splits pieces so that one starts exactly at index, and returns its position
+     * (pieces.size() when index is the end).
+     */
+    private int splitAt(int index) {
+        if (index == size) {
+            return pieces.size();
+        }
+        int position = locate(index);
+        int offset = index - pieceStart(position);
+        if (offset > 0) {
+            Piece piece = pieces.get(position);
+            pieces.set(position, piece.slice(0, offset));
+            pieces.add(position + 1, piece.slice(offset, piece.length - offset));
+            // the total length is unchanged, so the ends after the split only move up one slot
+            if (ends.length < pieces.size()) {
+                ends = java.util.Arrays.copyOf(ends, pieces.size() * 2);
+            }
+            System.arraycopy(ends, position, ends, position + 1, validEnds - position);
+            ends[position] = index;
+            validEnds++;
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Returns new pieces covering [fromIndex, toIndex) without changing this array.
+     */
+    private DynamicArray<Piece> piecesBetween(int fromIndex, int toIndex) {
+        DynamicArray<Piece> result = new DynamicArray<Piece>();
+        if (fromIndex >= toIndex) {
+            return result;
+        }
+        int position = locate(fromIndex);
+        int offset = fromIndex - pieceStart(position);
+        int index = fromIndex;
+        while (index < toIndex) {
+            Piece piece = pieces.get(position);
+            int take = Math.min(piece.length - offset, toIndex - index);
+            result.add(offset == 0 && take == piece.length ? piece : piece.slice(offset, take));
+            index += take;
+            offset = 0;
+            position++;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pieces of other, either shared as they are, taking a use of other's
+     * mappings, or, for other kinds of arrays, copied once into this array's added text.
+     */
+    private DynamicArray<Piece> piecesOf(DynamicArrayADT<Character> other) {
+        if (other instanceof MappedCharArray) {
+            MappedCharArray mapped = (MappedCharArray) other;
+            mapped.checkOpen();
+            use(mapped);
+            return mapped.piecesBetween(0, mapped.size);
+        }
+        DynamicArray<Piece> result = new DynamicArray<Piece>(1);
+        int count = other.size();
+        if (count > 0) {
+            int start = added.size();
+            for (int i = 0; i < count; i++) {
+                Character c = other.get(i);
+                checkByte(c);
+                added.add(c);
+            }
+            result.add(new Piece(null, added, start, count));
+        }
+        return result;
+    }
+
+    //Group 1
+
+    /**
+     * Returns the character at the specified index.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Character get(int index) {
+        checkIndex(index);
+        if (pieces.size() == 1) {
+            return pieces.get(0).charAt(index);
+        }
+        int position = locate(index);
+        return pieces.get(position).charAt(index - pieceStart(position));
+    }
+
+    /**
+     * Replaces the character at the specified index. The mapping is untouched; the
+     * new character goes into the overlay, and overwriting the character after the
+     * previous one set or added extends that piece.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalArgumentException if value does not fit in one byte
+     */
+    @Override
+    public Character set(int index, Character value) {
+        Character oldValue = get(index);
+        checkByte(value);
+        int position = splitAt(index);
+        splitAt(index + 1);
+        added.add(value);
+        Piece before = position > 0 ? pieces.get(position - 1) : null;
+        if (before != null && before.chars == added && before.start + before.length == added.size() - 1) {
+            pieces.set(position - 1, before.slice(0, before.length + 1));
+            pieces.remove(position);
+            changedFrom(position - 1);
+        } else {
+            // same length as the piece it replaces, so the ends stay valid
+            pieces.set(position, new Piece(null, added, added.size() - 1, 1));
+        }
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of characters in the array.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts a character at the given index. Typing at the end of the previous
+     * insert extends that piece instead of starting a new one.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalArgumentException if value does not fit in one byte
+     */
+    @Override
+    public void add(int index, Character value) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        checkByte(value);
+        int position = splitAt(index);
+        added.add(value);
+        Piece before = position > 0 ? pieces.get(position - 1) : null;
+        if (before != null && before.chars == added && before.start + before.length == added.size() - 1) {
+            pieces.set(position - 1, before.slice(0, before.length + 1));
+            changedFrom(position - 1);
+        } else {
+            pieces.add(position, new Piece(null, added, added.size() - 1, 1));
+            changedFrom(position);
+        }
+        size++;
+    }
+
+    /**
+     * Appends a character to the end of the array.
+     * @param value the value to append
+     * @throws IllegalArgumentException if value does not fit in one byte
+     */
+    @Override
+    public void add(Character value) {
+        add(size, value);
+    }
+
+    /**
+     * Removes and returns the character at the specified index.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public Character remove(int index) {
+        Character removedValue = get(index);
+        int from = splitAt(index);
+        int to = splitAt(index + 1);
+        pieces.extract(from, to);
+        size--;
+        changedFrom(from);
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new array that is this one followed by other. Pieces are shared, so
+     * appending another MappedCharArray copies no characters.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    @Override
+    public MappedCharArray append(DynamicArrayADT<Character> other) {
+        checkOpen();
+        MappedCharArray result = new MappedCharArray(piecesBetween(0, size), size + other.size(), this);
+        result.pieces.addAll(result.piecesOf(other));
+        return result;
+    }
+
+    /**
+     * Inserts all characters from another array into this one at the specified index.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public MappedCharArray insert(int index, DynamicArrayADT<Character> other) {
+        checkPosition(index);
+        DynamicArray<Piece> inserted = piecesOf(other);
+        int count = other.size();
+        int position = splitAt(index);
+        pieces.addAll(position, inserted);
+        size += count;
+        changedFrom(position);
+        return this;
+    }
+
+    /**
+     * Returns a new array with the characters in the range [fromIndex, toIndex),
+     * sharing this array's pieces.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public MappedCharArray sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new MappedCharArray(piecesBetween(fromIndex, toIndex), toIndex - fromIndex, this);
+    }
+
+    /**
+     * Returns a new array with the range [fromIndex, toIndex) left out, sharing this
+     * array's pieces.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public MappedCharArray delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        DynamicArray<Piece> kept = piecesBetween(0, fromIndex);
+        kept.addAll(piecesBetween(toIndex, size));
+        return new MappedCharArray(kept, size - (toIndex - fromIndex), this);
+    }
+
+    /**
+     * Removes the characters in the range [fromIndex, toIndex) from this array and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public MappedCharArray extract(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int from = splitAt(fromIndex);
+        int to = splitAt(toIndex);
+        MappedCharArray result = new MappedCharArray(pieces.extract(from, to), toIndex - fromIndex, this);
+        size -= toIndex - fromIndex;
+        changedFrom(from);
+        return result;
+    }
+
+    /**
+     * Returns and removes the characters from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public MappedCharArray splitSuffix(int index) {
+        checkPosition(index);
+        int position = splitAt(index);
+        MappedCharArray suffix = new MappedCharArray(pieces.splitSuffix(position), size - index, this);
+        size = index;
+        changedFrom(position);
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the characters before the given index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public MappedCharArray splitPrefix(int index) {
+        checkPosition(index);
+        MappedCharArray prefix = new MappedCharArray(pieces.splitPrefix(splitAt(index)), index, this);
+        size -= index;
+        changedFrom(0);
+        return prefix;
+    }
+}
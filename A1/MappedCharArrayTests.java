@@ -0,0 +1,259 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class MappedCharArrayTests {
+
+    private Path source;
+    private Path target;
+    private MappedCharArray a1;
+
+    /**
+     * Writes a small source file and maps it before each test.
+     */
+    @Before
+    public void setUp() throws IOException {
+        source = Files.createTempFile("mapped", ".txt");
+        target = Files.createTempFile("flushed", ".txt");
+        Files.write(source, "abcdef".getBytes(StandardCharsets.ISO_8859_1));
+        a1 = new MappedCharArray(source);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        a1.close();
+        a1 = null;
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    /**
+     * Returns the contents of a file, one char per byte.
+     */
+    public String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testReadsMapping() {
+        compareToString(a1, "abcdef");
+        assertEquals(1, a1.pieceCount());
+    }
+
+    @Test
+    public void testEditsLeaveFile() throws IOException {
+        a1.add(0, '<');
+        a1.add(4, '|');
+        a1.add('>');
+        compareToString(a1, "<abc|def>");
+        assertEquals((Character) '|', a1.remove(4));
+        assertEquals((Character) 'b', a1.set(2, 'B'));
+        compareToString(a1, "<aBcdef>");
+        assertEquals("abcdef", read(source));
+        a1.writeTo(target);
+        assertEquals("<aBcdef>", read(target));
+    }
+
+    @Test
+    public void testTypingExtendsOnePiece() {
+        for (char c = 'g'; c <= 'z'; c++) {
+            a1.add(c);
+        }
+        assertEquals(2, a1.pieceCount());
+        compareToString(a1, "abcdefghijklmnopqrstuvwxyz");
+    }
+
+    @Test
+    public void testGroup3() {
+        DynamicArray<Character> plain = new DynamicArray<Character>();
+        plain.add('w');
+        plain.add('x');
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(a1.append(plain), "abcdefwx");
+        compareToString(a1.sublist(2, 5), "cde");
+        compareToString(a1.delete(2, 5), "abf");
+        compareToString(a1, "abcdef");
+        compareToString(a1.insert(3, plain), "abcwxdef");
+        compareToString(a1.insert(0, a1), "abcwxdefabcwxdef");
+        compareToString(a1.extract(2, 14), "cwxdefabcwxd");
+        compareToString(a1, "abef");
+        compareToString(a1.splitPrefix(1), "a");
+        compareToString(a1.splitSuffix(2), "f");
+        compareToString(a1, "be");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWideChar() {
+        a1.add('€');
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWriteOverSource() throws IOException {
+        a1.writeTo(source);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(6);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Files.write(source, new byte[0]);
+        MappedCharArray empty = new MappedCharArray(source);
+        compareToString(empty, "");
+        empty.add('x');
+        empty.writeTo(target);
+        assertEquals("x", read(target));
+    }
+
+    /**
+     * Returns the bytes of files currently mapped by the JVM.
+     */
+    public long mappedMemoryUsed() {
+        for (java.lang.management.BufferPoolMXBean pool
+                : java.lang.management.ManagementFactory.getPlatformMXBeans(java.lang.management.BufferPoolMXBean.class)) {
+            if (pool.getName().equals("mapped")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The file stays mapped while any array sharing it is open, and is unmapped when the last one closes.
+     */
+    @Test
+    public void testClose() throws IOException {
+        Files.write(source, new byte[1 << 20]);
+        long before = mappedMemoryUsed();
+        MappedCharArray whole = new MappedCharArray(source);
+        MappedCharArray part = whole.sublist(10, 20);
+        MappedCharArray other = new MappedCharArray(target);
+        other.add('x');
+        other.insert(1, whole);
+        assertEquals(before + (1 << 20), mappedMemoryUsed());
+        whole.close();
+        whole.close();
+        assertTrue(whole.isClosed());
+        assertEquals(0, whole.size());
+        try {
+            whole.get(0);
+            fail("get on a closed array should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            a1.append(whole);
+            fail("appending a closed array should throw");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals((Character) (char) 0, part.get(9));
+        part.close();
+        assertEquals(before + (1 << 20), mappedMemoryUsed());
+        assertEquals((Character) (char) 0, other.get(1 << 19));
+        other.close();
+        assertEquals(before, mappedMemoryUsed());
+    }
+
+    /**
+     * Interleaves reads with edits of every kind at random positions, so the table of
+     * piece ends is read while partly out of date.
+     */
+    @Test
+    public void testRandomEditsAndReads() throws IOException {
+        Random rnd = new Random(29);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            expected.append((char) ('a' + rnd.nextInt(26)));
+        }
+        Files.write(source, expected.toString().getBytes(StandardCharsets.ISO_8859_1));
+        MappedCharArray arr = new MappedCharArray(source);
+        for (int step = 0; step < 3000; step++) {
+            int length = expected.length();
+            int op = length < 10 ? 0 : rnd.nextInt(8);
+            int at = rnd.nextInt(length + 1);
+            if (op == 0) {
+                char c = (char) ('A' + rnd.nextInt(26));
+                arr.add(at, c);
+                expected.insert(at, c);
+            } else if (op == 1 && at < length) {
+                assertEquals((Character) expected.charAt(at), arr.remove(at));
+                expected.deleteCharAt(at);
+            } else if (op == 2 && at < length) {
+                char c = (char) ('0' + rnd.nextInt(10));
+                assertEquals((Character) expected.charAt(at), arr.set(at, c));
+                expected.setCharAt(at, c);
+            } else if (op == 3 && at < length) {
+                int to = at + 1 + rnd.nextInt(Math.min(5, length - at));
+                compareToString(arr.extract(at, to), expected.substring(at, to));
+                expected.delete(at, to);
+            } else if (op == 4 && at < length) {
+                int to = at + 1 + rnd.nextInt(Math.min(5, length - at));
+                String copied = expected.substring(at, to);
+                int where = rnd.nextInt(length + 1);
+                arr.insert(where, arr.sublist(at, to));
+                expected.insert(where, copied);
+            } else if (op == 5 && length > 1000) {
+                compareToString(arr.splitSuffix(length - 5), expected.substring(length - 5));
+                expected.setLength(length - 5);
+                compareToString(arr.splitPrefix(5), expected.substring(0, 5));
+                expected.delete(0, 5);
+            } else if (at < length) {
+                assertEquals((Character) expected.charAt(at), arr.get(at));
+            }
+        }
+        compareToString(arr, expected.toString());
+        arr.close();
+    }
+
+    /**
+     * Makes random edits and checks the array and the flushed file against a StringBuilder.
+     */
+    @Test
+    public void testRandomEdits() throws IOException {
+        Random rnd = new Random(23);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            expected.append((char) ('a' + rnd.nextInt(26)));
+        }
+        Files.write(source, expected.toString().getBytes(StandardCharsets.ISO_8859_1));
+        MappedCharArray arr = new MappedCharArray(source);
+        for (int step = 0; step < 3000; step++) {
+            int op = rnd.nextInt(3);
+            if (op == 0 || expected.length() == 0) {
+                int at = rnd.nextInt(expected.length() + 1);
+                char c = (char) ('A' + rnd.nextInt(26));
+                arr.add(at, c);
+                expected.insert(at, c);
+            } else if (op == 1) {
+                int at = rnd.nextInt(expected.length());
+                assertEquals((Character) expected.charAt(at), arr.remove(at));
+                expected.deleteCharAt(at);
+            } else {
+                int at = rnd.nextInt(expected.length());
+                arr.set(at, '#');
+                expected.setCharAt(at, '#');
+            }
+        }
+        compareToString(arr, expected.toString());
+        arr.writeTo(target);
+        assertEquals(expected.toString(), read(target));
+    }
+}
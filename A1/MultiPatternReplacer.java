@@ -0,0 +1,175 @@
+/**
+ * Replaces many literal patterns at once. The patterns are compiled into an
+ * Aho-Corasick automaton, so finding every match of every pattern takes one pass
+ * over the text no matter how many patterns there are.
+ *
+ * Matches are chosen like sed with alternatives: scanning left to right, the match
+ * that starts first wins, the longest one if several start at the same place, and
+ * replaced text is never matched again.
+ *
+ * The automaton is a complete DFA held in primitive arrays. Characters are first
+ * mapped to a column, one per distinct character used in the patterns plus one for
+ * all others, and each state has one row of next states over those columns.
+ *
+ * A replacer reuses a scratch array between calls, so it is not thread-safe.
+ */
+public class MultiPatternReplacer {
+    private final int[] columnOf;
+    private final int columns;
+    private final int[] next;
+    private final int[] matchLength;
+    private final int[] matchPattern;
+    private final int[] outputLink;
+    private final Character[][] replacements;
+    private int[] matchAt;
+
+    /**
+     * Compiles a set of patterns and their replacements.
+     * @param patterns the literal texts to find
+     * @param replacements the text to put in place of each pattern, by position
+     * @throws IllegalArgumentException if the arrays differ in length, or a pattern is empty or repeated
+     */
+    public MultiPatternReplacer(String[] patterns, String[] replacements) {
+        if (patterns.length != replacements.length) {
+            throw new IllegalArgumentException("Patterns and replacements differ in length.");
+        }
+        columnOf = new int[Character.MAX_VALUE + 1];
+        int columnCount = 1;
+        int maxStates = 1;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern is empty.");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                if (columnOf[pattern.charAt(i)] == 0) {
+                    columnOf[pattern.charAt(i)] = columnCount++;
+                }
+            }
+            maxStates += pattern.length();
+        }
+        columns = columnCount;
+
+        // trie, with -1 for a missing edge
+        int[] trie = new int[maxStates * columns];
+        java.util.Arrays.fill(trie, -1);
+        int[] length = new int[maxStates];
+        int[] pattern = new int[maxStates];
+        java.util.Arrays.fill(pattern, -1);
+        int states = 1;
+        for (int p = 0; p < patterns.length; p++) {
+            int state = 0;
+            for (int i = 0; i < patterns[p].length(); i++) {
+                int slot = state * columns + columnOf[patterns[p].charAt(i)];
+                if (trie[slot] < 0) {
+                    trie[slot] = states++;
+                }
+                state = trie[slot];
+            }
+            if (pattern[state] >= 0) {
+                throw new IllegalArgumentException("Repeated pattern: " + patterns[p]);
+            }
+            pattern[state] = p;
+            length[state] = patterns[p].length();
+        }
+
+        // breadth-first: resolve missing edges through failure links into a DFA
+        next = java.util.Arrays.copyOf(trie, states * columns);
+        matchLength = java.util.Arrays.copyOf(length, states);
+        matchPattern = java.util.Arrays.copyOf(pattern, states);
+        outputLink = new int[states];
+        int[] failure = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        outputLink[0] = -1;
+        for (int c = 0; c < columns; c++) {
+            int child = next[c];
+            if (child < 0) {
+                next[c] = 0;
+            } else {
+                failure[child] = 0;
+                outputLink[child] = -1;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int c = 0; c < columns; c++) {
+                int slot = state * columns + c;
+                int child = next[slot];
+                int fallback = next[failure[state] * columns + c];
+                if (child < 0) {
+                    next[slot] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    outputLink[child] = matchLength[fallback] > 0 ? fallback : outputLink[fallback];
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        this.replacements = new Character[replacements.length][];
+        for (int p = 0; p < replacements.length; p++) {
+            this.replacements[p] = new Character[replacements[p].length()];
+            for (int i = 0; i < replacements[p].length(); i++) {
+                this.replacements[p][i] = replacements[p].charAt(i);
+            }
+        }
+        matchAt = new int[0];
+    }
+
+    /**
+     * Returns a new array with every match replaced. The text is scanned once to
+     * find the matches; the result is then sized exactly and filled, so it is
+     * allocated once.
+     * @param text the text to search
+     * @return a new DynamicArray holding the replaced text
+     */
+    public DynamicArray<Character> replaceAll(DynamicArrayADT<Character> text) {
+        int n = text.size();
+        if (matchAt.length < n) {
+            matchAt = new int[Math.max(n, matchAt.length * 2)];
+        }
+        java.util.Arrays.fill(matchAt, 0, n, 0);
+
+        // one pass: record the state of the longest match starting at each position (0 for none)
+        int state = 0;
+        for (int i = 0; i < n; i++) {
+            state = next[state * columns + columnOf[text.get(i)]];
+            int match = matchLength[state] > 0 ? state : outputLink[state];
+            while (match >= 0) {
+                int start = i + 1 - matchLength[match];
+                if (matchLength[match] > matchLength[matchAt[start]]) {
+                    matchAt[start] = match;
+                }
+                match = outputLink[match];
+            }
+        }
+
+        // choose matches left to right and size the result
+        int resultSize = 0;
+        for (int i = 0; i < n; ) {
+            if (matchAt[i] > 0) {
+                resultSize += replacements[matchPattern[matchAt[i]]].length;
+                i += matchLength[matchAt[i]];
+            } else {
+                resultSize++;
+                i++;
+            }
+        }
+
+        DynamicArray<Character> result = new DynamicArray<Character>(resultSize);
+        for (int i = 0; i < n; ) {
+            if (matchAt[i] > 0) {
+                for (Character c : replacements[matchPattern[matchAt[i]]]) {
+                    result.add(c);
+                }
+                i += matchLength[matchAt[i]];
+            } else {
+                result.add(text.get(i));
+                i++;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,121 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class MultiPatternReplacerTests {
+
+    /**
+     * Puts the characters of a string into a DynamicArray.
+     */
+    public DynamicArray<Character> stringToArray(String s) {
+        DynamicArray<Character> result = new DynamicArray<Character>(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            result.add(s.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    /**
+     * Replaces by trying every pattern at every position: leftmost match first, longest on ties.
+     */
+    public String reference(String text, String[] patterns, String[] replacements) {
+        StringBuilder result = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int best = -1;
+            for (int p = 0; p < patterns.length; p++) {
+                if (text.startsWith(patterns[p], i) && (best < 0 || patterns[p].length() > patterns[best].length())) {
+                    best = p;
+                }
+            }
+            if (best < 0) {
+                result.append(text.charAt(i++));
+            } else {
+                result.append(replacements[best]);
+                i += patterns[best].length();
+            }
+        }
+        return result.toString();
+    }
+
+    public String replace(String text, String[] patterns, String[] replacements) {
+        DynamicArray<Character> result = new MultiPatternReplacer(patterns, replacements).replaceAll(stringToArray(text));
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < result.size(); i++) {
+            s.append(result.get(i));
+        }
+        return s.toString();
+    }
+
+    @Test
+    public void testSeveralPatterns() {
+        String[] patterns = {"he", "she", "his", "hers"};
+        String[] replacements = {"1", "2", "3", "4"};
+        compareToString(new MultiPatternReplacer(patterns, replacements).replaceAll(stringToArray("ushers and his hen")),
+                "u2rs and 3 1n");
+    }
+
+    @Test
+    public void testLongestAtSameStart() {
+        assertEquals("[ab]c [a]", replace("abc a", new String[] {"a", "ab"}, new String[] {"[a]", "[ab]"}));
+        assertEquals("X", replace("abcd", new String[] {"abcd", "bc"}, new String[] {"X", "Y"}));
+        assertEquals("aY", replace("abc", new String[] {"abcd", "bc"}, new String[] {"X", "Y"}));
+    }
+
+    @Test
+    public void testReplacementsNotRescanned() {
+        assertEquals("ba", replace("ab", new String[] {"a", "b"}, new String[] {"b", "a"}));
+        assertEquals("", replace("", new String[] {"a"}, new String[] {"b"}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRepeatedPattern() {
+        new MultiPatternReplacer(new String[] {"a", "a"}, new String[] {"x", "y"});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        new MultiPatternReplacer(new String[] {""}, new String[] {"x"});
+    }
+
+    /**
+     * Random overlapping patterns over a small alphabet, against the brute-force reference.
+     */
+    @Test
+    public void testRandomAgainstReference() {
+        Random rnd = new Random(31);
+        for (int round = 0; round < 300; round++) {
+            int count = 1 + rnd.nextInt(8);
+            java.util.LinkedHashSet<String> unique = new java.util.LinkedHashSet<String>();
+            while (unique.size() < count) {
+                unique.add(randomText(rnd, 1 + rnd.nextInt(4)));
+            }
+            String[] patterns = unique.toArray(new String[0]);
+            String[] replacements = new String[count];
+            for (int p = 0; p < count; p++) {
+                replacements[p] = "<" + p + ">";
+            }
+            String text = randomText(rnd, rnd.nextInt(200));
+            assertEquals(reference(text, patterns, replacements), replace(text, patterns, replacements));
+        }
+    }
+
+    private String randomText(Random rnd, int length) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            s.append("abc".charAt(rnd.nextInt(3)));
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,453 @@
+/**
+ * A dynamic array that keeps its elements outside the garbage-collected heap, in a
+ * direct ByteBuffer. Each element is stored as the fixed number of bytes given by an
+ * ElementCodec, so tens of millions of elements cost the collector one small buffer
+ * object instead of one object per element. Resizes and shifts are single bulk
+ * memory moves.
+ *
+ * The memory is freed by close(), or by the garbage collector once the array is
+ * unreachable if close() was never called. Every array returned by a Group 3
+ * method owns its own memory and should be closed too. Any use after close()
+ * throws IllegalStateException.
+ * @param <J> the type of elements stored in the array
+ */
+public class OffHeapDynamicArray<J> implements DynamicArrayADT<J>, AutoCloseable {
+    private static final Object UNSAFE;
+    private static final java.lang.reflect.Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        java.lang.reflect.Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            java.lang.reflect.Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final ElementCodec<J> codec;
+    private final int width;
+    private java.nio.ByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    /**
+     * Constructs an empty OffHeapDynamicArray with the specified initial capacity.
+     * @param codec the codec used to store elements
+     * @param initialCapacity the initial capacity of the array, in elements
+     * @throws IllegalArgumentException if initialCapacity is negative or too large for one buffer
+     */
+    public OffHeapDynamicArray(ElementCodec<J> codec, int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > Integer.MAX_VALUE / codec.width()) {
+            throw new IllegalArgumentException("Capacity: " + initialCapacity);
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        this.buffer = allocateBuffer(initialCapacity);
+        this.capacity = initialCapacity;
+        this.size = 0;
+    }
+
+    /**
+     * Constructs an empty OffHeapDynamicArray with default initial capacity (0).
+     * @param codec the codec used to store elements
+     */
+    public OffHeapDynamicArray(ElementCodec<J> codec) {
+        this(codec, 0);
+    }
+
+    /**
+     * Constructs an OffHeapDynamicArray holding the elements of another array.
+     * @param codec the codec used to store elements
+     * @param other the array to copy
+     */
+    public OffHeapDynamicArray(ElementCodec<J> codec, DynamicArrayADT<J> other) {
+        this(codec, other.size());
+        try {
+            writeAll(0, other);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        size = other.size();
+    }
+
+    /**
+     * Returns a DynamicArray holding the same elements, on the heap.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<J> toDynamicArray() {
+        DynamicArray<J> result = new DynamicArray<J>(size());
+        result.addAll(this);
+        return result;
+    }
+
+    /**
+     * Returns the codec this array stores its elements with.
+     * @return the element codec
+     */
+    public ElementCodec<J> codec() {
+        return codec;
+    }
+
+    /**
+     * Frees the memory behind this array. Closing an array twice does nothing.
+     */
+    @Override
+    public void close() {
+        if (buffer != null) {
+            release(buffer);
+            buffer = null;
+            capacity = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns whether close() has been called.
+     * @return true if the array is closed
+     */
+    public boolean isClosed() {
+        return buffer == null;
+    }
+
+    private java.nio.ByteBuffer allocateBuffer(int elements) {
+        return java.nio.ByteBuffer.allocateDirect(elements * width).order(java.nio.ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Frees a direct or mapped buffer right away when the JVM allows it. Otherwise the
+     * buffer is left for the garbage collector, which frees it the same way later.
+     */
+    static void release(java.nio.ByteBuffer buffer) {
+        if (INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // the collector frees it instead
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Array is closed.");
+        }
+    }
+
+    private void checkIndex(int index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        checkOpen();
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    private void checkPosition(int index) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    /**
+     * Makes sure there is room for at least the given number of elements, growing
+     * (at least doubling) the buffer with one bulk copy when there is not.
+     * @param needed the number of elements required
+     */
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity) {
+            return;
+        }
+        int maxCapacity = Integer.MAX_VALUE / width;
+        if (needed < 0 || needed > maxCapacity) {
+            throw new OutOfMemoryError("Off-heap array cannot hold " + needed + " elements of " + width + " bytes.");
+        }
+        long newCapacity = Math.max(Math.max(1L, capacity * 2L), needed);
+        if (newCapacity > maxCapacity) {
+            newCapacity = maxCapacity;
+        }
+        java.nio.ByteBuffer newBuffer = allocateBuffer((int) newCapacity);
+        newBuffer.put(0, buffer, 0, size * width);
+        release(buffer);
+        buffer = newBuffer;
+        capacity = (int) newCapacity;
+    }
+
+    /**
+     * Moves count elements from one position to another within this array. The
+     * ranges may overlap.
+     */
+    private void move(int from, int to, int count) {
+        if (count > 0 && from != to) {
+            buffer.put(to * width, buffer, from * width, count * width);
+        }
+    }
+
+    /**
+     * Writes the elements of other into slots starting at index, as one bulk copy
+     * when other is an open off-heap array with the same codec.
+     */
+    private void writeAll(int index, DynamicArrayADT<J> other) {
+        int count = other.size();
+        if (other instanceof OffHeapDynamicArray && ((OffHeapDynamicArray<J>) other).codec == codec) {
+            OffHeapDynamicArray<J> offHeap = (OffHeapDynamicArray<J>) other;
+            offHeap.checkOpen();
+            buffer.put(index * width, offHeap.buffer, 0, count * width);
+        } else {
+            for (int i = 0; i < count; i++) {
+                codec.write(buffer, (index + i) * width, other.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns a new array holding the elements [fromIndex, toIndex), copied in one move.
+     */
+    private OffHeapDynamicArray<J> copyRange(int fromIndex, int toIndex) {
+        int count = toIndex - fromIndex;
+        OffHeapDynamicArray<J> result = new OffHeapDynamicArray<J>(codec, count);
+        result.buffer.put(0, buffer, fromIndex * width, count * width);
+        result.size = count;
+        return result;
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index, decoded from off-heap memory.
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public J get(int index) {
+        checkIndex(index);
+        return codec.read(buffer, index * width);
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public J set(int index, J value) {
+        checkIndex(index);
+        J oldValue = codec.read(buffer, index * width);
+        codec.write(buffer, index * width, value);
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements currently stored in the array.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the specified value at the given index, shifting the later elements
+     * right with one memory move.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public void add(int index, J value) {
+        checkOpen();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+        ensureCapacity(size + 1);
+        move(index, index + 1, size - index);
+        codec.write(buffer, index * width, value);
+        size++;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public void add(J value) {
+        add(size, value);
+    }
+
+    /**
+     * Removes and returns the element at the specified index, shifting the later
+     * elements left with one memory move.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public J remove(int index) {
+        checkIndex(index);
+        J removedValue = codec.read(buffer, index * width);
+        move(index + 1, index, size - index - 1);
+        size--;
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new off-heap array that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> append(DynamicArrayADT<J> other) {
+        checkOpen();
+        OffHeapDynamicArray<J> result = new OffHeapDynamicArray<J>(codec, size + other.size());
+        try {
+            result.buffer.put(0, buffer, 0, size * width);
+            result.writeAll(size, other);
+        } catch (RuntimeException e) {
+            // other was closed or held an element the codec rejects; free the result now
+            result.close();
+            throw e;
+        }
+        result.size = size + other.size();
+        return result;
+    }
+
+    /**
+     * Inserts all elements from another array into this one at the specified index,
+     * opening the gap with one memory move.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
+        checkPosition(index);
+        if (other == this) {
+            try (OffHeapDynamicArray<J> copy = copyRange(0, size)) {
+                insert(index, copy);
+            }
+            return this;
+        }
+        int count = other.size();
+        ensureCapacity(size + count);
+        move(index, index + count, size - index);
+        try {
+            writeAll(index, other);
+        } catch (RuntimeException e) {
+            // only the gap was written, so moving the tail back restores the array
+            move(index + count, index, size - index);
+            throw e;
+        }
+        size += count;
+        return this;
+    }
+
+    /**
+     * Returns a new off-heap array containing the elements in the range [fromIndex, toIndex).
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return copyRange(fromIndex, toIndex);
+    }
+
+    /**
+     * Returns a new off-heap array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        OffHeapDynamicArray<J> result = new OffHeapDynamicArray<J>(codec, newSize);
+        result.buffer.put(0, buffer, 0, fromIndex * width);
+        result.buffer.put(fromIndex * width, buffer, toIndex * width, (size - toIndex) * width);
+        result.size = newSize;
+        return result;
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new off-heap array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> extract(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        OffHeapDynamicArray<J> result = copyRange(fromIndex, toIndex);
+        move(toIndex, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new off-heap array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> splitSuffix(int index) {
+        checkPosition(index);
+        OffHeapDynamicArray<J> suffix = copyRange(index, size);
+        size = index;
+        return suffix;
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * @param index the position to split at
+     * @return a new off-heap array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     * @throws IllegalStateException if the array is closed
+     */
+    @Override
+    public OffHeapDynamicArray<J> splitPrefix(int index) {
+        checkPosition(index);
+        OffHeapDynamicArray<J> prefix = copyRange(0, index);
+        move(index, 0, size - index);
+        size -= index;
+        return prefix;
+    }
+}
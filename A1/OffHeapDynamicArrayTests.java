@@ -0,0 +1,246 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Random;
+
+public class OffHeapDynamicArrayTests {
+
+    private OffHeapDynamicArray<Character> a1;
+    private OffHeapDynamicArray<Character> a2;
+    private OffHeapDynamicArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = stringToArray("abcdef");
+        a2 = stringToArray("wxyz");
+        empty = stringToArray("");
+    }
+
+    @After
+    public void tearDown() {
+        a1.close();
+        a2.close();
+        empty.close();
+    }
+
+    /**
+     * Puts the characters of a string into an off-heap array of chars.
+     */
+    public OffHeapDynamicArray<Character> stringToArray(String s) {
+        OffHeapDynamicArray<Character> result = new OffHeapDynamicArray<Character>(ElementCodec.CHARS);
+        for (int i = 0; i < s.length(); i++) {
+            result.add(s.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    @Test
+    public void testEdits() {
+        a1.add(0, '<');
+        a1.add(4, '|');
+        a1.add('>');
+        compareToString(a1, "<abc|def>");
+        assertEquals((Character) '|', a1.remove(4));
+        assertEquals((Character) 'b', a1.set(2, 'B'));
+        compareToString(a1, "<aBcdef>");
+    }
+
+    @Test
+    public void testGroup3() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a2.toDynamicArray()), "abcdefwxyz");
+        compareToString(a1.sublist(2, 5), "cde");
+        compareToString(a1.delete(2, 5), "abf");
+        compareToString(a1, "abcdef");
+        compareToString(a1.insert(6, a2), "abcdefwxyz");
+        compareToString(a1.insert(0, a1), "abcdefwxyzabcdefwxyz");
+        compareToString(a1.extract(1, 19), "bcdefwxyzabcdefwxy");
+        compareToString(a1, "az");
+        compareToString(a2.splitPrefix(1), "w");
+        compareToString(a2.splitSuffix(2), "z");
+        compareToString(a2, "xy");
+        compareToString(empty.append(empty), "");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDeleteBounds() {
+        a1.delete(3, 3);
+    }
+
+    @Test
+    public void testClose() {
+        a1.close();
+        a1.close();
+        assertTrue(a1.isClosed());
+        assertEquals(0, a1.size());
+        try {
+            a1.get(0);
+            fail("get on a closed array should throw");
+        } catch (IllegalStateException expected) {
+        }
+        try (OffHeapDynamicArray<Long> longs = new OffHeapDynamicArray<Long>(ElementCodec.LONGS, 2)) {
+            longs.add(Long.MAX_VALUE);
+            longs.add(-1L);
+            assertEquals((Long) Long.MAX_VALUE, longs.get(0));
+            assertEquals((Long) (-1L), longs.get(1));
+        }
+    }
+
+    /**
+     * Returns the bytes of direct memory currently allocated by the JVM.
+     */
+    public long directMemoryUsed() {
+        for (java.lang.management.BufferPoolMXBean pool
+                : java.lang.management.ManagementFactory.getPlatformMXBeans(java.lang.management.BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A failed append or copy must free the buffer it allocated for the result.
+     */
+    @Test
+    public void testFailedCopiesFreeMemory() {
+        OffHeapDynamicArray<Character> big = new OffHeapDynamicArray<Character>(ElementCodec.CHARS, 1 << 22);
+        for (int i = 0; i < 1 << 22; i++) {
+            big.add('a');
+        }
+        DynamicArray<Character> withNull = new DynamicArray<Character>();
+        withNull.add('b');
+        withNull.add(null);
+        a2.close();
+        long before = directMemoryUsed();
+        for (int i = 0; i < 16; i++) {
+            try {
+                big.append(a2);
+                fail("appending a closed array should throw");
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                big.append(withNull);
+                fail("appending a null char should throw");
+            } catch (NullPointerException expected) {
+            }
+            try {
+                new OffHeapDynamicArray<Character>(ElementCodec.CHARS, withNull);
+                fail("copying a null char should throw");
+            } catch (NullPointerException expected) {
+            }
+        }
+        assertTrue(directMemoryUsed() - before < (1 << 23));
+        assertEquals(1 << 22, big.size());
+        big.close();
+    }
+
+    /**
+     * A failed insert must leave the array as it was.
+     */
+    @Test
+    public void testFailedInsertLeavesArray() {
+        OffHeapDynamicArray<Integer> arr = new OffHeapDynamicArray<Integer>(ElementCodec.INTS);
+        for (int i = 0; i < 4; i++) {
+            arr.add(i);
+        }
+        DynamicArray<Integer> withNull = new DynamicArray<Integer>();
+        withNull.add(100);
+        withNull.add(null);
+        try {
+            arr.insert(1, withNull);
+            fail("inserting a null int should throw");
+        } catch (NullPointerException expected) {
+        }
+        OffHeapDynamicArray<Integer> closed = new OffHeapDynamicArray<Integer>(ElementCodec.INTS);
+        closed.add(7);
+        closed.close();
+        try {
+            arr.insert(2, closed);
+            fail("inserting a closed array should throw");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(4, arr.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals((Integer) i, arr.get(i));
+        }
+        arr.close();
+    }
+
+    /**
+     * Stores two-int points with a user-defined codec.
+     */
+    @Test
+    public void testStructCodec() {
+        ElementCodec<int[]> points = new ElementCodec<int[]>() {
+            public int width() {
+                return 8;
+            }
+
+            public int[] read(ByteBuffer buffer, int offset) {
+                return new int[] {buffer.getInt(offset), buffer.getInt(offset + 4)};
+            }
+
+            public void write(ByteBuffer buffer, int offset, int[] value) {
+                buffer.putInt(offset, value[0]);
+                buffer.putInt(offset + 4, value[1]);
+            }
+        };
+        OffHeapDynamicArray<int[]> arr = new OffHeapDynamicArray<int[]>(points);
+        for (int i = 0; i < 100; i++) {
+            arr.add(new int[] {i, -i});
+        }
+        arr.add(50, new int[] {7, 7});
+        assertArrayEquals(new int[] {7, 7}, arr.get(50));
+        assertArrayEquals(new int[] {50, -50}, arr.get(51));
+        assertArrayEquals(new int[] {99, -99}, arr.get(100));
+        arr.close();
+    }
+
+    /**
+     * Runs random middle inserts and removes against ArrayList.
+     */
+    @Test
+    public void testRandomOps() {
+        Random rnd = new Random(17);
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        OffHeapDynamicArray<Integer> arr = new OffHeapDynamicArray<Integer>(ElementCodec.INTS);
+        for (int step = 0; step < 20000; step++) {
+            if (rnd.nextInt(3) > 0 || expected.isEmpty()) {
+                int at = rnd.nextInt(expected.size() + 1);
+                arr.add(at, step);
+                expected.add(at, step);
+            } else {
+                int at = rnd.nextInt(expected.size());
+                assertEquals(expected.remove(at), arr.remove(at));
+            }
+        }
+        assertEquals(expected.size(), arr.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), arr.get(i));
+        }
+        arr.close();
+    }
+}
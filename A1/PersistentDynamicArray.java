@@ -0,0 +1,381 @@
+/**
+ * A persistent dynamic array: a balanced tree of immutable Object[] chunks
+ * in which every version shares the nodes it did not change. The functional
+ * Group 3 operations (append, sublist, delete) return new arrays in O(log n)
+ * without copying elements, and any number of versions can be kept cheaply.
+ *
+ * Nodes are never modified after they are built. The Group 2 mutators and the
+ * other mutating ADT methods only re-point this array at a new root, so arrays
+ * derived from it earlier never observe the change. Use a Builder to construct
+ * large arrays without allocating a version per element.
+ */
+public class PersistentDynamicArray<J> implements DynamicArrayADT<J> {
+
+    /** Chunk size for built leaves, and the largest leaf small edits are merged into. */
+    static final int LEAF_SIZE = 32;
+
+    private static final ChunkTree<Object[], Object> TREE =
+            new ChunkTree<Object[], Object>(LEAF_SIZE, "Array would exceed " + Integer.MAX_VALUE + " elements.") {
+                @Override
+                Object[] allocate(int length) {
+                    return new Object[length];
+                }
+
+                @Override
+                Object read(Object[] chunk, int index) {
+                    return chunk[index];
+                }
+            };
+
+    private ChunkTree.Node<Object[]> root;
+
+    /**
+     * Converts any DynamicArrayADT into a node, sharing structure when it is already persistent.
+     */
+    private static <J> ChunkTree.Node<Object[]> nodeOf(DynamicArrayADT<J> other) {
+        if (other instanceof PersistentDynamicArray) {
+            return ((PersistentDynamicArray<J>) other).root;
+        }
+        Builder<J> builder = new Builder<J>();
+        builder.addAll(other);
+        return builder.buildNode();
+    }
+
+    private static ChunkTree.Node<Object[]> single(Object value) {
+        return TREE.leaf(new Object[] {value}, 0, 1);
+    }
+
+    // ~*~*~*~*~ construction ~*~*~*~*~
+
+    private PersistentDynamicArray(ChunkTree.Node<Object[]> root) {
+        this.root = root;
+    }
+
+    /**
+     * Constructs an empty PersistentDynamicArray.
+     */
+    public PersistentDynamicArray() {
+        this(TREE.empty());
+    }
+
+    /**
+     * Constructs a PersistentDynamicArray holding the elements of another array.
+     * When other is persistent the two share all of their nodes.
+     * @param other the array to copy
+     */
+    public PersistentDynamicArray(DynamicArrayADT<J> other) {
+        this(nodeOf(other));
+    }
+
+    /**
+     * A transient builder that collects elements into full chunks and turns them into
+     * a balanced tree once, in O(n), instead of creating a new version per element.
+     * A builder must not be used after build() has been called.
+     */
+    public static final class Builder<J> {
+        private ChunkTree.Node<Object[]>[] leaves = ChunkTree.nodes(4);
+        private int leafCount;
+        private Object[] tail = new Object[LEAF_SIZE];
+        private int tailSize;
+        private boolean built;
+
+        /**
+         * Adds one element to the end of the array being built.
+         * @param value the element to add
+         * @return this builder
+         */
+        public Builder<J> add(J value) {
+            if (built) {
+                throw new IllegalStateException("Builder already used.");
+            }
+            if (tailSize == LEAF_SIZE) {
+                flushTail();
+            }
+            tail[tailSize++] = value;
+            return this;
+        }
+
+        /**
+         * Adds all elements of another array to the end of the array being built.
+         * @param other the elements to add
+         * @return this builder
+         */
+        public Builder<J> addAll(DynamicArrayADT<J> other) {
+            for (int i = 0; i < other.size(); i++) {
+                add(other.get(i));
+            }
+            return this;
+        }
+
+        private void flushTail() {
+            if (leafCount == leaves.length) {
+                leaves = java.util.Arrays.copyOf(leaves, leafCount * 2);
+            }
+            leaves[leafCount++] = TREE.leaf(tail, 0, tailSize);
+            tail = new Object[LEAF_SIZE];
+            tailSize = 0;
+        }
+
+        private ChunkTree.Node<Object[]> buildNode() {
+            if (tailSize > 0) {
+                flushTail();
+            }
+            built = true;
+            return TREE.buildBalanced(leaves, 0, leafCount);
+        }
+
+        /**
+         * Returns the built array. The builder cannot be used afterwards.
+         * @return a new PersistentDynamicArray holding the added elements
+         */
+        public PersistentDynamicArray<J> build() {
+            return new PersistentDynamicArray<J>(buildNode());
+        }
+    }
+
+    /**
+     * Returns a DynamicArray holding the same elements.
+     * @return a new DynamicArray with the same elements
+     */
+    public DynamicArray<J> toDynamicArray() {
+        DynamicArray<J> result = new DynamicArray<J>(root.length);
+        result.addAll(this);
+        return result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= root.length) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > root.length || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    private void checkSplit(int index) {
+        if (index < 0 || index > root.length) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    // ~*~*~*~*~ functional updates ~*~*~*~*~
+
+    /**
+     * Returns a new version with the element at index replaced.
+     * @param index the index of the element to replace
+     * @param value the new value
+     * @return a new array that differs from this one only at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public PersistentDynamicArray<J> withSet(int index, J value) {
+        checkIndex(index);
+        return new PersistentDynamicArray<J>(TREE.replace(root, index, index + 1, single(value)));
+    }
+
+    /**
+     * Returns a new version with value inserted at index.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @return a new array with the value inserted
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public PersistentDynamicArray<J> withAdded(int index, J value) {
+        checkSplit(index);
+        ChunkTree.Node<Object[]>[] parts = TREE.split(root, index);
+        return new PersistentDynamicArray<J>(TREE.join(TREE.join(parts[0], single(value)), parts[1]));
+    }
+
+    /**
+     * Returns a new version without the element at index.
+     * @param index the index of the element to leave out
+     * @return a new array with the element removed
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public PersistentDynamicArray<J> withRemoved(int index) {
+        checkIndex(index);
+        ChunkTree.Node<Object[]>[] parts = TREE.split(root, index);
+        return new PersistentDynamicArray<J>(TREE.join(parts[0], TREE.split(parts[1], 1)[1]));
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index in O(log n).
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public J get(int index) {
+        checkIndex(index);
+        return (J) TREE.elementAt(root, index);
+    }
+
+    /**
+     * Replaces the element at the specified index in this array only.
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J set(int index, J value) {
+        J oldValue = get(index);
+        root = withSet(index, value).root;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements in the array.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return root.length;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the value at the given index of this array only.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public void add(int index, J value) {
+        root = withAdded(index, value).root;
+    }
+
+    /**
+     * Appends the value to the end of this array only.
+     * @param value the value to append
+     */
+    @Override
+    public void add(J value) {
+        root = TREE.join(root, single(value));
+    }
+
+    /**
+     * Removes and returns the element at the specified index of this array only.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public J remove(int index) {
+        J removedValue = get(index);
+        root = withRemoved(index).root;
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new array that is this one followed by other. When other is also
+     * persistent this is O(log n) and copies no elements.
+     * @param other the array to append
+     * @return a new array containing all elements from both
+     */
+    @Override
+    public PersistentDynamicArray<J> append(DynamicArrayADT<J> other) {
+        return new PersistentDynamicArray<J>(TREE.join(root, nodeOf(other)));
+    }
+
+    /**
+     * Inserts all elements of another array at the given index of this array only.
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public PersistentDynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
+        checkSplit(index);
+        ChunkTree.Node<Object[]> inserted = nodeOf(other);
+        ChunkTree.Node<Object[]>[] parts = TREE.split(root, index);
+        root = TREE.join(TREE.join(parts[0], inserted), parts[1]);
+        return this;
+    }
+
+    /**
+     * Returns a new array over the range [fromIndex, toIndex), sharing this array's chunks.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public PersistentDynamicArray<J> sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new PersistentDynamicArray<J>(TREE.slice(root, fromIndex, toIndex));
+    }
+
+    /**
+     * Returns a new array with the range [fromIndex, toIndex) left out, sharing this array's chunks.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public PersistentDynamicArray<J> delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return new PersistentDynamicArray<J>(TREE.join(TREE.split(root, fromIndex)[0], TREE.split(root, toIndex)[1]));
+    }
+
+    /**
+     * Removes the range [fromIndex, toIndex) from this array and returns it.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public PersistentDynamicArray<J> extract(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        ChunkTree.Node<Object[]>[] head = TREE.split(root, fromIndex);
+        ChunkTree.Node<Object[]>[] tail = TREE.split(head[1], toIndex - fromIndex);
+        root = TREE.join(head[0], tail[1]);
+        return new PersistentDynamicArray<J>(tail[0]);
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of this array.
+     * @param index the position to split at
+     * @return a new array containing the suffix
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public PersistentDynamicArray<J> splitSuffix(int index) {
+        checkSplit(index);
+        ChunkTree.Node<Object[]>[] parts = TREE.split(root, index);
+        root = parts[0];
+        return new PersistentDynamicArray<J>(parts[1]);
+    }
+
+    /**
+     * Returns and removes the elements before index.
+     * @param index the position to split at
+     * @return a new array containing the prefix
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public PersistentDynamicArray<J> splitPrefix(int index) {
+        checkSplit(index);
+        ChunkTree.Node<Object[]>[] parts = TREE.split(root, index);
+        root = parts[1];
+        return new PersistentDynamicArray<J>(parts[0]);
+    }
+
+    /**
+     * Returns the height of the tree, for tests and benchmarks.
+     */
+    int height() {
+        return root.height;
+    }
+}
@@ -0,0 +1,151 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class PersistentDynamicArrayTests {
+
+    private PersistentDynamicArray<Character> a1;
+    private PersistentDynamicArray<Character> a2;
+    private PersistentDynamicArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = stringToArray("abcdef");
+        a2 = stringToArray("wxyz");
+        empty = stringToArray("");
+    }
+
+    /**
+     * Builds a PersistentDynamicArray from the characters of a string.
+     */
+    public PersistentDynamicArray<Character> stringToArray(String s) {
+        PersistentDynamicArray.Builder<Character> builder = new PersistentDynamicArray.Builder<Character>();
+        for (int i = 0; i < s.length(); i++) {
+            builder.add(s.charAt(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    @Test
+    public void testFunctionalOpsLeaveReceiver() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(a1.sublist(1, 4), "bcd");
+        compareToString(a1.delete(1, 4), "aef");
+        compareToString(empty.append(empty), "");
+        compareToString(a1, "abcdef");
+        compareToString(a2, "wxyz");
+    }
+
+    @Test
+    public void testVersionsAreIndependent() {
+        PersistentDynamicArray<Character> joined = a1.append(a2);
+        PersistentDynamicArray<Character> v1 = joined.withSet(0, 'A');
+        PersistentDynamicArray<Character> v2 = v1.withAdded(3, '+').withRemoved(10);
+        compareToString(joined, "abcdefwxyz");
+        compareToString(v1, "Abcdefwxyz");
+        compareToString(v2, "Abc+defwxy");
+
+        // mutating a handle never shows through versions derived from it
+        joined.set(1, 'B');
+        joined.remove(0);
+        joined.add('!');
+        joined.extract(0, 2);
+        compareToString(joined, "defwxyz!");
+        compareToString(v1, "Abcdefwxyz");
+        compareToString(a1, "abcdef");
+    }
+
+    @Test
+    public void testMutatorsOnHandle() {
+        a1.add(0, '<');
+        a1.add('>');
+        assertEquals((Character) 'c', a1.set(3, 'C'));
+        assertEquals((Character) '<', a1.remove(0));
+        compareToString(a1, "abCdef>");
+        compareToString(a1.insert(2, a2), "abwxyzCdef>");
+        compareToString(a1.splitPrefix(2), "ab");
+        compareToString(a1.splitSuffix(4), "Cdef>");
+        compareToString(a1, "wxyz");
+        compareToString(a2, "wxyz");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(-1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testDeleteBounds() {
+        a1.delete(4, 2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBuilderSingleUse() {
+        PersistentDynamicArray.Builder<Character> builder = new PersistentDynamicArray.Builder<Character>();
+        builder.add('a');
+        builder.build();
+        builder.add('b');
+    }
+
+    @Test
+    public void testInterop() {
+        DynamicArray<Character> plain = a1.toDynamicArray();
+        compareToString(plain, "abcdef");
+        compareToString(new PersistentDynamicArray<Character>(plain), "abcdef");
+        compareToString(a2.append(plain), "wxyzabcdef");
+    }
+
+    /**
+     * Chains random functional operations and checks each result against ArrayList.
+     */
+    @Test
+    public void testRandomChains() {
+        Random rnd = new Random(5);
+        PersistentDynamicArray.Builder<Integer> builder = new PersistentDynamicArray.Builder<Integer>();
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(i);
+            expected.add(i);
+        }
+        PersistentDynamicArray<Integer> arr = builder.build();
+        for (int step = 0; step < 2000; step++) {
+            int op = rnd.nextInt(3);
+            if (op == 0 || expected.size() < 10) {
+                arr = arr.append(arr.sublist(0, Math.min(50, arr.size())));
+                expected.addAll(new ArrayList<Integer>(expected.subList(0, Math.min(50, expected.size()))));
+            } else if (op == 1) {
+                int from = rnd.nextInt(expected.size() - 1);
+                int to = from + 1 + rnd.nextInt(Math.min(40, expected.size() - from - 1));
+                arr = arr.delete(from, to);
+                expected.subList(from, to).clear();
+            } else {
+                int at = rnd.nextInt(expected.size() + 1);
+                arr = arr.withAdded(at, -step);
+                expected.add(at, -step);
+            }
+        }
+        assertEquals(expected.size(), arr.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), arr.get(i));
+        }
+        int bound = 2 * (32 - Integer.numberOfLeadingZeros(arr.size() + 1));
+        assertTrue("height " + arr.height() + " exceeds " + bound, arr.height() <= bound);
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PrimitiveDynamicArrayTests {
+
+    private CharDynamicArray a1;
+    private CharDynamicArray a2;
+    private CharDynamicArray empty;
+
+    /**
+     * Re-initializes the char arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = CharDynamicArray.of("abcdef".toCharArray());
+        a2 = CharDynamicArray.of("wxyz".toCharArray());
+        empty = new CharDynamicArray();
+    }
+
+    /**
+     * Compares the contents of a CharDynamicArray against a string.
+     */
+    public void compareToString(CharDynamicArray arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        assertEquals(s, new String(arr.toArray()));
+    }
+
+    @Test
+    public void testGetSetAddRemove() {
+        assertEquals('c', a1.get(2));
+        assertEquals('c', a1.set(2, 'C'));
+        a1.add(0, '_');
+        a1.add('!');
+        compareToString(a1, "_abCdef!");
+        assertEquals('_', a1.remove(0));
+        assertEquals('!', a1.remove(a1.size() - 1));
+        compareToString(a1, "abCdef");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAddBounds() {
+        a1.add(7, 'x');
+    }
+
+    @Test
+    public void testAppend() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.append(a1), "abcdefabcdef");
+        compareToString(empty.append(a2), "wxyz");
+        compareToString(a1, "abcdef");
+    }
+
+    @Test
+    public void testInsert() {
+        compareToString(a1.insert(3, a2), "abcwxyzdef");
+        compareToString(a2.insert(1, a2), "wwxyzxyz");
+        compareToString(empty.insert(0, a1), "abcwxyzdef");
+    }
+
+    @Test
+    public void testSublistDeleteExtract() {
+        compareToString(a1.sublist(1, 3), "bc");
+        compareToString(a1.delete(1, 3), "adef");
+        compareToString(a1, "abcdef");
+        compareToString(a1.extract(1, 3), "bc");
+        compareToString(a1, "adef");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testExtractBounds() {
+        a1.extract(-1, 5);
+    }
+
+    @Test
+    public void testSplit() {
+        compareToString(a1.splitPrefix(2), "ab");
+        compareToString(a1, "cdef");
+        compareToString(a1.splitSuffix(3), "f");
+        compareToString(a1, "cde");
+    }
+
+    @Test
+    public void testConvert() {
+        DynamicArray<Character> boxed = a1.toDynamicArray();
+        assertEquals(6, boxed.size());
+        assertEquals((Character) 'f', boxed.get(5));
+        compareToString(CharDynamicArray.from(boxed), "abcdef");
+    }
+
+    @Test
+    public void testIntAndLong() {
+        IntDynamicArray ints = IntDynamicArray.of(1, 2, 3);
+        ints.add(1, 9);
+        assertArrayEquals(new int[] {1, 9, 2, 3}, ints.toArray());
+        LongDynamicArray longs = LongDynamicArray.of(1L << 40, 7L);
+        assertEquals(1L << 40, longs.splitPrefix(1).get(0));
+        assertEquals(7L, longs.get(0));
+    }
+
+    @Test
+    public void testBulkAndReuse() {
+        char[] chars = "xyz-abc".toCharArray();
+        a1.addAll(chars, 4, 3);
+        compareToString(a1, "abcdefabc");
+        assertEquals(2, a1.indexOf('c', 0));
+        assertEquals(8, a1.indexOf('c', 3));
+        assertEquals(-1, a1.indexOf('z', 0));
+        a1.copyTo(3, 6, chars, 0);
+        assertArrayEquals("def-abc".toCharArray(), chars);
+        a1.clear();
+        compareToString(a1, "");
+        a1.add('q');
+        compareToString(a1, "q");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCopyToBounds() {
+        a1.copyTo(2, 7, new char[10], 0);
+    }
+}
@@ -0,0 +1,1517 @@
+/**
+ * Small timing harness for DynamicArray, in the spirit of RunTests.
+ * Run every benchmark, or only the ones named on the command line:
+ *
+ *   java -cp . RunBenchmarks            (all)
+ *   java -cp . RunBenchmarks insert     (just one)
+ */
+public class RunBenchmarks {
+
+    private static final int WARMUP = 3;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) {
+        String[] names = args.length > 0 ? args : new String[] {"insert", "split", "primitive", "gap", "rope", "deque", "tiered", "persistent", "view", "cow", "offheap", "mapped", "sed", "multi", "bulk", "iterate", "concurrent", "ingest", "growth", "adt", "metrics", "sort", "index", "batch"};
+        for (String name : names) {
+            switch (name) {
+                case "insert":
+                    benchInsert();
+                    break;
+                case "split":
+                    benchSplit();
+                    break;
+                case "primitive":
+                    benchPrimitive();
+                    break;
+                case "gap":
+                    benchGapBuffer();
+                    break;
+                case "rope":
+                    benchRope();
+                    break;
+                case "deque":
+                    benchDeque();
+                    break;
+                case "tiered":
+                    benchTiered();
+                    break;
+                case "persistent":
+                    benchPersistent();
+                    break;
+                case "view":
+                    benchView();
+                    break;
+                case "cow":
+                    benchCopyOnWrite();
+                    break;
+                case "offheap":
+                    benchOffHeap();
+                    break;
+                case "mapped":
+                    benchMapped();
+                    break;
+                case "sed":
+                    benchStreamEditor();
+                    break;
+                case "multi":
+                    benchMultiPattern();
+                    break;
+                case "bulk":
+                    benchBulk();
+                    break;
+                case "iterate":
+                    benchIterate();
+                    break;
+                case "concurrent":
+                    benchConcurrent();
+                    break;
+                case "ingest":
+                    benchIngest();
+                    break;
+                case "growth":
+                    benchGrowth();
+                    break;
+                case "adt":
+                    benchAdt();
+                    break;
+                case "metrics":
+                    benchMetrics();
+                    break;
+                case "sort":
+                    benchSort();
+                    break;
+                case "index":
+                    benchIndex();
+                    break;
+                case "batch":
+                    benchBatch();
+                    break;
+                default:
+                    System.out.println("Unknown benchmark: " + name);
+            }
+        }
+    }
+
+    /**
+     * Returns the best time in nanoseconds over a few runs, after a short warmup.
+     * @param task the work to time
+     * @return the fastest run in nanoseconds
+     */
+    static long time(Runnable task) {
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Builds a DynamicArray holding 0..n-1.
+     * @param n the number of elements
+     * @return the filled array
+     */
+    static DynamicArray<Integer> filled(int n) {
+        DynamicArray<Integer> arr = new DynamicArray<Integer>(n);
+        for (int i = 0; i < n; i++) {
+            arr.add(i);
+        }
+        return arr;
+    }
+
+    /**
+     * Prints one result row.
+     */
+    static void report(String label, long baselineNanos, long nanos) {
+        System.out.printf("  %-44s %12.3f ms %12.3f ms %8.1fx%n",
+                label, baselineNanos / 1e6, nanos / 1e6, (double) baselineNanos / nanos);
+    }
+
+    static void header(String title, String baseline, String candidate) {
+        System.out.println("\n== " + title + " ==");
+        System.out.printf("  %-44s %15s %15s %9s%n", "case", baseline, candidate, "speedup");
+    }
+
+    // ~*~*~*~*~ insert(int, DynamicArrayADT) ~*~*~*~*~
+
+    /**
+     * Splices m elements into the middle of an n-element array, comparing the
+     * element-at-a-time add loop against the bulk insert.
+     */
+    static void benchInsert() {
+        header("insert: n = target size, m = inserted size", "add loop", "insert");
+        int[] ns = {1_000, 10_000, 100_000};
+        int[] ms = {10, 1_000, 10_000};
+        for (int n : ns) {
+            for (int m : ms) {
+                DynamicArray<Integer> other = filled(m);
+                long loop = time(() -> {
+                    DynamicArray<Integer> target = filled(n);
+                    int index = n / 2;
+                    for (int i = 0; i < other.size(); i++) {
+                        target.add(index + i, other.get(i));
+                    }
+                });
+                long bulk = time(() -> filled(n).insert(n / 2, other));
+                report("n=" + n + " m=" + m, loop, bulk);
+            }
+        }
+    }
+
+    // ~*~*~*~*~ splitPrefix / splitSuffix ~*~*~*~*~
+
+    /**
+     * Splits an n-element array in half. The element-at-a-time versions are what
+     * splitPrefix/splitSuffix used to do; the prefix one is quadratic, so it is
+     * only run on the smaller sizes.
+     */
+    static void benchSplit() {
+        header("split at n/2", "baseline", "candidate");
+        int[] ns = {10_000, 100_000, 1_000_000};
+        for (int n : ns) {
+            int index = n / 2;
+            if (n <= 100_000) {
+                long loop = time(() -> {
+                    DynamicArray<Integer> arr = filled(n);
+                    DynamicArray<Integer> prefix = new DynamicArray<Integer>();
+                    for (int i = 0; i < index; i++) {
+                        prefix.add(prefix.size(), arr.get(i));
+                    }
+                    for (int i = 0; i < index; i++) {
+                        arr.remove(0);
+                    }
+                });
+                report("splitPrefix loop vs block n=" + n, loop, time(() -> filled(n).splitPrefix(index)));
+            }
+            long suffixLoop = time(() -> {
+                DynamicArray<Integer> arr = filled(n);
+                DynamicArray<Integer> suffix = new DynamicArray<Integer>();
+                for (int i = index; i < arr.size(); i++) {
+                    suffix.add(suffix.size(), arr.get(i));
+                }
+                while (arr.size() > index) {
+                    arr.remove(arr.size() - 1);
+                }
+            });
+            report("splitSuffix loop vs block n=" + n, suffixLoop, time(() -> filled(n).splitSuffix(index)));
+            int big = n - n / 10;
+            report("splitPrefix block vs steal n=" + n + " @90%",
+                    time(() -> filled(n).splitPrefix(big)), time(() -> filled(n).splitPrefix(big, true)));
+        }
+    }
+
+    // ~*~*~*~*~ CharDynamicArray vs DynamicArray<Character> ~*~*~*~*~
+
+    /**
+     * Returns the heap currently in use, after asking for a collection.
+     */
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /**
+     * Compares heap footprint and fill/scan throughput of a boxed
+     * DynamicArray<Character> against CharDynamicArray.
+     */
+    static void benchPrimitive() {
+        int n = 5_000_000;
+        long before = usedHeap();
+        DynamicArray<Character> boxed = new DynamicArray<Character>();
+        for (int i = 0; i < n; i++) {
+            boxed.add((char) ('a' + i % 26 + (i % 7) * 128)); // mostly outside the Character cache
+        }
+        long boxedBytes = usedHeap() - before;
+
+        before = usedHeap();
+        CharDynamicArray chars = new CharDynamicArray();
+        for (int i = 0; i < n; i++) {
+            chars.add((char) ('a' + i % 26 + (i % 7) * 128));
+        }
+        long charBytes = usedHeap() - before;
+
+        System.out.println("\n== footprint, n=" + n + " ==");
+        System.out.printf("  DynamicArray<Character> %8.1f bytes/element%n", (double) boxedBytes / n);
+        System.out.printf("  CharDynamicArray        %8.1f bytes/element%n", (double) charBytes / n);
+        if (boxed.size() != chars.size()) {
+            throw new AssertionError("size mismatch");
+        }
+
+        header("throughput, n=" + n, "boxed", "char");
+        report("fill with add(value)", time(() -> {
+            DynamicArray<Character> arr = new DynamicArray<Character>();
+            for (int i = 0; i < n; i++) {
+                arr.add((char) ('a' + i % 26 + (i % 7) * 128));
+            }
+        }), time(() -> {
+            CharDynamicArray arr = new CharDynamicArray();
+            for (int i = 0; i < n; i++) {
+                arr.add((char) ('a' + i % 26 + (i % 7) * 128));
+            }
+        }));
+        long[] sink = new long[1];
+        report("scan with get(i)", time(() -> {
+            long sum = 0;
+            for (int i = 0; i < boxed.size(); i++) {
+                sum += boxed.get(i);
+            }
+            sink[0] += sum;
+        }), time(() -> {
+            long sum = 0;
+            for (int i = 0; i < chars.size(); i++) {
+                sum += chars.get(i);
+            }
+            sink[0] += sum;
+        }));
+        report("append", time(() -> boxed.append(boxed)), time(() -> chars.append(chars)));
+    }
+
+    // ~*~*~*~*~ GapBufferArray vs DynamicArray ~*~*~*~*~
+
+    /**
+     * Replays an editor-like session on an array: the cursor starts in the middle,
+     * types a word, backspaces over part of it and drifts a few positions, repeatedly.
+     */
+    static void editSession(DynamicArrayADT<Integer> arr, int rounds) {
+        int cursor = arr.size() / 2;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < 8; i++) {
+                arr.add(cursor++, i);
+            }
+            for (int i = 0; i < 3; i++) {
+                arr.remove(--cursor);
+            }
+            cursor = Math.max(0, Math.min(arr.size(), cursor + (r % 5) - 2));
+        }
+    }
+
+    /**
+     * Compares localized edit sessions on DynamicArray and GapBufferArray.
+     */
+    static void benchGapBuffer() {
+        header("localized edits, 1k rounds of type/backspace", "DynamicArray", "GapBuffer");
+        int[] ns = {1_000, 10_000, 100_000, 300_000};
+        for (int n : ns) {
+            DynamicArray<Integer> base = filled(n);
+            long plain = time(() -> editSession(new DynamicArray<Integer>(base), 1_000));
+            long gap = time(() -> editSession(new GapBufferArray<Integer>(base), 1_000));
+            report("n=" + n, plain, gap);
+        }
+    }
+
+    // ~*~*~*~*~ CharRope on a large synthetic file ~*~*~*~*~
+
+    /**
+     * Edits a synthetic file of -Drope.mb mebi-characters (default 1024, i.e. 1 GB of
+     * ASCII text) held in a CharRope. The file is built by repeatedly appending the rope
+     * to itself, so the chunks are shared and it fits in a small heap. The copying
+     * baseline is a CharDynamicArray of -Drope.copyMb (default 64), since every
+     * append/delete there copies the whole array.
+     */
+    static void benchRope() {
+        int mb = Integer.getInteger("rope.mb", 1024);
+        int copyMb = Integer.getInteger("rope.copyMb", 64);
+        java.util.Random rnd = new java.util.Random(7);
+        char[] chunk = new char[1 << 20];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = i % 80 == 79 ? '\n' : (char) ('a' + rnd.nextInt(26));
+        }
+
+        long start = System.nanoTime();
+        CharRope rope = new CharRope(new String(chunk));
+        while (rope.size() < (long) mb << 20) {
+            rope = rope.append(rope);
+        }
+        System.out.printf("%n== rope, %d MiB chars ==%n", rope.size() >> 20);
+        System.out.printf("  build by doubling                %10.3f ms (height %d)%n",
+                (System.nanoTime() - start) / 1e6, rope.height());
+
+        CharRope patch = new CharRope("replacement text\n");
+        int ops = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            int at = rnd.nextInt(rope.size() - 100);
+            switch (i % 3) {
+                case 0:
+                    rope.insert(at, patch);
+                    break;
+                case 1:
+                    rope = rope.delete(at, at + 1 + rnd.nextInt(80));
+                    break;
+                default:
+                    rope.sublist(at, at + 80);
+            }
+        }
+        System.out.printf("  insert/delete/sublist mix        %10.3f us/op (height %d)%n",
+                (System.nanoTime() - start) / 1e3 / ops, rope.height());
+        start = System.nanoTime();
+        CharRope joined = rope.append(rope);
+        System.out.printf("  append rope to itself            %10.3f us (size %d)%n",
+                (System.nanoTime() - start) / 1e3, (long) joined.size());
+
+        CharDynamicArray flat = new CharDynamicArray();
+        for (int i = 0; i < copyMb; i++) {
+            flat = flat.append(CharDynamicArray.of(chunk));
+        }
+        CharDynamicArray patchFlat = CharDynamicArray.of("replacement text\n".toCharArray());
+        int flatOps = 30;
+        start = System.nanoTime();
+        for (int i = 0; i < flatOps; i++) {
+            int at = rnd.nextInt(flat.size() - 100);
+            switch (i % 3) {
+                case 0:
+                    flat = flat.append(patchFlat);
+                    break;
+                case 1:
+                    flat = flat.delete(at, at + 1 + rnd.nextInt(80));
+                    break;
+                default:
+                    flat.sublist(at, at + 80);
+            }
+        }
+        System.out.printf("  CharDynamicArray %4d MiB mix     %10.3f us/op (copies grow with size)%n",
+                copyMb, (System.nanoTime() - start) / 1e3 / flatOps);
+    }
+
+    // ~*~*~*~*~ CircularDynamicArray as a queue/deque ~*~*~*~*~
+
+    /**
+     * Runs queue and deque workloads over a standing population of n elements,
+     * using only the DynamicArrayADT methods so both implementations do the same calls.
+     */
+    static void benchDeque() {
+        header("queue/deque, 20k ops over n standing elements", "DynamicArray", "Circular");
+        int ops = 20_000;
+        int[] ns = {100, 10_000, 50_000};
+        for (int n : ns) {
+            DynamicArray<Integer> base = filled(n);
+            report("FIFO add(v)/remove(0) n=" + n,
+                    time(() -> fifo(new DynamicArray<Integer>(base), ops)),
+                    time(() -> fifo(new CircularDynamicArray<Integer>(base), ops)));
+            report("LIFO at head add(0,v)/remove(0) n=" + n,
+                    time(() -> headStack(new DynamicArray<Integer>(base), ops / 10)),
+                    time(() -> headStack(new CircularDynamicArray<Integer>(base), ops / 10)));
+            report("random middle add/remove n=" + n,
+                    time(() -> middle(new DynamicArray<Integer>(base), ops / 10)),
+                    time(() -> middle(new CircularDynamicArray<Integer>(base), ops / 10)));
+        }
+    }
+
+    static void fifo(DynamicArrayADT<Integer> arr, int ops) {
+        for (int i = 0; i < ops; i++) {
+            arr.add(i);
+            arr.remove(0);
+        }
+    }
+
+    static void headStack(DynamicArrayADT<Integer> arr, int ops) {
+        for (int i = 0; i < ops; i++) {
+            arr.add(0, i);
+        }
+        for (int i = 0; i < ops; i++) {
+            arr.remove(0);
+        }
+    }
+
+    static void middle(DynamicArrayADT<Integer> arr, int ops) {
+        int seed = 12345;
+        for (int i = 0; i < ops; i++) {
+            seed = seed * 1103515245 + 12345;
+            int at = (seed >>> 1) % (arr.size() + 1);
+            arr.add(at, i);
+            arr.remove((seed >>> 3) % arr.size());
+        }
+    }
+
+    // ~*~*~*~*~ TieredDynamicArray crossover ~*~*~*~*~
+
+    /**
+     * Random middle add/remove pairs and a full get scan at growing sizes, to show
+     * where the O(sqrt(n)) tiered vector overtakes DynamicArray's O(n) shifts.
+     */
+    static void benchTiered() {
+        header("2k random middle add/remove pairs", "DynamicArray", "Tiered");
+        int[] ns = {100, 1_000, 10_000, 100_000, 1_000_000};
+        for (int n : ns) {
+            DynamicArray<Integer> base = filled(n);
+            DynamicArray<Integer> plain = new DynamicArray<Integer>(base);
+            TieredDynamicArray<Integer> tiered = new TieredDynamicArray<Integer>(base);
+            report("n=" + n, time(() -> middle(plain, 2_000)), time(() -> middle(tiered, 2_000)));
+        }
+        header("get(i) scan", "DynamicArray", "Tiered");
+        for (int n : new int[] {10_000, 1_000_000}) {
+            DynamicArray<Integer> plain = filled(n);
+            TieredDynamicArray<Integer> tiered = new TieredDynamicArray<Integer>(plain);
+            long[] sink = new long[1];
+            report("n=" + n, time(() -> {
+                for (int i = 0; i < plain.size(); i++) {
+                    sink[0] += plain.get(i);
+                }
+            }), time(() -> {
+                for (int i = 0; i < tiered.size(); i++) {
+                    sink[0] += tiered.get(i);
+                }
+            }));
+        }
+    }
+
+    // ~*~*~*~*~ PersistentDynamicArray functional chains ~*~*~*~*~
+
+    /**
+     * Runs 200 rounds of append -> sublist -> delete on an n-element array, keeping
+     * every intermediate version alive, with the copying DynamicArray and the
+     * persistent array. Also times building n elements with a Builder.
+     */
+    static void benchPersistent() {
+        header("200 rounds of append/sublist/delete", "DynamicArray", "Persistent");
+        for (int n : new int[] {1_000, 100_000, 500_000}) {
+            DynamicArray<Integer> plain = filled(n);
+            PersistentDynamicArray<Integer> persistent = new PersistentDynamicArray<Integer>(plain);
+            report("n=" + n, time(() -> chain(plain, 200)), time(() -> chain(persistent, 200)));
+        }
+        header("build n elements", "DynamicArray", "Builder");
+        for (int n : new int[] {100_000, 1_000_000}) {
+            report("n=" + n, time(() -> filled(n)), time(() -> {
+                PersistentDynamicArray.Builder<Integer> builder = new PersistentDynamicArray.Builder<Integer>();
+                for (int i = 0; i < n; i++) {
+                    builder.add(i);
+                }
+                builder.build();
+            }));
+        }
+    }
+
+    static void chain(DynamicArrayADT<Integer> start, int rounds) {
+        DynamicArrayADT<Integer>[] versions = newVersions(rounds);
+        DynamicArrayADT<Integer> current = start;
+        for (int r = 0; r < rounds; r++) {
+            int n = current.size();
+            current = current.append(current.sublist(0, 10));
+            current = current.sublist(5, current.size());
+            current = current.delete(n / 3, n / 3 + 5);
+            versions[r] = current;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static DynamicArrayADT<Integer>[] newVersions(int count) {
+        return (DynamicArrayADT<Integer>[]) new DynamicArrayADT<?>[count];
+    }
+
+    // ~*~*~*~*~ sublist vs sublistView ~*~*~*~*~
+
+    /**
+     * Takes 10k read-only slices of length len from a 1M-element array and reads
+     * the first and last element of each, with copying sublist and with sublistView.
+     */
+    static void benchView() {
+        header("10k read-only slices of a 1M array", "sublist", "sublistView");
+        DynamicArray<Integer> arr = filled(1_000_000);
+        long[] sink = new long[1];
+        for (int len : new int[] {10, 1_000, 100_000}) {
+            report("len=" + len, time(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    int from = (i * 7919) % (arr.size() - len);
+                    DynamicArrayADT<Integer> slice = arr.sublist(from, from + len);
+                    sink[0] += slice.get(0) + slice.get(len - 1);
+                }
+            }), time(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    int from = (i * 7919) % (arr.size() - len);
+                    DynamicArrayADT<Integer> slice = arr.sublistView(from, from + len);
+                    sink[0] += slice.get(0) + slice.get(len - 1);
+                }
+            }));
+        }
+    }
+
+    // ~*~*~*~*~ copy-on-write copies ~*~*~*~*~
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Copies an n-element array 1000 times and reads a few elements of each copy,
+     * once with an eager element copy and once with the copy-on-write constructor.
+     */
+    static void benchCopyOnWrite() {
+        int copies = 1_000;
+        header("1000 copy-then-read", "eager copy", "COW copy");
+        for (int n : new int[] {100, 10_000, 1_000_000}) {
+            DynamicArray<Integer> original = filled(n);
+            long[] sink = new long[1];
+            Runnable eager = () -> {
+                for (int i = 0; i < copies; i++) {
+                    DynamicArray<Integer> copy = new DynamicArray<Integer>(original.size());
+                    copy.addAll(original);
+                    sink[0] += copy.get(0) + copy.get(n - 1);
+                }
+            };
+            Runnable cow = () -> {
+                for (int i = 0; i < copies; i++) {
+                    DynamicArray<Integer> copy = new DynamicArray<Integer>(original);
+                    sink[0] += copy.get(0) + copy.get(n - 1);
+                }
+            };
+            report("n=" + n, time(eager), time(cow));
+            long before = allocatedBytes();
+            eager.run();
+            long eagerBytes = allocatedBytes() - before;
+            before = allocatedBytes();
+            cow.run();
+            long cowBytes = allocatedBytes() - before;
+            System.out.printf("  %-44s %12d B/copy %10d B/copy%n", "  allocated", eagerBytes / copies, cowBytes / copies);
+        }
+    }
+
+    // ~*~*~*~*~ off-heap storage ~*~*~*~*~
+
+    /**
+     * Returns the total time, in nanoseconds, the garbage collectors have spent so far.
+     */
+    static long gcNanos() {
+        long millis = 0;
+        for (java.lang.management.GarbageCollectorMXBean bean : java.lang.management.ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis * 1_000_000L;
+    }
+
+    /**
+     * Keeps n longs alive, on the heap or off it, and measures the garbage collector
+     * while a workload churns short-lived objects and while full collections run.
+     */
+    static void benchOffHeap() {
+        header("GC time with n live longs", "DynamicArray", "off-heap");
+        for (int n : new int[] {1_000_000, 10_000_000}) {
+            long[] heapGc = new long[2];
+            DynamicArray<Long> onHeap = new DynamicArray<Long>(n);
+            for (int i = 0; i < n; i++) {
+                onHeap.add((long) i);
+            }
+            long heapUsed = usedHeap();
+            gcPhases(heapGc);
+            Long keep = onHeap.get(n - 1);
+            onHeap = null;
+
+            long[] offGc = new long[2];
+            long offUsed;
+            try (OffHeapDynamicArray<Long> offHeap = new OffHeapDynamicArray<Long>(ElementCodec.LONGS, n)) {
+                for (int i = 0; i < n; i++) {
+                    offHeap.add((long) i);
+                }
+                offUsed = usedHeap();
+                gcPhases(offGc);
+                keep += offHeap.get(n - 1);
+            }
+            report("n=" + n + " churn, GC time", heapGc[0], Math.max(1, offGc[0]));
+            report("n=" + n + " 10 full GCs", heapGc[1], Math.max(1, offGc[1]));
+            System.out.printf("  %-44s %12d MB %12d MB%n", "  heap in use", heapUsed >> 20, offUsed >> 20);
+            if (keep == 0) {
+                System.out.println();
+            }
+        }
+    }
+
+    /**
+     * Records GC time during an allocation churn into result[0] and the wall time
+     * of ten full collections into result[1].
+     */
+    static void gcPhases(long[] result) {
+        long before = gcNanos();
+        long sink = 0;
+        for (int round = 0; round < 200; round++) {
+            DynamicArray<Integer> garbage = filled(100_000);
+            sink += garbage.get(round);
+        }
+        result[0] = gcNanos() - before;
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+        }
+        result[1] = System.nanoTime() - start;
+        if (sink == 0) {
+            System.out.println();
+        }
+    }
+
+    // ~*~*~*~*~ memory-mapped files ~*~*~*~*~
+
+    /**
+     * Opens an n-byte file, makes a few edits near the middle and writes the result,
+     * once by reading it into a DynamicArray one add at a time and once through a
+     * MappedCharArray. Finally maps a sparse file larger than the heap.
+     */
+    static void benchMapped() {
+        header("open, edit, write an n-byte file", "DynamicArray", "MappedCharArray");
+        java.nio.file.Path source = null;
+        java.nio.file.Path target = null;
+        try {
+            source = java.nio.file.Files.createTempFile("bench", ".txt");
+            target = java.nio.file.Files.createTempFile("bench", ".out");
+            final java.nio.file.Path in = source;
+            final java.nio.file.Path out = target;
+            for (int n : new int[] {1_000_000, 10_000_000}) {
+                byte[] text = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    text[i] = (byte) (i % 64 == 63 ? '\n' : 'a' + i % 26);
+                }
+                java.nio.file.Files.write(in, text);
+                Runnable eager = () -> {
+                    try {
+                        byte[] bytes = java.nio.file.Files.readAllBytes(in);
+                        DynamicArray<Character> arr = new DynamicArray<Character>();
+                        for (byte b : bytes) {
+                            arr.add((char) (b & 0xff));
+                        }
+                        editMiddle(arr);
+                        byte[] result = new byte[arr.size()];
+                        for (int i = 0; i < result.length; i++) {
+                            result[i] = (byte) arr.get(i).charValue();
+                        }
+                        java.nio.file.Files.write(out, result);
+                    } catch (java.io.IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                };
+                Runnable mapped = () -> {
+                    try {
+                        MappedCharArray arr = new MappedCharArray(in);
+                        editMiddle(arr);
+                        arr.writeTo(out);
+                    } catch (java.io.IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                };
+                report("n=" + n, time(eager), time(mapped));
+            }
+
+            java.nio.file.Files.write(in, new byte[0]);
+            long length = Integer.MAX_VALUE;
+            try (java.io.RandomAccessFile file = new java.io.RandomAccessFile(in.toFile(), "rw")) {
+                file.setLength(length);
+            }
+            long start = System.nanoTime();
+            MappedCharArray huge = new MappedCharArray(in);
+            char last = huge.get(huge.size() - 1);
+            long nanos = System.nanoTime() - start;
+            System.out.printf("  %-44s %15s %12.3f ms  (heap max %d MB)%n", "open " + (length >> 20) + " MB sparse file, read last",
+                    "-", nanos / 1e6, Runtime.getRuntime().maxMemory() >> 20);
+            if (last != 0) {
+                System.out.println();
+            }
+        } catch (java.io.IOException e) {
+            System.out.println("  skipped: " + e);
+        } finally {
+            try {
+                if (source != null) {
+                    java.nio.file.Files.deleteIfExists(source);
+                }
+                if (target != null) {
+                    java.nio.file.Files.deleteIfExists(target);
+                }
+            } catch (java.io.IOException e) {
+                System.out.println("  could not delete temp files: " + e);
+            }
+        }
+    }
+
+    /**
+     * Inserts and removes a handful of characters around the middle of an array.
+     */
+    static void editMiddle(DynamicArrayADT<Character> arr) {
+        int mid = arr.size() / 2;
+        for (int i = 0; i < 10; i++) {
+            arr.add(mid + i * 100, '#');
+            arr.remove(mid - i * 100);
+            arr.set(mid + i * 50, '!');
+        }
+    }
+
+    // ~*~*~*~*~ streaming replace ~*~*~*~*~
+
+    /**
+     * Replaces a word throughout a synthetic file of 80-character lines, once with
+     * BufferedReader.readLine and String.replace and once with StreamEditor, and
+     * reports throughput and bytes allocated per line.
+     */
+    static void benchStreamEditor() {
+        java.nio.file.Path source = null;
+        java.nio.file.Path target = null;
+        try {
+            source = java.nio.file.Files.createTempFile("bench", ".txt");
+            target = java.nio.file.Files.createTempFile("bench", ".out");
+            final java.nio.file.Path in = source;
+            final java.nio.file.Path out = target;
+            int lines = 1_000_000;
+            try (java.io.BufferedWriter writer = java.nio.file.Files.newBufferedWriter(in)) {
+                for (int i = 0; i < lines; i++) {
+                    writer.write(i % 7 == 0 ? "the quick brown fox jumps over the lazy dog and the needle hides in the hay!!"
+                            : "the quick brown fox jumps over the lazy dog while needles are nowhere to be seen");
+                    writer.write('\n');
+                }
+            }
+            long bytes = java.nio.file.Files.size(in);
+            Runnable readLines = () -> {
+                try (java.io.BufferedReader reader = java.nio.file.Files.newBufferedReader(in);
+                     java.io.BufferedWriter writer = java.nio.file.Files.newBufferedWriter(out)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        writer.write(line.replace("needle", "pin"));
+                        writer.write('\n');
+                    }
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+            StreamEditor editor = new StreamEditor("needle", "pin");
+            Runnable stream = () -> {
+                try {
+                    editor.run(in, out);
+                } catch (java.io.IOException e) {
+                    throw new RuntimeException(e);
+                }
+            };
+            header("replace in " + (bytes >> 20) + " MB, " + lines + " lines", "readLine+replace", "StreamEditor");
+            long baseline = time(readLines);
+            long nanos = time(stream);
+            report("time", baseline, nanos);
+            System.out.printf("  %-44s %12.1f MB/s %10.1f MB/s%n", "  throughput",
+                    bytes / 1e6 / (baseline / 1e9), bytes / 1e6 / (nanos / 1e9));
+            long before = allocatedBytes();
+            readLines.run();
+            long baselineBytes = allocatedBytes() - before;
+            before = allocatedBytes();
+            stream.run();
+            long streamBytes = allocatedBytes() - before;
+            System.out.printf("  %-44s %12.1f B/line %10.3f B/line%n", "  allocated",
+                    (double) baselineBytes / lines, (double) streamBytes / lines);
+        } catch (java.io.IOException e) {
+            System.out.println("  skipped: " + e);
+        } finally {
+            try {
+                if (source != null) {
+                    java.nio.file.Files.deleteIfExists(source);
+                }
+                if (target != null) {
+                    java.nio.file.Files.deleteIfExists(target);
+                }
+            } catch (java.io.IOException e) {
+                System.out.println("  could not delete temp files: " + e);
+            }
+        }
+    }
+
+    // ~*~*~*~*~ multi-pattern replace ~*~*~*~*~
+
+    /**
+     * Applies k word substitutions to 200k characters of random words, once as k
+     * single-pattern scans and once with a MultiPatternReplacer.
+     */
+    static void benchMultiPattern() {
+        java.util.Random rnd = new java.util.Random(42);
+        String[] vocabulary = new String[2000];
+        for (int w = 0; w < vocabulary.length; w++) {
+            StringBuilder word = new StringBuilder();
+            int length = 4 + rnd.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                word.append((char) ('a' + rnd.nextInt(26)));
+            }
+            vocabulary[w] = word.toString();
+        }
+        DynamicArray<Character> text = new DynamicArray<Character>();
+        while (text.size() < 200_000) {
+            String word = vocabulary[rnd.nextInt(vocabulary.length)];
+            for (int i = 0; i < word.length(); i++) {
+                text.add(word.charAt(i));
+            }
+            text.add(' ');
+        }
+        header("replace k words in 200k chars", "k scans", "Aho-Corasick");
+        for (int k : new int[] {10, 100, 500}) {
+            String[] patterns = java.util.Arrays.copyOf(vocabulary, k);
+            String[] replacements = new String[k];
+            for (int p = 0; p < k; p++) {
+                replacements[p] = patterns[p].toUpperCase();
+            }
+            Runnable scans = () -> {
+                DynamicArray<Character> current = text;
+                for (int p = 0; p < k; p++) {
+                    current = replaceOne(current, patterns[p], replacements[p]);
+                }
+            };
+            MultiPatternReplacer replacer = new MultiPatternReplacer(patterns, replacements);
+            Runnable automaton = () -> replacer.replaceAll(text);
+            report("k=" + k, time(scans), time(automaton));
+        }
+    }
+
+    /**
+     * Replaces every occurrence of one pattern by checking it at each position.
+     */
+    static DynamicArray<Character> replaceOne(DynamicArray<Character> text, String pattern, String replacement) {
+        DynamicArray<Character> result = new DynamicArray<Character>(text.size());
+        int n = text.size();
+        int i = 0;
+        while (i < n) {
+            int j = 0;
+            while (j < pattern.length() && i + j < n && text.get(i + j) == pattern.charAt(j)) {
+                j++;
+            }
+            if (j == pattern.length()) {
+                for (int r = 0; r < replacement.length(); r++) {
+                    result.add(replacement.charAt(r));
+                }
+                i += j;
+            } else {
+                result.add(text.get(i));
+                i++;
+            }
+        }
+        return result;
+    }
+
+    // ~*~*~*~*~ parallel bulk operations ~*~*~*~*~
+
+    /**
+     * Times count, map and reduce over 2M elements: an index loop of get calls, the
+     * sequential bulk operations, and the parallel ones on pools of 1 to N workers.
+     */
+    static void benchBulk() {
+        int n = 2_000_000;
+        int threshold = 16_384;
+        DynamicArray<Integer> arr = filled(n);
+        java.util.function.Predicate<Integer> heavy = x -> Integer.bitCount(x * 0x9E3779B9) % 3 == 0
+                && Math.sqrt(x) > 10;
+        header("count over " + n + " elements", "get loop", "bulk");
+        long loop = time(() -> {
+            int matches = 0;
+            for (int i = 0; i < arr.size(); i++) {
+                if (heavy.test(arr.get(i))) {
+                    matches++;
+                }
+            }
+            if (matches < 0) {
+                System.out.println();
+            }
+        });
+        report("sequential count", loop, time(() -> arr.count(heavy)));
+        long sequentialCount = time(() -> arr.count(heavy));
+        long sequentialMap = time(() -> arr.map(x -> x * 31 + 7));
+        long sequentialReduce = time(() -> arr.reduce(0, Integer::sum));
+        header("parallel bulk ops over " + n + " elements", "sequential", "parallel");
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int workers = 1; workers <= Math.max(cores, 2); workers *= 2) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(workers);
+            report("count, " + workers + " workers of " + cores + " cores", sequentialCount,
+                    time(() -> pool.submit(() -> arr.count(heavy, threshold)).join()));
+            report("map, " + workers + " workers", sequentialMap,
+                    time(() -> pool.submit(() -> arr.map(x -> x * 31 + 7, threshold)).join()));
+            report("reduce, " + workers + " workers", sequentialReduce,
+                    time(() -> pool.submit(() -> arr.reduce(0, Integer::sum, threshold)).join()));
+            pool.shutdown();
+        }
+    }
+
+    // ~*~*~*~*~ iteration ~*~*~*~*~
+
+    /**
+     * Sums n elements with an indexed get loop, a for-each loop over the iterator,
+     * a sequential stream and a parallel stream.
+     */
+    static void benchIterate() {
+        header("sum n elements", "get loop", "candidate");
+        for (int n : new int[] {10_000, 1_000_000}) {
+            DynamicArray<Integer> arr = filled(n);
+            long[] sink = new long[1];
+            long loop = time(() -> {
+                long sum = 0;
+                for (int i = 0; i < arr.size(); i++) {
+                    sum += arr.get(i);
+                }
+                sink[0] += sum;
+            });
+            report("n=" + n + " for-each", loop, time(() -> {
+                long sum = 0;
+                for (Integer x : arr) {
+                    sum += x;
+                }
+                sink[0] += sum;
+            }));
+            report("n=" + n + " stream", loop, time(() -> sink[0] += arr.stream().mapToLong(x -> x).sum()));
+            report("n=" + n + " parallelStream", loop,
+                    time(() -> sink[0] += arr.parallelStream().mapToLong(x -> x).sum()));
+        }
+    }
+
+    // ~*~*~*~*~ ConcurrentDynamicArray ~*~*~*~*~
+
+    /**
+     * Threads share one array and do a fixed total of random gets and sets between
+     * them, at several read/write mixes. The baseline is a DynamicArray with every call
+     * wrapped in synchronized, which is what sharing it across threads takes today.
+     */
+    static void benchConcurrent() {
+        header("1M ops over n=100000, shared by t threads", "synchronized", "StampedLock");
+        int n = 100_000;
+        int ops = 1_000_000;
+        DynamicArray<Integer> plain = filled(n);
+        ConcurrentDynamicArray<Integer> concurrent = new ConcurrentDynamicArray<Integer>(plain);
+        for (int threads : new int[] {1, 2, 4, 8}) {
+            for (int readPercent : new int[] {100, 95, 50}) {
+                long locked = time(() -> runThreads(threads, ops / threads, readPercent, n, (index, write) -> {
+                    synchronized (plain) {
+                        if (write) {
+                            plain.set(index, index);
+                        } else {
+                            plain.get(index);
+                        }
+                    }
+                }));
+                long stamped = time(() -> runThreads(threads, ops / threads, readPercent, n, (index, write) -> {
+                    if (write) {
+                        concurrent.set(index, index);
+                    } else {
+                        concurrent.get(index);
+                    }
+                }));
+                report("t=" + threads + " reads=" + readPercent + "%", locked, stamped);
+            }
+        }
+    }
+
+    private interface ArrayOp {
+        void apply(int index, boolean write);
+    }
+
+    /**
+     * Starts the threads together and waits for all of them. Each draws its indices
+     * from its own generator so the threads share nothing but the array.
+     */
+    private static void runThreads(int threads, int opsPerThread, int readPercent, int n, ArrayOp op) {
+        java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t + 1;
+            workers[t] = new Thread(() -> {
+                java.util.SplittableRandom rnd = new java.util.SplittableRandom(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < opsPerThread; i++) {
+                    op.apply(rnd.nextInt(n), rnd.nextInt(100) >= readPercent);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ~*~*~*~*~ AppendOnlyArray ~*~*~*~*~
+
+    /**
+     * Producer threads append a fixed total of 2M elements to one fresh shared array.
+     * The baseline is a DynamicArray with add wrapped in synchronized, so it also
+     * copies everything on every resize while holding the lock.
+     */
+    static void benchIngest() {
+        header("2M adds shared by t producers", "synchronized", "AppendOnlyArray");
+        int adds = 2_000_000;
+        Integer value = 42;
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32, 64}) {
+            long locked = time(() -> {
+                DynamicArray<Integer> arr = new DynamicArray<Integer>();
+                runThreads(threads, adds / threads, 0, 1, (index, write) -> {
+                    synchronized (arr) {
+                        arr.add(value);
+                    }
+                });
+            });
+            long appendOnly = time(() -> {
+                AppendOnlyArray<Integer> arr = new AppendOnlyArray<Integer>();
+                runThreads(threads, adds / threads, 0, 1, (index, write) -> arr.add(value));
+            });
+            report("t=" + threads, locked, appendOnly);
+        }
+    }
+
+    // ~*~*~*~*~ GrowthPolicy ~*~*~*~*~
+
+    /**
+     * Appends 1M elements under each growth policy, timing it and counting reallocations
+     * and the high-water mark in slots, which is reached while the old and new backing
+     * arrays are both alive during a copy. Then compares shrinking with and without
+     * hysteresis on a size that moves back and forth across a boundary.
+     */
+    static void benchGrowth() {
+        int n = 1_000_000;
+        String[] names = {"doubling", "1.5x", "chunks of 4096", "caller: double up to +64K"};
+        GrowthPolicy[] policies = {GrowthPolicy.DOUBLING, GrowthPolicy.ONE_AND_A_HALF, GrowthPolicy.chunks(4096),
+                (capacity, minCapacity) -> Math.max(minCapacity, capacity + Math.min(Math.max(capacity, 8), 1 << 16))};
+        System.out.println("\n== growth: append 1M elements ==");
+        System.out.printf("  %-28s %12s %10s %14s %14s%n", "policy", "time", "reallocs", "peak slots", "final slots");
+        Integer value = 42;
+        for (int p = 0; p < policies.length; p++) {
+            GrowthPolicy policy = policies[p];
+            long[] stats = new long[2];
+            GrowthPolicy counting = (capacity, minCapacity) -> {
+                int next = policy.grow(capacity, minCapacity);
+                stats[0]++;
+                stats[1] = Math.max(stats[1], (long) capacity + next);
+                return next;
+            };
+            long best = Long.MAX_VALUE;
+            DynamicArray<Integer> arr = null;
+            for (int r = 0; r < WARMUP + RUNS; r++) {
+                stats[0] = 0;
+                stats[1] = 0;
+                long start = System.nanoTime();
+                arr = new DynamicArray<Integer>(0, counting);
+                for (int i = 0; i < n; i++) {
+                    arr.add(value);
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("  %-28s %9.3f ms %10d %14d %14d%n", names[p], best / 1e6, stats[0], stats[1], arr.capacity());
+        }
+
+        header("shrink: size crossing a boundary 100K times", "no hysteresis", "withShrinking");
+        GrowthPolicy eager = new GrowthPolicy() {
+            public int grow(int capacity, int minCapacity) {
+                return GrowthPolicy.DOUBLING.grow(capacity, minCapacity);
+            }
+
+            public int shrink(int capacity, int size) {
+                return size <= capacity / 2 && capacity > GrowthPolicy.MIN_CAPACITY ? capacity / 2 : capacity;
+            }
+        };
+        for (int size : new int[] {1 << 8, 1 << 12}) {
+            long thrash = time(() -> oscillate(new DynamicArray<Integer>(0, eager), size, 100_000));
+            long hysteresis = time(() -> oscillate(new DynamicArray<Integer>(0, GrowthPolicy.DOUBLING.withShrinking()), size, 100_000));
+            report("boundary=" + size, thrash, hysteresis);
+        }
+        DynamicArray<Integer> kept = new DynamicArray<Integer>();
+        DynamicArray<Integer> shrunk = new DynamicArray<Integer>(0, GrowthPolicy.DOUBLING.withShrinking());
+        for (int i = 0; i < n; i++) {
+            kept.add(value);
+            shrunk.add(value);
+        }
+        kept.extract(1000, n);
+        shrunk.extract(1000, n);
+        System.out.printf("  %-44s %12d slots %9d slots%n", "capacity after extracting all but 1000",
+                kept.capacity(), shrunk.capacity());
+    }
+
+    /**
+     * Fills an array to a boundary, then adds one element and removes it again, times over.
+     */
+    private static void oscillate(DynamicArray<Integer> arr, int boundary, int times) {
+        for (int i = 0; i < boundary; i++) {
+            arr.add(i);
+        }
+        for (int i = 0; i < times; i++) {
+            arr.add(i);
+            arr.remove(arr.size() - 1);
+        }
+    }
+
+    // ~*~*~*~*~ every DynamicArrayADT operation vs ArrayList ~*~*~*~*~
+
+    /** Keeps operation results reachable so the JIT cannot drop the work. */
+    static Object sink;
+
+    private interface Op<T> {
+        Object apply(T target, int n);
+    }
+
+    /**
+     * One ADT operation, written once for DynamicArray and once as the closest
+     * ArrayList equivalent. Mutating operations get a fresh copy per invocation.
+     */
+    private static final class AdtCase {
+        final String name;
+        final boolean mutates;
+        final Op<DynamicArray<Integer>> array;
+        final Op<java.util.ArrayList<Integer>> list;
+
+        AdtCase(String name, boolean mutates, Op<DynamicArray<Integer>> array, Op<java.util.ArrayList<Integer>> list) {
+            this.name = name;
+            this.mutates = mutates;
+            this.array = array;
+            this.list = list;
+        }
+    }
+
+    /**
+     * Runs every DynamicArrayADT operation at sizes 10 to 10^7 against ArrayList,
+     * JMH style: invocations are batched so that short operations are timed over about
+     * a million elements' worth of work, setup (copying the input of mutating
+     * operations) is left out of the timing, and the best of RUNS after WARMUP is kept.
+     * Allocation per operation and GC time are recorded alongside, and all results
+     * are written as JSON to the file named by -Dbenchmark.json (adt-benchmark.json).
+     */
+    static void benchAdt() {
+        Integer x = -1;
+        AdtCase[] cases = {
+            new AdtCase("get", false, (a, n) -> a.get(n / 2), (l, n) -> l.get(n / 2)),
+            new AdtCase("set", false, (a, n) -> a.set(n / 2, x), (l, n) -> l.set(n / 2, x)),
+            new AdtCase("add head", true, (a, n) -> { a.add(0, x); return a; }, (l, n) -> { l.add(0, x); return l; }),
+            new AdtCase("add middle", true, (a, n) -> { a.add(n / 2, x); return a; }, (l, n) -> { l.add(n / 2, x); return l; }),
+            new AdtCase("add tail", true, (a, n) -> { a.add(x); return a; }, (l, n) -> l.add(x)),
+            new AdtCase("remove middle", true, (a, n) -> a.remove(n / 2), (l, n) -> l.remove(n / 2)),
+            new AdtCase("append", false, (a, n) -> a.append(a), (l, n) -> {
+                java.util.ArrayList<Integer> result = new java.util.ArrayList<Integer>(2 * n);
+                result.addAll(l);
+                result.addAll(l);
+                return result;
+            }),
+            new AdtCase("insert middle", true, (a, n) -> a.insert(n / 2, a), (l, n) -> l.addAll(n / 2, new java.util.ArrayList<Integer>(l))),
+            new AdtCase("sublist half", false, (a, n) -> a.sublist(n / 4, 3 * n / 4),
+                    (l, n) -> new java.util.ArrayList<Integer>(l.subList(n / 4, 3 * n / 4))),
+            new AdtCase("delete half", false, (a, n) -> a.delete(n / 4, 3 * n / 4), (l, n) -> {
+                java.util.ArrayList<Integer> result = new java.util.ArrayList<Integer>(n - (3 * n / 4 - n / 4));
+                result.addAll(l.subList(0, n / 4));
+                result.addAll(l.subList(3 * n / 4, n));
+                return result;
+            }),
+            new AdtCase("extract half", true, (a, n) -> a.extract(n / 4, 3 * n / 4), (l, n) -> cut(l, n / 4, 3 * n / 4)),
+            new AdtCase("splitPrefix half", true, (a, n) -> a.splitPrefix(n / 2), (l, n) -> cut(l, 0, n / 2)),
+            new AdtCase("splitSuffix half", true, (a, n) -> a.splitSuffix(n / 2), (l, n) -> cut(l, n / 2, n)),
+        };
+        StringBuilder json = new StringBuilder("[\n");
+        for (int n : new int[] {10, 1_000, 100_000, 10_000_000}) {
+            System.out.println("\n== ADT operations, n=" + n + " ==");
+            System.out.printf("  %-22s %25s %25s %8s%n", "operation", "ArrayList", "DynamicArray", "speedup");
+            DynamicArray<Integer> array = filled(n);
+            java.util.ArrayList<Integer> list = new java.util.ArrayList<Integer>(n);
+            for (int i = 0; i < n; i++) {
+                list.add(array.get(i));
+            }
+            for (AdtCase c : cases) {
+                // enough invocations to cover about a million elements, fewer when each copies the array
+                int batch = Math.max(1, (c.mutates ? 1_000_000 : 10_000_000) / n);
+                double[] base = measure(batch, c.mutates ? k -> new java.util.ArrayList<Integer>(list) : k -> list, c.list, n);
+                double[] cand = measure(batch, c.mutates ? k -> copyOf(array, n) : k -> array, c.array, n);
+                System.out.printf("  %-22s %10.1f ns %8.0f B %10.1f ns %8.0f B %7.1fx%n",
+                        c.name, base[0], base[1], cand[0], cand[1], base[0] / cand[0]);
+                appendJson(json, c.name, n, "ArrayList", base);
+                appendJson(json, c.name, n, "DynamicArray", cand);
+            }
+        }
+        json.setLength(json.length() - 2);
+        json.append("\n]\n");
+        java.nio.file.Path out = java.nio.file.Paths.get(System.getProperty("benchmark.json", "adt-benchmark.json"));
+        try {
+            java.nio.file.Files.write(out, json.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            System.out.println("\n  results written to " + out.toAbsolutePath());
+        } catch (java.io.IOException e) {
+            System.out.println("\n  could not write " + out + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Times batch invocations of op, each on its own target from setup, and returns
+     * the best {ns per op, bytes allocated per op, GC ms during the run}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> double[] measure(int batch, java.util.function.IntFunction<T> setup, Op<T> op, int n) {
+        double[] best = {Double.MAX_VALUE, 0, 0};
+        Object[] targets = new Object[batch];
+        for (int r = 0; r < WARMUP + RUNS; r++) {
+            for (int k = 0; k < batch; k++) {
+                targets[k] = setup.apply(k);
+            }
+            long gcBefore = gcNanos();
+            long allocBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int k = 0; k < batch; k++) {
+                sink = op.apply((T) targets[k], n);
+            }
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocBefore;
+            long gc = gcNanos() - gcBefore;
+            if (r >= WARMUP && (double) nanos / batch < best[0]) {
+                best[0] = (double) nanos / batch;
+                best[1] = (double) allocated / batch;
+                best[2] = gc / 1e6;
+            }
+        }
+        sink = null;
+        return best;
+    }
+
+    private static DynamicArray<Integer> copyOf(DynamicArray<Integer> array, int n) {
+        DynamicArray<Integer> copy = new DynamicArray<Integer>(n);
+        copy.addAll(array);
+        return copy;
+    }
+
+    /**
+     * ArrayList's equivalent of extract: copies out [from, to) and removes it.
+     */
+    private static java.util.ArrayList<Integer> cut(java.util.ArrayList<Integer> list, int from, int to) {
+        java.util.List<Integer> range = list.subList(from, to);
+        java.util.ArrayList<Integer> result = new java.util.ArrayList<Integer>(range);
+        range.clear();
+        return result;
+    }
+
+    private static void appendJson(StringBuilder json, String operation, int n, String impl, double[] result) {
+        json.append(String.format(java.util.Locale.ROOT,
+                "  {\"operation\": \"%s\", \"size\": %d, \"impl\": \"%s\", \"nsPerOp\": %.1f, \"bytesPerOp\": %.0f, \"gcMillis\": %.3f},\n",
+                operation, n, impl, result[0], result[1], result[2]));
+    }
+
+    // ~*~*~*~*~ ArrayMetrics ~*~*~*~*~
+
+    /**
+     * Runs the instrumented operations with metrics off and on. With metrics off each
+     * operation only adds a null check, so compare the "off" column with the same
+     * benchmark built from a tree without ArrayMetrics to confirm it costs nothing;
+     * the "on" column shows what recording costs.
+     */
+    static void benchMetrics() {
+        header("operations with metrics", "off", "on");
+        Integer value = 42;
+        ArrayMetrics metrics = new ArrayMetrics();
+        long offAdd = time(() -> appendMany(null, value));
+        report("1M add", offAdd, time(() -> appendMany(metrics, value)));
+        ArrayMetrics sampled = new ArrayMetrics(64);
+        report("1M add, latency sampled 1 in 64", offAdd, time(() -> appendMany(sampled, value)));
+        DynamicArray<Integer> arr = filled(1_000);
+        long off = time(() -> churnMiddle(arr, value, 100_000));
+        arr.setMetrics(metrics);
+        long on = time(() -> churnMiddle(arr, value, 100_000));
+        report("100K add(n/2) + remove(n/2), n=1000", off, on);
+        arr.setMetrics(null);
+        off = time(() -> setMany(arr, value, 1_000_000));
+        arr.setMetrics(metrics);
+        on = time(() -> setMany(arr, value, 1_000_000));
+        report("1M set", off, on);
+        arr.setMetrics(null);
+        off = time(() -> sink = arr.sublist(1, 999));
+        arr.setMetrics(metrics);
+        on = time(() -> sink = arr.sublist(1, 999));
+        report("sublist of 998", off, on);
+        System.out.print("  recorded while on:\n    " + metrics.toString().trim().replace("\n", "\n    ") + "\n");
+    }
+
+    private static void appendMany(ArrayMetrics metrics, Integer value) {
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setMetrics(metrics);
+        for (int i = 0; i < 1_000_000; i++) {
+            arr.add(value);
+        }
+        sink = arr;
+    }
+
+    private static void churnMiddle(DynamicArray<Integer> arr, Integer value, int times) {
+        int middle = arr.size() / 2;
+        for (int i = 0; i < times; i++) {
+            arr.add(middle, value);
+            arr.remove(middle);
+        }
+    }
+
+    private static void setMany(DynamicArray<Integer> arr, Integer value, int times) {
+        int n = arr.size();
+        for (int i = 0; i < times; i++) {
+            arr.set(i % n, value);
+        }
+    }
+
+    // ~*~*~*~*~ sort, binarySearch, addSorted ~*~*~*~*~
+
+    /**
+     * Sorts shuffled arrays, comparing sorting a copy taken out with get and written
+     * back with set against sort in place, sequential and as a parallel merge sort.
+     * Each run first restores the shuffled order, which both columns pay. Then keeps an
+     * array sorted while adding to it, re-sorting a copy after each add against addSorted.
+     */
+    static void benchSort() {
+        header("sort: n shuffled Integers, natural order", "copy-out", "in place");
+        for (int n : new int[] {10_000, 100_000, 1_000_000}) {
+            Integer[] shuffled = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                shuffled[i] = i;
+            }
+            java.util.Collections.shuffle(java.util.Arrays.asList(shuffled), new java.util.Random(1));
+            DynamicArray<Integer> arr = filled(n);
+            long copyOut = time(() -> {
+                restore(arr, shuffled);
+                Object[] out = new Object[arr.size()];
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = arr.get(i);
+                }
+                java.util.Arrays.sort(out);
+                for (int i = 0; i < out.length; i++) {
+                    @SuppressWarnings("unchecked")
+                    Integer value = (Integer) out[i];
+                    arr.set(i, value);
+                }
+            });
+            report("sort(null), n=" + n, copyOut, time(() -> {
+                restore(arr, shuffled);
+                arr.sort(null);
+            }));
+            int threshold = Math.max(n / 16, 1_000);
+            report("sort(null, " + threshold + "), n=" + n + ", " + java.util.concurrent.ForkJoinPool.getCommonPoolParallelism() + " workers",
+                    copyOut, time(() -> {
+                        restore(arr, shuffled);
+                        arr.sort(null, threshold);
+                    }));
+        }
+
+        header("keep sorted: n random adds into 10K sorted elements", "add + re-sort", "addSorted");
+        for (int n : new int[] {100, 1_000}) {
+            java.util.Random random = new java.util.Random(2);
+            Integer[] values = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt(10_000);
+            }
+            long resort = time(() -> {
+                DynamicArray<Integer> arr = filled(10_000);
+                for (Integer value : values) {
+                    arr.add(value);
+                    Object[] out = new Object[arr.size()];
+                    for (int i = 0; i < out.length; i++) {
+                        out[i] = arr.get(i);
+                    }
+                    java.util.Arrays.sort(out);
+                    for (int i = 0; i < out.length; i++) {
+                        arr.set(i, (Integer) out[i]);
+                    }
+                }
+                sink = arr;
+            });
+            report("n=" + n, resort, time(() -> {
+                DynamicArray<Integer> arr = filled(10_000);
+                for (Integer value : values) {
+                    arr.addSorted(value, null);
+                }
+                sink = arr;
+            }));
+        }
+    }
+
+    private static void restore(DynamicArray<Integer> arr, Integer[] values) {
+        for (int i = 0; i < values.length; i++) {
+            arr.set(i, values[i]);
+        }
+    }
+
+    // ~*~*~*~*~ indexOf with the hash index ~*~*~*~*~
+
+    /**
+     * Runs a mixed workload of lookups and mutations on 100K elements, scanning against
+     * the hash index. The mutations are set at random positions, add and remove at the
+     * end, and, in the last rows, add and remove at random positions, which the index
+     * follows by splitting and joining its tree instead of renumbering positions.
+     */
+    static void benchIndex() {
+        header("mixed lookups and mutations, n=100K, 5K ops", "scan", "indexed");
+        int n = 100_000;
+        int ops = 5_000;
+        for (int lookupPercent : new int[] {90, 50}) {
+            for (boolean middle : new boolean[] {false, true}) {
+                String label = lookupPercent + "% indexOf/contains, " + (middle ? "shifts anywhere" : "set + tail ops");
+                long scan = time(() -> sink = mixed(filled(n), false, ops, lookupPercent, middle));
+                report(label, scan, time(() -> sink = mixed(filled(n), true, ops, lookupPercent, middle)));
+            }
+        }
+        report("1 lookup after building (index build cost)",
+                time(() -> sink = mixed(filled(n), false, 1, 100, false)),
+                time(() -> sink = mixed(filled(n), true, 1, 100, false)));
+    }
+
+    private static int mixed(DynamicArray<Integer> arr, boolean indexed, int ops, int lookupPercent, boolean middle) {
+        arr.setIndexed(indexed);
+        java.util.Random random = new java.util.Random(5);
+        int n = arr.size();
+        int found = 0;
+        for (int op = 0; op < ops; op++) {
+            int r = random.nextInt(100);
+            Integer value = random.nextInt(n);
+            if (r < lookupPercent) {
+                found += r % 2 == 0 ? arr.indexOf(value) : arr.contains(value) ? 1 : 0;
+            } else if (r % 3 == 0) {
+                arr.set(random.nextInt(arr.size()), value);
+            } else if (r % 3 == 1) {
+                if (middle) {
+                    arr.add(random.nextInt(arr.size()), value);
+                } else {
+                    arr.add(value);
+                }
+            } else {
+                arr.remove(middle ? random.nextInt(arr.size()) : arr.size() - 1);
+            }
+        }
+        return found;
+    }
+
+    // ~*~*~*~*~ EditBatch ~*~*~*~*~
+
+    /**
+     * Applies k edits at scattered positions of a 100K-element array, a third each
+     * inserts, removes and replacements, one at a time from the back against one
+     * EditBatch commit. Both columns include building the array.
+     */
+    static void benchBatch() {
+        header("k scattered edits on n=100K", "one at a time", "EditBatch");
+        int n = 100_000;
+        for (int k : new int[] {10, 100, 1_000, 10_000}) {
+            java.util.Random random = new java.util.Random(k);
+            int[] positions = random.ints(0, n).distinct().limit(k).sorted().toArray();
+            Integer value = -1;
+            long single = time(() -> {
+                DynamicArray<Integer> arr = filled(n);
+                for (int e = k - 1; e >= 0; e--) {
+                    int i = positions[e];
+                    switch (i % 3) {
+                        case 0: arr.add(i, value); break;
+                        case 1: arr.remove(i); break;
+                        default: arr.set(i, value);
+                    }
+                }
+                sink = arr;
+            });
+            report("k=" + k, single, time(() -> {
+                DynamicArray<Integer> arr = filled(n);
+                DynamicArray<Integer>.EditBatch batch = arr.edit();
+                for (int i : positions) {
+                    switch (i % 3) {
+                        case 0: batch.insert(i, value); break;
+                        case 1: batch.remove(i); break;
+                        default: batch.replace(i, value);
+                    }
+                }
+                sink = batch.commit();
+            }));
+        }
+    }
+}
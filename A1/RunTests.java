@@ -26,7 +26,11 @@ public class RunTests {
         });
 
         // run the student’s test class
-        Result result = core.run(DynamicArrayTests.class);
+        Result result = core.run(DynamicArrayTests.class, PrimitiveDynamicArrayTests.class,
+                GapBufferArrayTests.class, CharRopeTests.class, CircularDynamicArrayTests.class,
+                TieredDynamicArrayTests.class, PersistentDynamicArrayTests.class,
+                OffHeapDynamicArrayTests.class, MappedCharArrayTests.class,
+                StreamEditorTests.class, MultiPatternReplacerTests.class, ConcurrentDynamicArrayTests.class, AppendOnlyArrayTests.class, ArrayMetricsTests.class, ArrayEventsTests.class, ValueIndexTests.class);
 
         System.out.println("\n====================");
         System.out.println("Summary:");
@@ -0,0 +1,325 @@
+/**
+ * A simplified sed: copies text from an input to an output, replacing a literal
+ * pattern in each line (like s/pattern/replacement/ or, when global, .../g).
+ *
+ * The work is a pipeline of fixed-size stages. Bytes are read in chunks into one
+ * reusable buffer and decoded into another. The characters of each line collect in
+ * a single CharDynamicArray that is cleared and reused for every line. A KMP matcher
+ * scans the line and writes the result into an output buffer, which is encoded and
+ * written whenever it fills. Nothing is allocated per line once the line buffer has
+ * grown to fit, and a line longer than the line buffer is matched in pieces, with
+ * the matcher state carried between them, so memory stays bounded for any input.
+ *
+ * An editor reuses its buffers from one run to the next, so it is not thread-safe.
+ */
+public class StreamEditor {
+    private static final int CHUNK = 64 * 1024;
+    private static final int MAX_LINE_BUFFER = 64 * 1024;
+
+    private final char[] pattern;
+    private final int[] fallback;
+    private final char[] replacement;
+    private final boolean global;
+    private final java.nio.charset.CharsetDecoder decoder;
+    private final java.nio.charset.CharsetEncoder encoder;
+    private final java.nio.ByteBuffer inBytes;
+    private final java.nio.CharBuffer inChars;
+    private final java.nio.CharBuffer outChars;
+    private final char[] outArray;
+    private final java.nio.ByteBuffer outBytes;
+    private final CharDynamicArray line;
+
+    private java.nio.channels.WritableByteChannel out;
+    private int outCount;
+    private int matched;
+    private boolean lineReplaced;
+    private long replacements;
+
+    /**
+     * Constructs an editor that replaces every occurrence of pattern in UTF-8 text.
+     * @param pattern the literal text to find
+     * @param replacement the text to put in its place
+     * @throws IllegalArgumentException if pattern is empty
+     */
+    public StreamEditor(String pattern, String replacement) {
+        this(pattern, replacement, true, java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructs an editor.
+     * @param pattern the literal text to find
+     * @param replacement the text to put in its place
+     * @param global true to replace every occurrence in a line, false for only the first
+     * @param charset the encoding of both the input and the output
+     * @throws IllegalArgumentException if pattern is empty
+     */
+    public StreamEditor(String pattern, String replacement, boolean global, java.nio.charset.Charset charset) {
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern is empty.");
+        }
+        this.pattern = pattern.toCharArray();
+        this.fallback = fallbackTable(this.pattern);
+        this.replacement = replacement.toCharArray();
+        this.global = global;
+        this.decoder = charset.newDecoder();
+        this.encoder = charset.newEncoder();
+        this.inBytes = java.nio.ByteBuffer.allocate(CHUNK);
+        this.inChars = java.nio.CharBuffer.allocate(CHUNK);
+        this.outArray = new char[CHUNK];
+        this.outChars = java.nio.CharBuffer.wrap(outArray);
+        this.outBytes = java.nio.ByteBuffer.allocate(CHUNK * 4);
+        this.line = new CharDynamicArray(256);
+    }
+
+    /**
+     * Builds the KMP table: entry i is the length of the longest proper prefix of
+     * pattern[0..i] that is also a suffix of it.
+     */
+    private static int[] fallbackTable(char[] pattern) {
+        int[] table = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = table[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            table[i] = k;
+        }
+        return table;
+    }
+
+    /**
+     * Edits one file into another.
+     * @param source the file to read
+     * @param target the file to write, replaced if it exists
+     * @return the number of replacements made
+     * @throws java.io.IOException if reading or writing fails, or the input is not valid in the charset
+     * @throws IllegalArgumentException if source and target are the same file
+     */
+    public long run(java.nio.file.Path source, java.nio.file.Path target) throws java.io.IOException {
+        if (java.nio.file.Files.exists(target) && java.nio.file.Files.isSameFile(source, target)) {
+            throw new IllegalArgumentException("Cannot edit a file in place: " + target);
+        }
+        try (java.nio.channels.FileChannel in = java.nio.channels.FileChannel.open(source, java.nio.file.StandardOpenOption.READ);
+             java.nio.channels.FileChannel output = java.nio.channels.FileChannel.open(target,
+                     java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                     java.nio.file.StandardOpenOption.WRITE)) {
+            return run(in, output);
+        }
+    }
+
+    /**
+     * Edits everything read from one channel into another. Neither channel is closed.
+     * @param in the channel to read
+     * @param output the channel to write
+     * @return the number of replacements made
+     * @throws java.io.IOException if reading or writing fails, or the input is not valid in the charset
+     */
+    public long run(java.nio.channels.ReadableByteChannel in, java.nio.channels.WritableByteChannel output) throws java.io.IOException {
+        out = output;
+        decoder.reset();
+        encoder.reset();
+        inBytes.clear();
+        outCount = 0;
+        outBytes.clear();
+        line.clear();
+        matched = 0;
+        lineReplaced = false;
+        replacements = 0;
+        try {
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                endOfInput = in.read(inBytes) < 0;
+                inBytes.flip();
+                decode(endOfInput);
+                inBytes.compact();
+            }
+            inChars.clear();
+            decoder.flush(inChars);
+            inChars.flip();
+            feed();
+            if (line.size() > 0 || matched > 0) {
+                endLine(false);
+            }
+            flushOut(true);
+            return replacements;
+        } finally {
+            out = null;
+        }
+    }
+
+    //Reader stage
+
+    /**
+     * Decodes the bytes read so far and feeds the characters on.
+     */
+    private void decode(boolean endOfInput) throws java.io.IOException {
+        while (true) {
+            inChars.clear();
+            java.nio.charset.CoderResult result = decoder.decode(inBytes, inChars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            inChars.flip();
+            feed();
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    //Line stage
+
+    /**
+     * Copies decoded characters into the line buffer a run at a time, handing it to
+     * the matcher at each newline, or early when it fills up.
+     */
+    private void feed() throws java.io.IOException {
+        char[] chars = inChars.array();
+        int end = inChars.arrayOffset() + inChars.limit();
+        int i = inChars.arrayOffset() + inChars.position();
+        while (i < end) {
+            int start = i;
+            int limit = Math.min(end, i + MAX_LINE_BUFFER - line.size());
+            while (i < limit && chars[i] != '\n') {
+                i++;
+            }
+            line.addAll(chars, start, i - start);
+            if (i < end && chars[i] == '\n') {
+                endLine(true);
+                i++;
+            } else if (line.size() == MAX_LINE_BUFFER) {
+                scanLine();
+                line.clear();
+            }
+        }
+    }
+
+    private void endLine(boolean newline) throws java.io.IOException {
+        scanLine();
+        emit(pattern, matched);
+        matched = 0;
+        lineReplaced = false;
+        line.clear();
+        if (newline) {
+            emit('\n');
+        }
+    }
+
+    //Match stage
+
+    /**
+     * Runs the line buffer through the matcher. Characters that cannot start a match
+     * are written in runs straight from the line buffer.
+     */
+    private void scanLine() throws java.io.IOException {
+        int size = line.size();
+        char first = pattern[0];
+        int runStart = 0;
+        int i = 0;
+        while (i < size) {
+            if (lineReplaced && !global) {
+                break;
+            }
+            if (matched == 0) {
+                i = line.indexOf(first, i);
+                if (i < 0) {
+                    break;
+                }
+            }
+            emitLine(runStart, i);
+            runStart = i + 1;
+            step(line.get(i));
+            i++;
+        }
+        emitLine(runStart, size);
+    }
+
+    /**
+     * Advances the matcher by one character. The last matched characters are held
+     * back and, since they always equal the start of the pattern, are written from
+     * the pattern itself once they turn out not to be part of a match.
+     */
+    private void step(char c) throws java.io.IOException {
+        while (matched > 0 && c != pattern[matched]) {
+            int keep = fallback[matched - 1];
+            emit(pattern, matched - keep);
+            matched = keep;
+        }
+        if (c == pattern[matched]) {
+            matched++;
+            if (matched == pattern.length) {
+                emit(replacement, replacement.length);
+                replacements++;
+                matched = 0;
+                lineReplaced = true;
+            }
+        } else {
+            emit(c);
+        }
+    }
+
+    //Writer stage
+
+    private void emit(char c) throws java.io.IOException {
+        if (outCount == outArray.length) {
+            flushOut(false);
+        }
+        outArray[outCount++] = c;
+    }
+
+    private void emitLine(int fromIndex, int toIndex) throws java.io.IOException {
+        while (fromIndex < toIndex) {
+            if (outCount == outArray.length) {
+                flushOut(false);
+            }
+            int count = Math.min(toIndex - fromIndex, outArray.length - outCount);
+            line.copyTo(fromIndex, fromIndex + count, outArray, outCount);
+            outCount += count;
+            fromIndex += count;
+        }
+    }
+
+    private void emit(char[] chars, int count) throws java.io.IOException {
+        for (int i = 0; i < count; i++) {
+            emit(chars[i]);
+        }
+    }
+
+    /**
+     * Encodes the buffered output characters and writes the bytes. A surrogate
+     * pair split at the end of the buffer stays behind for the next call.
+     */
+    private void flushOut(boolean endOfOutput) throws java.io.IOException {
+        outChars.limit(outCount).position(0);
+        while (true) {
+            java.nio.charset.CoderResult result = encoder.encode(outChars, outBytes, endOfOutput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            writeBytes();
+            if (result.isUnderflow()) {
+                break;
+            }
+        }
+        if (endOfOutput) {
+            while (encoder.flush(outBytes).isOverflow()) {
+                writeBytes();
+            }
+            writeBytes();
+        }
+        outChars.compact();
+        outCount = outChars.position();
+        outChars.clear();
+    }
+
+    private void writeBytes() throws java.io.IOException {
+        outBytes.flip();
+        while (outBytes.hasRemaining()) {
+            out.write(outBytes);
+        }
+        outBytes.clear();
+    }
+}
@@ -0,0 +1,137 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class StreamEditorTests {
+
+    private long replacements;
+
+    /**
+     * Runs an editor over a string and returns what it wrote.
+     */
+    public String edit(StreamEditor editor, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        replacements = editor.run(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))),
+                Channels.newChannel(output));
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * What sed would print for a literal pattern, line by line.
+     */
+    public String expected(String input, String pattern, String replacement, boolean global) {
+        StringBuilder result = new StringBuilder();
+        String[] lines = input.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                result.append('\n');
+            }
+            result.append(global ? lines[i].replace(pattern, replacement)
+                    : lines[i].replaceFirst(Pattern.quote(pattern), Matcher.quoteReplacement(replacement)));
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void testReplaceAll() throws IOException {
+        StreamEditor editor = new StreamEditor("cat", "dog");
+        assertEquals("dog dog\nno match\ndogdog", edit(editor, "cat cat\nno match\ncatcat"));
+        assertEquals(4, replacements);
+        assertEquals("", edit(editor, ""));
+        assertEquals(0, replacements);
+        assertEquals("\n\n", edit(editor, "\n\n"));
+    }
+
+    @Test
+    public void testFirstPerLine() throws IOException {
+        StreamEditor editor = new StreamEditor("a", "A", false, StandardCharsets.UTF_8);
+        assertEquals("Aaa\nbAb\n", edit(editor, "aaa\nbab\n"));
+        assertEquals(2, replacements);
+    }
+
+    /**
+     * Partial matches must fall back correctly, as in "aab" inside "aaab".
+     */
+    @Test
+    public void testFallback() throws IOException {
+        assertEquals("a#", edit(new StreamEditor("aab", "#"), "aaab"));
+        assertEquals("#a", edit(new StreamEditor("aa", "#"), "aaa"));
+        assertEquals("ab#", edit(new StreamEditor("abac", "#"), "ababac"));
+        assertEquals("ab", edit(new StreamEditor("abc", "#"), "ab"));
+    }
+
+    @Test
+    public void testMultiByte() throws IOException {
+        assertEquals("naïve café ☕☕", edit(new StreamEditor("coffee", "☕"), "naïve café coffee☕"));
+        assertEquals("x😀y", edit(new StreamEditor("😀😀", "😀"), "x😀😀y"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        new StreamEditor("", "x");
+    }
+
+    /**
+     * A line much longer than the line buffer, with matches straddling its chunk edges.
+     */
+    @Test
+    public void testLongLine() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 40000; i++) {
+            input.append("needle-");
+        }
+        String text = input.toString();
+        assertEquals(expected(text, "needle", "pin", true), edit(new StreamEditor("needle", "pin"), text));
+        assertEquals(40000, replacements);
+    }
+
+    @Test
+    public void testFiles() throws IOException {
+        Path source = Files.createTempFile("sed", ".in");
+        Path target = Files.createTempFile("sed", ".out");
+        try {
+            Files.write(source, "one fish\ntwo fish\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals(2, new StreamEditor("fish", "cat").run(source, target));
+            assertEquals("one cat\ntwo cat\n", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+            try {
+                new StreamEditor("fish", "cat").run(source, source);
+                fail("editing in place should be refused");
+            } catch (IllegalArgumentException expected) {
+            }
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    /**
+     * Random text over a tiny alphabet, so partial matches are common, against String.replace.
+     */
+    @Test
+    public void testRandomText() throws IOException {
+        Random rnd = new Random(29);
+        String[] patterns = {"ab", "aab", "abab", "bb", "b", "aaa"};
+        for (int round = 0; round < 200; round++) {
+            StringBuilder input = new StringBuilder();
+            int length = rnd.nextInt(300);
+            for (int i = 0; i < length; i++) {
+                input.append("ab\n".charAt(rnd.nextInt(rnd.nextInt(10) == 0 ? 3 : 2)));
+            }
+            String pattern = patterns[rnd.nextInt(patterns.length)];
+            boolean global = rnd.nextBoolean();
+            String text = input.toString();
+            assertEquals(expected(text, pattern, "<>", global),
+                    edit(new StreamEditor(pattern, "<>", global, StandardCharsets.UTF_8), text));
+        }
+    }
+}
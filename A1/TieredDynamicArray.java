@@ -0,0 +1,430 @@
+/**
+ * A tiered vector: the elements live in fixed-size circular blocks of B slots,
+ * where B is a power of two kept near the square root of the size. Every block
+ * except the last is full, so get and set are O(1). Inserting or removing in
+ * the middle shifts elements inside one block and then passes one element
+ * between each later pair of blocks, which costs O(B + n/B), or O(sqrt(n)).
+ */
+public class TieredDynamicArray<J> implements DynamicArrayADT<J> {
+
+    /** Blocks never get smaller than 1 << MIN_SHIFT slots. */
+    private static final int MIN_SHIFT = 4;
+
+    private Object[][] blocks;
+    private int[] heads;
+    private int blockCount;
+    private int size;
+    private int shift;
+    private int mask;
+
+    /**
+     * Constructs an empty TieredDynamicArray.
+     */
+    public TieredDynamicArray() {
+        reset(MIN_SHIFT, 1);
+    }
+
+    /**
+     * Constructs a TieredDynamicArray holding the elements of another array.
+     * @param other the array to copy
+     */
+    public TieredDynamicArray(DynamicArrayADT<J> other) {
+        Object[] flat = new Object[other.size()];
+        for (int i = 0; i < flat.length; i++) {
+            flat[i] = other.get(i);
+        }
+        load(flat, flat.length);
+    }
+
+    private TieredDynamicArray(Object[] flat, int count) {
+        load(flat, count);
+    }
+
+    /**
+     * Returns the block size exponent suited to holding count elements, about half of log2(count).
+     */
+    private static int shiftFor(int count) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(count, 1));
+        return Math.max(MIN_SHIFT, (bits + 1) / 2);
+    }
+
+    /**
+     * Clears the array and sets up empty storage for blocks of 1 << newShift slots.
+     */
+    private void reset(int newShift, int blockCapacity) {
+        shift = newShift;
+        mask = (1 << shift) - 1;
+        blocks = new Object[Math.max(blockCapacity, 1)][];
+        heads = new int[blocks.length];
+        blockCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Replaces the contents with flat[0, count), choosing a block size for count.
+     */
+    private void load(Object[] flat, int count) {
+        int newShift = shiftFor(count);
+        int blockSize = 1 << newShift;
+        reset(newShift, (count + blockSize - 1) >>> newShift);
+        for (int from = 0; from < count; from += blockSize) {
+            Object[] block = new Object[blockSize];
+            System.arraycopy(flat, from, block, 0, Math.min(blockSize, count - from));
+            blocks[blockCount++] = block;
+        }
+        size = count;
+    }
+
+    /**
+     * Re-tiers the elements with a block size suited to the current size.
+     */
+    private void rebuild() {
+        Object[] flat = new Object[size];
+        copyOut(0, size, flat, 0);
+        load(flat, size);
+    }
+
+    /**
+     * Copies the elements [from, to) into dest, with at most two block copies per block.
+     */
+    private void copyOut(int from, int to, Object[] dest, int destPos) {
+        int blockSize = mask + 1;
+        while (from < to) {
+            int b = from >>> shift;
+            int slot = (heads[b] + (from & mask)) & mask;
+            int run = Math.min(to - from, Math.min(blockSize - (from & mask), blockSize - slot));
+            System.arraycopy(blocks[b], slot, dest, destPos, run);
+            from += run;
+            destPos += run;
+        }
+    }
+
+    /**
+     * Returns the number of elements held by block b.
+     */
+    private int countOf(int b) {
+        return b < blockCount - 1 ? mask + 1 : size - ((blockCount - 1) << shift);
+    }
+
+    /**
+     * Re-tiers with smaller blocks once the size has dropped well below B * B.
+     */
+    private void shrinkIfSparse() {
+        if (shift > MIN_SHIFT && size < ((1 << shift) << shift) / 8) {
+            rebuild();
+        }
+    }
+
+    private void appendBlock() {
+        if (blockCount == blocks.length) {
+            Object[][] newBlocks = new Object[blocks.length * 2][];
+            int[] newHeads = new int[blocks.length * 2];
+            System.arraycopy(blocks, 0, newBlocks, 0, blockCount);
+            System.arraycopy(heads, 0, newHeads, 0, blockCount);
+            blocks = newBlocks;
+            heads = newHeads;
+        }
+        blocks[blockCount] = new Object[mask + 1];
+        heads[blockCount] = 0;
+        blockCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + "is out of bounds.");
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex >= toIndex) {
+            throw new IndexOutOfBoundsException("Invalid fromIndex or toIndex.");
+        }
+    }
+
+    private void checkSplit(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+    }
+
+    //Group 1
+
+    /**
+     * Returns the element at the specified index in O(1).
+     * @param index the index of the element to retrieve
+     * @return the element at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public J get(int index) {
+        checkIndex(index);
+        int b = index >>> shift;
+        return (J) blocks[b][(heads[b] + index) & mask];
+    }
+
+    /**
+     * Replaces the element at the specified index with the given value in O(1).
+     * @param index the index of the element to replace
+     * @param value the new value to store
+     * @return the previous value at the specified index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public J set(int index, J value) {
+        checkIndex(index);
+        int b = index >>> shift;
+        Object[] block = blocks[b];
+        int slot = (heads[b] + index) & mask;
+        J oldValue = (J) block[slot];
+        block[slot] = value;
+        return oldValue;
+    }
+
+    /**
+     * Returns the number of elements currently stored in the array.
+     * @return the size of the array
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //Group 2
+
+    /**
+     * Inserts the value at the given index. Elements after it inside its block shift right,
+     * and each later block passes its last element to the front of the next one.
+     * @param index the index at which to insert the value
+     * @param value the value to insert
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public void add(int index, J value) {
+        checkSplit(index);
+        if (size >= (2 << shift) << shift) {
+            rebuild();
+        }
+        if (size == blockCount << shift) {
+            appendBlock();
+        }
+        int b = index >>> shift;
+        int last = blockCount - 1;
+        Object[] block = blocks[b];
+        int h = heads[b];
+        int end = b == last ? countOf(b) : mask;
+        Object carry = block[(h + mask) & mask]; // only meaningful when b is full
+        for (int x = end; x > (index & mask); x--) {
+            block[(h + x) & mask] = block[(h + x - 1) & mask];
+        }
+        block[(h + index) & mask] = value;
+
+        // pass the displaced last element of each full block to the front of the next
+        for (int k = b + 1; k <= last; k++) {
+            int hk = (heads[k] - 1) & mask;
+            Object out = blocks[k][hk];
+            blocks[k][hk] = carry;
+            heads[k] = hk;
+            carry = out;
+        }
+        size++;
+    }
+
+    /**
+     * Appends the specified value to the end of the array.
+     * @param value the value to append
+     */
+    @Override
+    public void add(J value) {
+        add(size, value);
+    }
+
+    /**
+     * Removes and returns the element at the specified index. Elements after it inside its
+     * block shift left, and each later block passes its first element to the end of the previous one.
+     * @param index the index of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public J remove(int index) {
+        checkIndex(index);
+        int b = index >>> shift;
+        int last = blockCount - 1;
+        Object[] block = blocks[b];
+        int h = heads[b];
+        J removedValue = (J) block[(h + index) & mask];
+        int end = countOf(b) - 1;
+        for (int x = index & mask; x < end; x++) {
+            block[(h + x) & mask] = block[(h + x + 1) & mask];
+        }
+        block[(h + end) & mask] = null;
+
+        for (int k = b + 1; k <= last; k++) {
+            int hk = heads[k];
+            blocks[k - 1][(heads[k - 1] + mask) & mask] = blocks[k][hk];
+            blocks[k][hk] = null;
+            heads[k] = (hk + 1) & mask;
+        }
+        size--;
+        if (size == (blockCount - 1) << shift) {
+            blocks[--blockCount] = null;
+        }
+        shrinkIfSparse();
+        return removedValue;
+    }
+
+    //Group 3
+
+    /**
+     * Returns a new array that is this one followed by other.
+     * @param other the array to append
+     * @return a new array containing all elements from both arrays
+     */
+    @Override
+    public TieredDynamicArray<J> append(DynamicArrayADT<J> other) {
+        int otherSize = other.size();
+        Object[] flat = new Object[size + otherSize];
+        copyOut(0, size, flat, 0);
+        for (int i = 0; i < otherSize; i++) {
+            flat[size + i] = other.get(i);
+        }
+        return new TieredDynamicArray<J>(flat, flat.length);
+    }
+
+    /**
+     * Inserts all elements of another array at the given index, re-tiering once in O(n + m).
+     * @param index the position to insert the other array
+     * @param other the array to insert
+     * @return returns this array with the other inserted at index
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    @Override
+    public TieredDynamicArray<J> insert(int index, DynamicArrayADT<J> other) {
+        checkSplit(index);
+        int count = other.size();
+        Object[] flat = new Object[size + count];
+        for (int i = 0; i < count; i++) {
+            flat[index + i] = other.get(i);
+        }
+        copyOut(0, index, flat, 0);
+        copyOut(index, size, flat, index + count);
+        load(flat, flat.length);
+        return this;
+    }
+
+    /**
+     * Returns a new array containing the elements in the range [fromIndex, toIndex),
+     * copied a block segment at a time.
+     * @param fromIndex the starting index (inclusive)
+     * @param toIndex the ending index (exclusive)
+     * @return a new array with the specified sublist
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public TieredDynamicArray<J> sublist(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        Object[] flat = new Object[toIndex - fromIndex];
+        copyOut(fromIndex, toIndex, flat, 0);
+        return new TieredDynamicArray<J>(flat, flat.length);
+    }
+
+    /**
+     * Returns a new array with the elements in the range [fromIndex, toIndex) left out.
+     * @param fromIndex the starting index of the range to delete (inclusive)
+     * @param toIndex the ending index of the range to delete (exclusive)
+     * @return a new array with the specified range removed
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public TieredDynamicArray<J> delete(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        Object[] flat = new Object[size - (toIndex - fromIndex)];
+        copyOut(0, fromIndex, flat, 0);
+        copyOut(toIndex, size, flat, fromIndex);
+        return new TieredDynamicArray<J>(flat, flat.length);
+    }
+
+    /**
+     * Removes the elements in the range [fromIndex, toIndex) from this array and returns them.
+     * When both ends fall on block boundaries the blocks themselves are handed to the result
+     * and the rest of the block table closes up, so no elements are copied.
+     * @param fromIndex the starting index of the range (inclusive)
+     * @param toIndex the ending index of the range (exclusive)
+     * @return a new array containing the extracted elements
+     * @throws IndexOutOfBoundsException if indices are invalid or out of range
+     */
+    @Override
+    public TieredDynamicArray<J> extract(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if ((fromIndex & mask) == 0 && ((toIndex & mask) == 0 || toIndex == size)) {
+            return extractBlocks(fromIndex >>> shift, (toIndex + mask) >>> shift, toIndex - fromIndex);
+        }
+        TieredDynamicArray<J> result = sublist(fromIndex, toIndex);
+        Object[] flat = new Object[size - (toIndex - fromIndex)];
+        copyOut(0, fromIndex, flat, 0);
+        copyOut(toIndex, size, flat, fromIndex);
+        load(flat, flat.length);
+        return result;
+    }
+
+    /**
+     * Moves blocks [fromBlock, toBlock) holding count elements into a new array.
+     */
+    private TieredDynamicArray<J> extractBlocks(int fromBlock, int toBlock, int count) {
+        int moved = toBlock - fromBlock;
+        TieredDynamicArray<J> result = new TieredDynamicArray<J>();
+        result.reset(shift, moved);
+        System.arraycopy(blocks, fromBlock, result.blocks, 0, moved);
+        System.arraycopy(heads, fromBlock, result.heads, 0, moved);
+        result.blockCount = moved;
+        result.size = count;
+
+        System.arraycopy(blocks, toBlock, blocks, fromBlock, blockCount - toBlock);
+        System.arraycopy(heads, toBlock, heads, fromBlock, blockCount - toBlock);
+        for (int k = blockCount - moved; k < blockCount; k++) {
+            blocks[k] = null;
+        }
+        blockCount -= moved;
+        size -= count;
+        if (blockCount == 0) {
+            reset(shift, 1);
+        }
+        shrinkIfSparse();
+        result.shrinkIfSparse();
+        return result;
+    }
+
+    /**
+     * Returns and removes the elements from index to the end of the array.
+     * @param index the position to split at
+     * @return a new array containing the suffix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public TieredDynamicArray<J> splitSuffix(int index) {
+        checkSplit(index);
+        return index == size ? new TieredDynamicArray<J>() : extract(index, size);
+    }
+
+    /**
+     * Returns and removes the elements before the given index.
+     * @param index the position to split at
+     * @return a new array containing the prefix elements
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public TieredDynamicArray<J> splitPrefix(int index) {
+        checkSplit(index);
+        return index == 0 ? new TieredDynamicArray<J>() : extract(0, index);
+    }
+
+    /**
+     * Returns the current block size, for tests and benchmarks.
+     */
+    int blockSize() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,145 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class TieredDynamicArrayTests {
+
+    private TieredDynamicArray<Character> a1;
+    private TieredDynamicArray<Character> a2;
+    private TieredDynamicArray<Character> empty;
+
+    /**
+     * Re-initializes the arrays before each test.
+     */
+    @Before
+    public void setUp() {
+        a1 = stringToArray("abcdef");
+        a2 = stringToArray("wxyz");
+        empty = stringToArray("");
+    }
+
+    /**
+     * Puts the characters of a string into a TieredDynamicArray.
+     */
+    public TieredDynamicArray<Character> stringToArray(String s) {
+        TieredDynamicArray<Character> result = new TieredDynamicArray<Character>();
+        for (int i = 0; i < s.length(); i++) {
+            result.add(i, s.charAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Compares the size and each element of an array against a string.
+     */
+    public void compareToString(DynamicArrayADT<Character> arr, String s) {
+        assertEquals("[" + s + "] Array lengths are equal", s.length(), arr.size());
+        for (int i = 0; i < arr.size(); i++) {
+            assertEquals("[" + s + "] Elements are equal at index " + i, s.charAt(i), arr.get(i).charValue());
+        }
+    }
+
+    /**
+     * Checks an integer array holds exactly the elements of an ArrayList.
+     */
+    public void compareToList(TieredDynamicArray<Integer> arr, ArrayList<Integer> expected) {
+        assertEquals(expected.size(), arr.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals("index " + i, expected.get(i), arr.get(i));
+        }
+    }
+
+    @Test
+    public void testSmallEdits() {
+        a1.add(0, '<');
+        a1.add(4, '|');
+        a1.add('>');
+        compareToString(a1, "<abc|def>");
+        assertEquals((Character) '|', a1.remove(4));
+        assertEquals((Character) 'b', a1.set(2, 'B'));
+        compareToString(a1, "<aBcdef>");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBounds() {
+        a1.get(6);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRemoveEmpty() {
+        empty.remove(0);
+    }
+
+    @Test
+    public void testGroup3() {
+        compareToString(a1.append(a2), "abcdefwxyz");
+        compareToString(a1.sublist(2, 5), "cde");
+        compareToString(a1.delete(2, 5), "abf");
+        compareToString(a1, "abcdef");
+        compareToString(a1.insert(6, a2), "abcdefwxyz");
+        compareToString(a1.extract(1, 9), "bcdefwxy");
+        compareToString(a1, "az");
+        compareToString(a2.splitPrefix(1), "w");
+        compareToString(a2.splitSuffix(2), "z");
+        compareToString(a2, "xy");
+    }
+
+    /**
+     * Grows past several block-size changes with random middle inserts and removes.
+     */
+    @Test
+    public void testRandomAcrossRebuilds() {
+        Random rnd = new Random(11);
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        TieredDynamicArray<Integer> arr = new TieredDynamicArray<Integer>();
+        for (int step = 0; step < 30000; step++) {
+            if (rnd.nextInt(4) > 0 || expected.isEmpty()) {
+                int at = rnd.nextInt(expected.size() + 1);
+                arr.add(at, step);
+                expected.add(at, step);
+            } else {
+                int at = rnd.nextInt(expected.size());
+                assertEquals(expected.remove(at), arr.remove(at));
+            }
+        }
+        compareToList(arr, expected);
+        assertTrue(arr.blockSize() > 16);
+        while (expected.size() > 10) {
+            int at = rnd.nextInt(expected.size());
+            assertEquals(expected.remove(at), arr.remove(at));
+        }
+        compareToList(arr, expected);
+        assertEquals(16, arr.blockSize());
+    }
+
+    /**
+     * Extracts whole blocks, which hands them over without copying.
+     */
+    @Test
+    public void testExtractWholeBlocks() {
+        ArrayList<Integer> expected = new ArrayList<Integer>();
+        TieredDynamicArray<Integer> arr = new TieredDynamicArray<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            arr.add(i);
+            expected.add(i);
+        }
+        int b = arr.blockSize();
+        TieredDynamicArray<Integer> middle = arr.extract(b, 3 * b);
+        ArrayList<Integer> expectedMiddle = new ArrayList<Integer>(expected.subList(b, 3 * b));
+        expected.subList(b, 3 * b).clear();
+        compareToList(middle, expectedMiddle);
+        compareToList(arr, expected);
+
+        TieredDynamicArray<Integer> tail = arr.splitSuffix(2 * b);
+        ArrayList<Integer> expectedTail = new ArrayList<Integer>(expected.subList(2 * b, expected.size()));
+        expected.subList(2 * b, expected.size()).clear();
+        compareToList(tail, expectedTail);
+        compareToList(arr, expected);
+        tail.add(0, -1);
+        expectedTail.add(0, -1);
+        compareToList(tail, expectedTail);
+    }
+}
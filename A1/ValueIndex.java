@@ -0,0 +1,476 @@
+/**
+ * A hash index from element values to the elements holding them, kept by a
+ * DynamicArray so indexOf, lastIndexOf and contains do not scan the whole array.
+ *
+ * Positions are never stored, so a shift has nothing to renumber. Each element gets a
+ * stamp when it is indexed, and the map holds the stamps of the elements equal to each
+ * value. The stamps also sit in array order in a treap, a binary tree balanced by random
+ * priorities, whose nodes count their subtree, so an element's position is the rank of
+ * its stamp, found in O(log n) by walking up to the root. Inserting or removing k
+ * elements anywhere splits and joins the tree in O(log n), plus O(k) for the stamps
+ * themselves, and set moves one stamp from one value to another. A lookup ranks the
+ * stamps of the value looked up, O(log n) each, and scans instead when the value is so
+ * common that the scan is cheaper.
+ *
+ * The tree lives in int arrays indexed by stamp, beside the backing array, for about 28
+ * bytes per element plus a map entry per distinct value. The stamps of removed elements
+ * are reused and a value whose last element goes is dropped from the map, so memory is
+ * O(size) whatever mutations run between lookups, and the index never keeps an element
+ * reachable after the array lets go of it. Nothing is built before the first lookup;
+ * until then mutations pay nothing.
+ *
+ * Like keys of a HashMap, elements must not change their hashCode while in the array.
+ */
+final class ValueIndex {
+    /** Value to the stamps of the elements equal to it; null until the first lookup. */
+    private java.util.HashMap<Object, Stamps> stamps;
+    // The tree, by stamp. Stamp 0 is the empty tree, so its count stays 0.
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private int[] count;
+    private int[] priority;
+    /** Where each stamp sits in its value's Stamps. */
+    private int[] slot;
+    private int root;
+    /** The lowest stamp never handed out. */
+    private int nextStamp;
+    /** Stamps of removed elements, handed out again before new ones. */
+    private int[] free;
+    private int freeCount;
+    private int seed = 0x2545F491;
+    // the halves produced by split
+    private int splitLeft;
+    private int splitRight;
+
+    /**
+     * Returns the lowest position of value in data[0, size), or -1.
+     */
+    int indexOf(Object[] data, int size, Object value) {
+        build(data, size);
+        Stamps list = stamps.get(value);
+        if (list == null) {
+            return -1;
+        }
+        if (scanIsCheaper(list.count, size)) {
+            for (int i = 0; i < size; i++) {
+                if (java.util.Objects.equals(data[i], value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int found = Integer.MAX_VALUE;
+        for (int k = 0; k < list.count; k++) {
+            found = Math.min(found, rank(list.at[k]));
+        }
+        return found;
+    }
+
+    /**
+     * Returns the highest position of value in data[0, size), or -1.
+     */
+    int lastIndexOf(Object[] data, int size, Object value) {
+        build(data, size);
+        Stamps list = stamps.get(value);
+        if (list == null) {
+            return -1;
+        }
+        if (scanIsCheaper(list.count, size)) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (java.util.Objects.equals(data[i], value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int found = -1;
+        for (int k = 0; k < list.count; k++) {
+            found = Math.max(found, rank(list.at[k]));
+        }
+        return found;
+    }
+
+    /**
+     * Called after data[position, position + count) were inserted, shifting the elements
+     * from position on up by count.
+     */
+    void inserted(Object[] data, int position, int count) {
+        if (stamps == null || count == 0) {
+            return;
+        }
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = newStamp();
+            link(order[i], data[position + i]);
+        }
+        int added = buildTree(order, count);
+        split(root, position);
+        int before = splitLeft;
+        int after = splitRight;
+        setRoot(merge(merge(before, added), after));
+    }
+
+    /**
+     * Called after the element at position was replaced in data, where oldValue was.
+     */
+    void replaced(Object[] data, int position, Object oldValue) {
+        if (stamps == null) {
+            return;
+        }
+        int s = nodeAt(position);
+        unlink(s, oldValue);
+        settle(data, oldValue);
+        link(s, data[position]);
+    }
+
+    /**
+     * Called after value was removed from position of data, shifting the elements after it down.
+     */
+    void removed(Object[] data, int position, Object value) {
+        if (stamps == null) {
+            return;
+        }
+        int s = nodeAt(position);
+        detach(s);
+        unlink(s, value);
+        release(s);
+        settle(data, value);
+    }
+
+    /**
+     * Called after the elements removed[from, from + count) were taken out of data,
+     * where they were at position on, shifting the elements after them down.
+     */
+    void removed(Object[] data, int position, Object[] removed, int from, int count) {
+        if (stamps == null || count == 0) {
+            return;
+        }
+        split(root, position);
+        int before = splitLeft;
+        split(splitRight, count);
+        int middle = splitLeft;
+        setRoot(merge(before, splitRight));
+        int[] order = new int[count];
+        collect(middle, order, 0);
+        // forget all of them first, so re-keying only ranks stamps still in the tree
+        for (int i = 0; i < count; i++) {
+            unlink(order[i], removed[from + i]);
+            release(order[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            settle(data, removed[from + i]);
+        }
+    }
+
+    /**
+     * Forgets everything, for after the elements were replaced or reordered wholesale.
+     * The next lookup builds the index again.
+     */
+    void reset() {
+        stamps = null;
+        left = right = parent = count = priority = slot = free = null;
+        root = 0;
+    }
+
+    /**
+     * Returns the number of stamps held by elements, which is the array's size once built.
+     */
+    int stamped() {
+        return stamps == null ? 0 : nextStamp - 1 - freeCount;
+    }
+
+    /**
+     * Whether ranking count stamps costs more than scanning size elements, taking a rank
+     * as about twice the expected depth of the tree.
+     */
+    private static boolean scanIsCheaper(int count, int size) {
+        return (long) count * 2 * (32 - Integer.numberOfLeadingZeros(size)) > size;
+    }
+
+    /**
+     * Builds the map and the tree over data[0, size) on the first lookup, in O(size).
+     */
+    private void build(Object[] data, int size) {
+        if (stamps != null) {
+            return;
+        }
+        stamps = new java.util.HashMap<Object, Stamps>();
+        int capacity = Math.max(16, size + 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        count = new int[capacity];
+        priority = new int[capacity];
+        slot = new int[capacity];
+        free = new int[16];
+        freeCount = 0;
+        nextStamp = 1;
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = newStamp();
+            link(order[i], data[i]);
+        }
+        setRoot(buildTree(order, size));
+    }
+
+    private int newStamp() {
+        int s;
+        if (freeCount > 0) {
+            s = free[--freeCount];
+        } else {
+            s = nextStamp++;
+            if (s == left.length) {
+                int capacity = s * 2;
+                left = java.util.Arrays.copyOf(left, capacity);
+                right = java.util.Arrays.copyOf(right, capacity);
+                parent = java.util.Arrays.copyOf(parent, capacity);
+                count = java.util.Arrays.copyOf(count, capacity);
+                priority = java.util.Arrays.copyOf(priority, capacity);
+                slot = java.util.Arrays.copyOf(slot, capacity);
+            }
+        }
+        // xorshift
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        priority[s] = seed;
+        left[s] = 0;
+        right[s] = 0;
+        parent[s] = 0;
+        count[s] = 1;
+        return s;
+    }
+
+    private void release(int s) {
+        if (freeCount == free.length) {
+            free = java.util.Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = s;
+    }
+
+    /**
+     * Adds stamp s to the stamps of value.
+     */
+    private void link(int s, Object value) {
+        Stamps list = stamps.get(value);
+        if (list == null) {
+            list = new Stamps(value);
+            stamps.put(value, list);
+        }
+        slot[s] = list.count;
+        list.add(s);
+    }
+
+    /**
+     * Takes stamp s out of the stamps of value in O(1), leaving an emptied list in the
+     * map for settle.
+     */
+    private void unlink(int s, Object value) {
+        Stamps list = stamps.get(value);
+        int last = list.at[--list.count];
+        list.at[slot[s]] = last;
+        slot[last] = slot[s];
+    }
+
+    /**
+     * Once the stamps unlinked from value's list are all out of the tree, drops the list
+     * if it is empty, or re-keys it on an element still in data if its key was the one
+     * that went, so the map does not keep removed elements reachable.
+     */
+    private void settle(Object[] data, Object value) {
+        Stamps list = stamps.get(value);
+        if (list == null) {
+            return;
+        }
+        if (list.count == 0) {
+            stamps.remove(value);
+        } else if (list.key == value) {
+            stamps.remove(value);
+            list.key = data[rank(list.at[0])];
+            stamps.put(list.key, list);
+        }
+    }
+
+    /**
+     * Returns the position of the element with stamp s, in O(log n).
+     */
+    private int rank(int s) {
+        int r = count[left[s]];
+        for (int p = parent[s]; p != 0; s = p, p = parent[p]) {
+            if (right[p] == s) {
+                r += count[left[p]] + 1;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Returns the stamp of the element at position, in O(log n).
+     */
+    private int nodeAt(int position) {
+        int t = root;
+        while (true) {
+            int l = count[left[t]];
+            if (position < l) {
+                t = left[t];
+            } else if (position == l) {
+                return t;
+            } else {
+                position -= l + 1;
+                t = right[t];
+            }
+        }
+    }
+
+    /**
+     * Takes node s out of the tree, joining its children in its place.
+     */
+    private void detach(int s) {
+        int p = parent[s];
+        int c = merge(left[s], right[s]);
+        if (c != 0) {
+            parent[c] = p;
+        }
+        if (p == 0) {
+            root = c;
+        } else if (left[p] == s) {
+            left[p] = c;
+        } else {
+            right[p] = c;
+        }
+        for (; p != 0; p = parent[p]) {
+            count[p]--;
+        }
+    }
+
+    private void setRoot(int t) {
+        root = t;
+        if (t != 0) {
+            parent[t] = 0;
+        }
+    }
+
+    /**
+     * Recomputes the count of t and points its children back at it.
+     */
+    private void update(int t) {
+        count[t] = count[left[t]] + count[right[t]] + 1;
+        if (left[t] != 0) {
+            parent[left[t]] = t;
+        }
+        if (right[t] != 0) {
+            parent[right[t]] = t;
+        }
+    }
+
+    /**
+     * Returns the tree holding a's elements followed by b's.
+     */
+    private int merge(int a, int b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    /**
+     * Splits t into its first k elements, left in splitLeft, and the rest, left in splitRight.
+     */
+    private void split(int t, int k) {
+        if (t == 0) {
+            splitLeft = 0;
+            splitRight = 0;
+            return;
+        }
+        int l = count[left[t]];
+        if (k <= l) {
+            split(left[t], k);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        } else {
+            split(right[t], k - l - 1);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        }
+    }
+
+    /**
+     * Builds a tree over the stamps order[0, n), in that order, in O(n): each stamp pops
+     * the lower-priority ones off the right spine into its left subtree.
+     */
+    private int buildTree(int[] order, int n) {
+        int[] spine = new int[16];
+        int top = 0;
+        for (int i = 0; i < n; i++) {
+            int x = order[i];
+            int last = 0;
+            while (top > 0 && priority[spine[top - 1]] < priority[x]) {
+                last = spine[--top];
+                update(last);
+            }
+            left[x] = last;
+            if (top > 0) {
+                right[spine[top - 1]] = x;
+            }
+            if (top == spine.length) {
+                spine = java.util.Arrays.copyOf(spine, top * 2);
+            }
+            spine[top++] = x;
+        }
+        int last = 0;
+        while (top > 0) {
+            last = spine[--top];
+            update(last);
+        }
+        if (last != 0) {
+            parent[last] = 0;
+        }
+        return last;
+    }
+
+    /**
+     * Writes the stamps of t in order into into from at on, returning where they end.
+     */
+    private int collect(int t, int[] into, int at) {
+        if (t == 0) {
+            return at;
+        }
+        at = collect(left[t], into, at);
+        into[at++] = t;
+        return collect(right[t], into, at);
+    }
+
+    /**
+     * The stamps of the elements equal to key, without boxing them. key is one of
+     * those elements, so the map never holds an element the array has let go of.
+     */
+    private static final class Stamps {
+        Object key;
+        int[] at = new int[1];
+        int count;
+
+        Stamps(Object key) {
+            this.key = key;
+        }
+
+        void add(int s) {
+            if (count == at.length) {
+                at = java.util.Arrays.copyOf(at, count * 2);
+            }
+            at[count++] = s;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ValueIndexTests {
+
+    /**
+     * Checks every lookup for values 0..range-1 and a missing one against the list.
+     */
+    public void assertLookups(List<Integer> expected, DynamicArray<Integer> arr, int range) {
+        assertEquals(expected.size(), arr.size());
+        for (int v = -1; v < range; v++) {
+            assertEquals("indexOf " + v, expected.indexOf(v), arr.indexOf(v));
+            assertEquals("lastIndexOf " + v, expected.lastIndexOf(v), arr.lastIndexOf(v));
+            assertEquals(expected.contains(v), arr.contains(v));
+        }
+    }
+
+    @Test
+    public void testLookups() {
+        DynamicArray<String> arr = new DynamicArray<String>();
+        arr.setIndexed(true);
+        assertTrue(arr.isIndexed());
+        assertEquals(-1, arr.indexOf("a"));
+        arr.add("a");
+        arr.add("b");
+        arr.add(null);
+        arr.add("a");
+        assertEquals(0, arr.indexOf("a"));
+        assertEquals(3, arr.lastIndexOf("a"));
+        assertEquals(2, arr.indexOf(null));
+        assertTrue(arr.contains("b"));
+        assertFalse(arr.contains("c"));
+        arr.set(0, "c");
+        assertEquals(3, arr.indexOf("a"));
+        assertEquals(0, arr.indexOf("c"));
+        arr.remove(1);
+        assertEquals(-1, arr.indexOf("b"));
+        assertEquals(2, arr.indexOf("a"));
+        arr.setIndexed(false);
+        assertFalse(arr.isIndexed());
+        assertEquals(2, arr.indexOf("a"));
+    }
+
+    /**
+     * Runs random mutations of every kind, checking every lookup against an ArrayList
+     * after each one, so the tree is checked against every kind of shift.
+     */
+    @Test
+    public void testMatchesListUnderMutation() {
+        Random random = new Random(3);
+        int range = 20;
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setIndexed(true);
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int step = 0; step < 3000; step++) {
+            int size = expected.size();
+            int value = random.nextInt(range);
+            int op = size == 0 ? 0 : random.nextInt(10);
+            if (op <= 2) {
+                arr.add(value);
+                expected.add(value);
+            } else if (op == 3) {
+                int i = random.nextInt(size);
+                arr.set(i, value);
+                expected.set(i, value);
+            } else if (op == 4) {
+                int i = random.nextInt(size + 1);
+                arr.add(i, value);
+                expected.add(i, value);
+            } else if (op == 5) {
+                int i = random.nextInt(size);
+                assertEquals(expected.remove(i), arr.remove(i));
+            } else if (op == 6) {
+                int from = random.nextInt(size);
+                int to = from + 1 + random.nextInt(size - from);
+                arr.extract(from, to);
+                expected.subList(from, to).clear();
+            } else if (op == 7) {
+                int i = random.nextInt(size + 1);
+                DynamicArray<Integer> other = new DynamicArray<Integer>();
+                other.add(value);
+                other.add(value + 1);
+                arr.insert(i, other);
+                expected.addAll(i, java.util.Arrays.asList(value, value + 1));
+            } else if (op == 8) {
+                int i = random.nextInt(size + 1);
+                if (random.nextBoolean()) {
+                    arr.splitSuffix(i, random.nextBoolean());
+                    expected.subList(i, size).clear();
+                } else {
+                    arr.splitPrefix(i, random.nextBoolean());
+                    expected.subList(0, i).clear();
+                }
+            } else {
+                arr.sort(java.util.Comparator.reverseOrder());
+                expected.sort(java.util.Comparator.reverseOrder());
+            }
+            assertLookups(expected, arr, range + 1);
+        }
+    }
+
+    @Test
+    public void testReplaceAllAndCopies() {
+        DynamicArray<Integer> arr = new DynamicArray<Integer>();
+        arr.setIndexed(true);
+        for (int i = 0; i < 10; i++) {
+            arr.add(i);
+        }
+        assertEquals(4, arr.indexOf(4));
+        DynamicArray<Integer> copy = new DynamicArray<Integer>(arr);
+        assertFalse(copy.isIndexed());
+        arr.replaceAll(x -> x * 10);
+        assertEquals(4, arr.indexOf(40));
+        assertEquals(-1, arr.indexOf(4));
+        assertEquals(4, copy.indexOf(4));
+        DynamicArray<Integer> tail = arr.extract(5, 10);
+        assertFalse(tail.isIndexed());
+        assertEquals(-1, arr.indexOf(50));
+        assertEquals(0, tail.indexOf(50));
+    }
+
+    /**
+     * Sets, inserts and removes with no lookups in between must not grow the index past
+     * one stamp per element.
+     */
+    @Test
+    public void testMemoryBoundedWithoutLookups() {
+        Object[] data = new Object[16];
+        for (int i = 0; i < 10; i++) {
+            data[i] = i;
+        }
+        ValueIndex index = new ValueIndex();
+        assertEquals(3, index.indexOf(data, 10, 3));
+        for (int i = 0; i < 100_000; i++) {
+            Object old = data[3];
+            data[3] = -i;
+            index.replaced(data, 3, old);
+            assertEquals(10, index.stamped());
+        }
+        assertEquals(3, index.indexOf(data, 10, -99_999));
+        assertEquals(-1, index.indexOf(data, 10, 3));
+        for (int i = 0; i < 100_000; i++) {
+            System.arraycopy(data, 5, data, 6, 5);
+            data[5] = 100 + i;
+            index.inserted(data, 5, 1);
+            Object removed = data[5];
+            System.arraycopy(data, 6, data, 5, 5);
+            data[10] = null;
+            index.removed(data, 5, removed);
+            assertEquals(10, index.stamped());
+        }
+        for (int i = 10; i < 16; i++) {
+            data[i] = i;
+            index.inserted(data, i, 1);
+        }
+        assertEquals(16, index.stamped());
+        assertEquals(15, index.lastIndexOf(data, 16, 15));
+        assertEquals(-1, index.indexOf(data, 16, 100));
+    }
+
+    /**
+     * An element that counts how often equals is called on it.
+     */
+    public static final class Counted {
+        static int equalsCalls;
+        final int value;
+
+        Counted(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            equalsCalls++;
+            return other instanceof Counted && ((Counted) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+
+    /**
+     * Inserts and removes in the middle between lookups must not make lookups scan:
+     * each lookup compares only against its value's map entry.
+     */
+    @Test
+    public void testShiftsDoNotCauseScans() {
+        int n = 10_000;
+        DynamicArray<Counted> arr = new DynamicArray<Counted>();
+        arr.setIndexed(true);
+        for (int i = 0; i < n; i++) {
+            arr.add(new Counted(i));
+        }
+        Random random = new Random(5);
+        assertEquals(0, arr.indexOf(new Counted(0)));
+        for (int step = 0; step < 2000; step++) {
+            int at = random.nextInt(arr.size());
+            if (step % 2 == 0) {
+                arr.add(at, new Counted(n + step));
+            } else {
+                arr.remove(at);
+            }
+            int probe = random.nextInt(arr.size());
+            Counted value = new Counted(arr.get(probe).value);
+            Counted.equalsCalls = 0;
+            assertEquals(probe, arr.indexOf(value));
+            assertEquals(probe, arr.lastIndexOf(value));
+            assertTrue(Counted.equalsCalls <= 2);
+        }
+    }
+
+    /**
+     * Runs the GC until the reference is cleared, failing if it never is.
+     */
+    public void assertCollected(java.lang.ref.WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("still reachable", ref.get());
+    }
+
+    /**
+     * Elements removed or overwritten in an indexed array must not be kept reachable by the index.
+     */
+    @Test
+    public void testRemovedElementsCollectable() throws InterruptedException {
+        DynamicArray<Object> arr = new DynamicArray<Object>();
+        arr.setIndexed(true);
+        for (int i = 0; i < 100; i++) {
+            arr.add(new Object());
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, arr.indexOf(arr.get(i)));
+        }
+        java.lang.ref.WeakReference<Object> removed = new java.lang.ref.WeakReference<Object>(arr.get(50));
+        arr.remove(50);
+        assertCollected(removed);
+        java.lang.ref.WeakReference<Object> overwritten = new java.lang.ref.WeakReference<Object>(arr.get(10));
+        arr.set(10, new Object());
+        assertCollected(overwritten);
+        java.lang.ref.WeakReference<Object> extracted = new java.lang.ref.WeakReference<Object>(arr.get(20));
+        arr.extract(15, 25);
+        assertCollected(extracted);
+        java.lang.ref.WeakReference<Object> prefix = new java.lang.ref.WeakReference<Object>(arr.get(0));
+        arr.splitPrefix(5);
+        assertCollected(prefix);
+        assertEquals(5, arr.indexOf(arr.get(5)));
+        java.lang.ref.WeakReference<Object> all = new java.lang.ref.WeakReference<Object>(arr.get(40));
+        arr.splitSuffix(0);
+        assertCollected(all);
+        assertEquals(-1, arr.indexOf(new Object()));
+    }
+}